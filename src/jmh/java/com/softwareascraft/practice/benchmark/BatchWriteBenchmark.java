@@ -0,0 +1,71 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.BatchChange;
+import com.softwareascraft.practice.repository.EntityStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sync of 100 updates against a 10k-item collection: one replace call per item, each taking
+ * the lock and waiting for its own commit, versus one applyAll taking the lock once and
+ * committing every change in a single write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchWriteBenchmark {
+
+    private static final String FILE_NAME = "benchmark-batch.json";
+    private static final int INVENTORY_SIZE = 10000;
+
+    @Param({"100"})
+    private int changes;
+
+    private EntityStore<Locomotive> store;
+    private List<Locomotive> updates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+        store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        store.insertAll(BenchmarkData.locomotives(INVENTORY_SIZE));
+        updates = BenchmarkData.locomotives(changes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    public void replaceEach() {
+        for (Locomotive locomotive : updates) {
+            store.replace(locomotive.getId(), locomotive);
+        }
+    }
+
+    @Benchmark
+    public boolean[] applyAll() {
+        List<BatchChange<Locomotive>> batch = new ArrayList<>(updates.size());
+        for (Locomotive locomotive : updates) {
+            batch.add(BatchChange.replace(locomotive.getId(), locomotive));
+        }
+        return store.applyAll(batch, true);
+    }
+}
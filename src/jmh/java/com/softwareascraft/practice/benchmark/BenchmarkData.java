@@ -0,0 +1,82 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.enums.AARType;
+import com.softwareascraft.practice.enums.LocomotiveType;
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.PowerType;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.model.RollingStock;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    static final String DATA_DIR = "data/";
+
+    private static final String[] MANUFACTURERS = {"Athearn", "Walthers", "Kato", "Bachmann", "Atlas", "Rapido"};
+    private static final String[] ROAD_NAMES = {"Union Pacific", "BNSF", "Santa Fe", "Conrail", "CSX", "Norfolk Southern"};
+
+    private BenchmarkData() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static List<Locomotive> locomotives(int count) {
+        List<Locomotive> locomotives = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Locomotive locomotive = new Locomotive();
+            locomotive.setId((long) i);
+            locomotive.setManufacturer(MANUFACTURERS[i % MANUFACTURERS.length]);
+            locomotive.setModelNumber("RTR-" + (80000 + i));
+            locomotive.setScale(Scale.values()[i % Scale.values().length]);
+            locomotive.setRoadName(ROAD_NAMES[i % ROAD_NAMES.length]);
+            locomotive.setColor("Yellow/Gray");
+            locomotive.setDescription("SD70M Locomotive #" + i);
+            locomotive.setPurchasePrice(new BigDecimal("189.99"));
+            locomotive.setPurchaseDate(LocalDate.of(2024, 1, 15).plusDays(i % 365));
+            locomotive.setCurrentValue(BigDecimal.valueOf(10000 + i, 2));
+            locomotive.setNotes("DCC Ready");
+            locomotive.setMaintenanceStatus(MaintenanceStatus.values()[i % MaintenanceStatus.values().length]);
+            locomotive.setLocomotiveType(LocomotiveType.values()[i % LocomotiveType.values().length]);
+            locomotive.setPowerType(PowerType.values()[i % PowerType.values().length]);
+            locomotive.setRoadNumber(String.valueOf(1000 + i));
+            locomotives.add(locomotive);
+        }
+        return locomotives;
+    }
+
+    static List<RollingStock> rollingStock(int count) {
+        List<RollingStock> rollingStocks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            RollingStock rollingStock = new RollingStock();
+            rollingStock.setId((long) i);
+            rollingStock.setManufacturer(MANUFACTURERS[i % MANUFACTURERS.length]);
+            rollingStock.setModelNumber("ATH-" + (10000 + i));
+            rollingStock.setScale(Scale.values()[i % Scale.values().length]);
+            rollingStock.setRoadName(ROAD_NAMES[i % ROAD_NAMES.length]);
+            rollingStock.setColor("Boxcar Red");
+            rollingStock.setDescription("40ft Box Car #" + i);
+            rollingStock.setPurchasePrice(new BigDecimal("29.99"));
+            rollingStock.setPurchaseDate(LocalDate.of(2023, 6, 1).plusDays(i % 365));
+            rollingStock.setCurrentValue(BigDecimal.valueOf(2000 + i, 2));
+            rollingStock.setMaintenanceStatus(MaintenanceStatus.values()[i % MaintenanceStatus.values().length]);
+            rollingStock.setAarType(AARType.values()[i % AARType.values().length]);
+            rollingStock.setCarType("Box Car");
+            rollingStock.setRoadNumber(String.valueOf(50000 + i));
+            rollingStock.setCapacity("50 ton");
+            rollingStocks.add(rollingStock);
+        }
+        return rollingStocks;
+    }
+
+    static void deleteDataFile(String fileName) {
+        File file = new File(DATA_DIR + fileName);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+}
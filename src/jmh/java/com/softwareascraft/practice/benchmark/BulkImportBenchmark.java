@@ -0,0 +1,124 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softwareascraft.practice.dto.request.CreateLocomotiveRequest;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.util.BulkImport;
+import com.softwareascraft.practice.util.JsonFileManager;
+import com.softwareascraft.practice.util.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a roster into an empty collection: the bulk import reading NDJSON or CSV and
+ * committing a chunk of 5000 rows at a time, versus binding each row and inserting it on its
+ * own as separate create requests would. Row-at-a-time rewrites the file once per commit, so
+ * run it with -p rows=10000 only; the bulk import should stay well under a minute for 200k.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkImportBenchmark {
+
+    private static final String FILE_NAME = "benchmark-import.json";
+    private static final ObjectMapper mapper = JsonFileManager.createObjectMapper();
+
+    @Param({"10000", "200000"})
+    private int rows;
+
+    private byte[] ndjson;
+    private byte[] csv;
+    private EntityStore<Locomotive> store;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUpInput() {
+        StringBuilder json = new StringBuilder();
+        StringBuilder text = new StringBuilder("manufacturer,modelNumber,scale,roadName,purchasePrice,purchaseDate,currentValue\n");
+        for (Locomotive locomotive : BenchmarkData.locomotives(rows)) {
+            json.append("{\"manufacturer\":\"").append(locomotive.getManufacturer())
+                    .append("\",\"modelNumber\":\"").append(locomotive.getModelNumber())
+                    .append("\",\"scale\":\"").append(locomotive.getScale())
+                    .append("\",\"roadName\":\"").append(locomotive.getRoadName())
+                    .append("\",\"purchasePrice\":").append(locomotive.getPurchasePrice())
+                    .append(",\"purchaseDate\":\"").append(locomotive.getPurchaseDate())
+                    .append("\",\"currentValue\":").append(locomotive.getCurrentValue())
+                    .append("}\n");
+            text.append(locomotive.getManufacturer()).append(',')
+                    .append(locomotive.getModelNumber()).append(',')
+                    .append(locomotive.getScale()).append(',')
+                    .append(locomotive.getRoadName()).append(',')
+                    .append(locomotive.getPurchasePrice()).append(',')
+                    .append(locomotive.getPurchaseDate()).append(',')
+                    .append(locomotive.getCurrentValue()).append('\n');
+        }
+        ndjson = json.toString().getBytes(StandardCharsets.UTF_8);
+        csv = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpStore() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+        store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        nextId = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    public ImportResultResponse ndjsonImport() throws IOException {
+        return bulkImport().importFrom(new ByteArrayInputStream(ndjson), BulkImport.Format.NDJSON);
+    }
+
+    @Benchmark
+    public ImportResultResponse csvImport() throws IOException {
+        return bulkImport().importFrom(new ByteArrayInputStream(csv), BulkImport.Format.CSV);
+    }
+
+    @Benchmark
+    public long rowAtATime() throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(ndjson),
+                StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            Locomotive locomotive = ModelMapper.toLocomotive(mapper.readValue(line, CreateLocomotiveRequest.class));
+            locomotive.setId(++nextId);
+            store.insert(locomotive);
+        }
+        return nextId;
+    }
+
+    private BulkImport<CreateLocomotiveRequest> bulkImport() {
+        return new BulkImport<>(CreateLocomotiveRequest.class, row -> { }, chunk -> {
+            List<Locomotive> batch = chunk.stream().map(ModelMapper::toLocomotive).toList();
+            for (Locomotive locomotive : batch) {
+                locomotive.setId(++nextId);
+            }
+            store.insertAll(batch);
+        });
+    }
+}
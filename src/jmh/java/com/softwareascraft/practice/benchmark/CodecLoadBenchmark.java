@@ -0,0 +1,62 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.storage.DataFile;
+import com.softwareascraft.practice.storage.StorageFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold load and full rewrite of a data file in each storage format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CodecLoadBenchmark {
+
+    @Param({"pretty_json", "compact_json", "binary"})
+    private String format;
+
+    @Param({"10000"})
+    private int inventorySize;
+
+    private String fileName;
+    private DataFile<Locomotive> dataFile;
+    private List<Locomotive> locomotives;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fileName = "benchmark-codec-" + format + ".dat";
+        dataFile = new DataFile<>(fileName, new TypeReference<List<Locomotive>>() {},
+                StorageFormat.valueOf(format.toUpperCase()));
+        locomotives = BenchmarkData.locomotives(inventorySize);
+        dataFile.replace(locomotives, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDataFile(fileName);
+    }
+
+    @Benchmark
+    public List<Locomotive> load() {
+        return dataFile.load();
+    }
+
+    @Benchmark
+    public void write() {
+        dataFile.replace(locomotives, false);
+    }
+}
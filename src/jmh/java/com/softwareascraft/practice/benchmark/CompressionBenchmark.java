@@ -0,0 +1,74 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.storage.DataFile;
+import com.softwareascraft.practice.storage.StorageFormat;
+import com.softwareascraft.practice.util.FileCompression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of writing and reading a snapshot at each compression setting; compare it with
+ * the size each setting saves to pick a level for a given link speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompressionBenchmark {
+
+    @Param({"none", "deflate-1", "deflate-6", "deflate-9", "gzip-6"})
+    private String compression;
+
+    @Param({"1000", "10000"})
+    private int inventorySize;
+
+    private String fileName;
+    private DataFile<Locomotive> dataFile;
+    private List<Locomotive> locomotives;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fileName = "benchmark-compression-" + compression + ".json";
+        dataFile = new DataFile<>(fileName, new TypeReference<List<Locomotive>>() {}, StorageFormat.COMPACT_JSON,
+                parse(compression));
+        locomotives = BenchmarkData.locomotives(inventorySize);
+        dataFile.replace(locomotives, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDataFile(fileName);
+    }
+
+    @Benchmark
+    public List<Locomotive> load() {
+        return dataFile.load();
+    }
+
+    @Benchmark
+    public void write() {
+        dataFile.replace(locomotives, false);
+    }
+
+    private static FileCompression parse(String setting) {
+        if (setting.equals("none")) {
+            return FileCompression.NONE;
+        }
+        String[] parts = setting.split("-");
+        return FileCompression.of(FileCompression.Algorithm.valueOf(parts[0].toUpperCase(Locale.ROOT)),
+                Integer.parseInt(parts[1]));
+    }
+}
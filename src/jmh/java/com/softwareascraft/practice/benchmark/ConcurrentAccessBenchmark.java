@@ -0,0 +1,95 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write throughput against one collection: seven readers and one writer share the
+ * store, once through the read-write lock and once through a single monitor standing in for the
+ * previous fully serialized access. Readers should scale with the lock and stall behind the monitor.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrentAccessBenchmark {
+
+    private static final String FILE_NAME = "benchmark-concurrent.json";
+    private static final int INVENTORY_SIZE = 10000;
+
+    private final Object monitor = new Object();
+    private EntityStore<Locomotive> store;
+    private List<Locomotive> templates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+        store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        templates = BenchmarkData.locomotives(INVENTORY_SIZE);
+        templates.forEach(store::insert);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    @Group("readWriteLock")
+    @GroupThreads(7)
+    public Optional<Locomotive> lockedRead() {
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    @Group("readWriteLock")
+    @GroupThreads(1)
+    public boolean lockedWrite() {
+        return replaceRandom();
+    }
+
+    @Benchmark
+    @Group("serialized")
+    @GroupThreads(7)
+    public Optional<Locomotive> serializedRead() {
+        synchronized (monitor) {
+            return store.get(randomId());
+        }
+    }
+
+    @Benchmark
+    @Group("serialized")
+    @GroupThreads(1)
+    public boolean serializedWrite() {
+        synchronized (monitor) {
+            return replaceRandom();
+        }
+    }
+
+    private boolean replaceRandom() {
+        Locomotive locomotive = templates.get(ThreadLocalRandom.current().nextInt(INVENTORY_SIZE));
+        return store.replace(locomotive.getId(), locomotive);
+    }
+
+    private Long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, INVENTORY_SIZE + 1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.util.JsonFileManager;
+import com.softwareascraft.practice.util.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dashboard polling an unchanged collection: reading, mapping and serializing every item
+ * on each poll, versus comparing its If-None-Match tag with the collection's version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConditionalGetBenchmark {
+
+    private static final String FILE_NAME = "benchmark-conditional.json";
+    private static final ObjectMapper mapper = JsonFileManager.createObjectMapper();
+
+    @Param({"1000", "10000"})
+    private int inventorySize;
+
+    private EntityStore<Locomotive> store;
+    private String ifNoneMatch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+        store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        store.insertAll(BenchmarkData.locomotives(inventorySize));
+        ifNoneMatch = "\"" + store.getVersion() + "\"";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    public byte[] fullResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(ModelMapper.toLocomotiveResponseList(store.getAll()));
+    }
+
+    @Benchmark
+    public boolean versionCheck() {
+        return ifNoneMatch.equals("\"" + store.getVersion() + "\"");
+    }
+}
@@ -0,0 +1,94 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.index.FuzzyIndex;
+import com.softwareascraft.practice.model.Locomotive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 approximate matches for a misspelled name against a vocabulary of distinct
+ * manufacturer-like names, through the trigram index versus computing the Levenshtein distance
+ * to every name per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzyMatchBenchmark {
+
+    private static final String[] SYLLABLES = {"ath", "earn", "wal", "thers", "ka", "to", "bach", "mann",
+            "rap", "ido", "at", "las", "con", "rail", "sou", "thern", "pa", "cific", "ken", "tucky"};
+    private static final String QUERY = "Athern";
+
+    @Param({"10000", "100000"})
+    private int vocabularySize;
+
+    private List<String> vocabulary;
+    private FuzzyIndex<Locomotive> index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new ArrayList<>(vocabularySize);
+        index = new FuzzyIndex<>(Locomotive::getManufacturer);
+        for (int i = 0; i < vocabularySize; i++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.append(' ').append(i);
+            vocabulary.add(name.toString());
+
+            Locomotive locomotive = new Locomotive();
+            locomotive.setManufacturer(name.toString());
+            index.put(i + 1, locomotive);
+        }
+    }
+
+    @Benchmark
+    public List<FuzzyIndex.Match> trigramIndex() {
+        return index.match(QUERY, 10);
+    }
+
+    @Benchmark
+    public List<String> levenshteinScan() {
+        String query = QUERY.toLowerCase(Locale.ROOT);
+        return vocabulary.stream()
+                .sorted(Comparator.comparingInt(name -> levenshtein(query, name.toLowerCase(Locale.ROOT))))
+                .limit(10)
+                .toList();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
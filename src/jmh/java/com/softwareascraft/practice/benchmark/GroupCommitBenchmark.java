@@ -0,0 +1,88 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.storage.StorageSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write throughput of the group commit pipeline at 1, 8 and 64 concurrent writers for each
+ * fsync policy, against a journal-mode collection. A lone writer waits out the whole commit
+ * window on every insert, so its rate is bounded by the window rather than the disk; the
+ * policies only separate once enough writers share each batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GroupCommitBenchmark {
+
+    @Param({"none", "batch", "write"})
+    private String fsync;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private String fileName;
+    private EntityStore<Locomotive> store;
+    private Locomotive template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fileName = "benchmark-commit-" + fsync + ".json";
+        String collection = StorageSettings.collectionKey(fileName);
+        System.setProperty("inventory.storage." + collection + ".mode", "journal");
+        System.setProperty("inventory.storage." + collection + ".commit.fsync", fsync);
+
+        store = EntityStore.forFile(fileName, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        template = BenchmarkData.locomotives(1).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(fileName);
+        BenchmarkData.deleteDataFile(fileName);
+        BenchmarkData.deleteDataFile(StorageSettings.collectionKey(fileName) + ".journal");
+        BenchmarkData.deleteDataFile(StorageSettings.collectionKey(fileName) + ".journal.sealed");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Locomotive writers1() {
+        return insert();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Locomotive writers8() {
+        return insert();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Locomotive writers64() {
+        return insert();
+    }
+
+    private Locomotive insert() {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setId(nextId.incrementAndGet());
+        locomotive.setManufacturer(template.getManufacturer());
+        locomotive.setModelNumber(template.getModelNumber());
+        locomotive.setScale(template.getScale());
+        locomotive.setRoadName(template.getRoadName());
+        return store.insert(locomotive);
+    }
+}
@@ -0,0 +1,72 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.index.IdIndex;
+import com.softwareascraft.practice.index.NumericRangeIndex;
+import com.softwareascraft.practice.model.Locomotive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 50-item page taken from the middle of the inventory, resumed from a keyset position on the
+ * id and current value indexes versus sorting the whole collection and skipping an offset. The
+ * keyset pages should cost the same at any depth and any inventory size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeysetPageBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "1000000"})
+    private int inventorySize;
+
+    private List<Locomotive> inventory;
+    private IdIndex<Locomotive> ids;
+    private NumericRangeIndex<Locomotive> currentValue;
+    private long middleId;
+    private long middleKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventory = BenchmarkData.locomotives(inventorySize);
+        ids = new IdIndex<>();
+        currentValue = new NumericRangeIndex<>(Locomotive::getCurrentValue, 2);
+        for (Locomotive locomotive : inventory) {
+            ids.put(locomotive.getId(), locomotive);
+            currentValue.put(locomotive.getId(), locomotive);
+        }
+        middleId = inventory.get(inventorySize / 2).getId();
+        middleKey = currentValue.keyOf(middleId);
+    }
+
+    @Benchmark
+    public long[] keysetById() {
+        return ids.after(middleId, middleId, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public long[] keysetByCurrentValue() {
+        return currentValue.after(middleKey, middleId, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public List<Locomotive> offsetByCurrentValue() {
+        return inventory.stream()
+                .sorted(Comparator.comparing(Locomotive::getCurrentValue).thenComparing(Locomotive::getId))
+                .skip(inventorySize / 2 + 1)
+                .limit(PAGE_SIZE)
+                .toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.storage.MappedStorageEngine;
+import com.softwareascraft.practice.storage.StorageFormat;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findById against the memory-mapped record store, which reads a single record through its
+ * offset index. Latency should not depend on the inventory size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappedLookupBenchmark {
+
+    private static final String FILE_NAME = "benchmark-mapped-locomotives.json";
+
+    @Param({"10000", "1000000"})
+    private int inventorySize;
+
+    private MappedStorageEngine<Locomotive> engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonFileManager.writeToFile(FILE_NAME, BenchmarkData.locomotives(inventorySize));
+        engine = new MappedStorageEngine<>(FILE_NAME, new TypeReference<List<Locomotive>>() {},
+                Locomotive::getId, StorageFormat.PRETTY_JSON);
+        engine.getMaxId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDataFile(FILE_NAME);
+        BenchmarkData.deleteDataFile("benchmark-mapped-locomotives.records");
+    }
+
+    @Benchmark
+    public Optional<Locomotive> mappedFindById() {
+        return engine.find(ThreadLocalRandom.current().nextLong(1, inventorySize + 1));
+    }
+}
@@ -0,0 +1,76 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.util.JsonFileManager;
+import com.softwareascraft.practice.util.ModelMapper;
+import com.softwareascraft.practice.util.NdjsonExport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full export of the inventory into a discarding stream: mapping the whole collection to a
+ * response list and serializing it at once, versus writing newline-delimited JSON a batch at a
+ * time. Run with -prof gc; the streamed export should allocate per item without the spike of
+ * holding every response at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NdjsonExportBenchmark {
+
+    private static final String FILE_NAME = "benchmark-export.json";
+    private static final ObjectWriter writer = JsonFileManager.createObjectMapper().writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+
+    @Param({"10000", "100000"})
+    private int inventorySize;
+
+    private EntityStore<Locomotive> store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+        store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        BenchmarkData.locomotives(inventorySize).forEach(store::insert);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    public void listExport() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), ModelMapper.toLocomotiveResponseList(store.getAll()));
+    }
+
+    @Benchmark
+    public void streamedExport() throws IOException {
+        NdjsonExport<Locomotive> export = new NdjsonExport<>(store.stream(() -> {
+            BitSet ids = new BitSet();
+            ids.set(1, inventorySize + 1);
+            return ids;
+        }), ModelMapper::toLocomotiveResponse);
+        export.writeTo(OutputStream.nullOutputStream());
+    }
+}
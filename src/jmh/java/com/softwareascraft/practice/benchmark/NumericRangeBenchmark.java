@@ -0,0 +1,74 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.index.NumericRangeIndex;
+import com.softwareascraft.practice.model.Locomotive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-50 by current value and a narrow value range, read off the scaled-long index versus
+ * sorting or filtering every item's {@link BigDecimal}. The index should be independent of
+ * inventory size for top-N and proportional to the match count for ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NumericRangeBenchmark {
+
+    private static final int TOP = 50;
+    private static final BigDecimal MIN = new BigDecimal("150.00");
+    private static final BigDecimal MAX = new BigDecimal("155.00");
+
+    @Param({"10000", "1000000"})
+    private int inventorySize;
+
+    private List<Locomotive> inventory;
+    private NumericRangeIndex<Locomotive> currentValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventory = BenchmarkData.locomotives(inventorySize);
+        currentValue = new NumericRangeIndex<>(Locomotive::getCurrentValue, 2);
+        for (Locomotive locomotive : inventory) {
+            currentValue.put(locomotive.getId(), locomotive);
+        }
+    }
+
+    @Benchmark
+    public long[] indexTopN() {
+        return currentValue.highest(TOP);
+    }
+
+    @Benchmark
+    public List<Locomotive> sortTopN() {
+        return inventory.stream()
+                .sorted(Comparator.comparing(Locomotive::getCurrentValue).reversed())
+                .limit(TOP)
+                .toList();
+    }
+
+    @Benchmark
+    public long[] indexRange() {
+        return currentValue.between(MIN, MAX, false);
+    }
+
+    @Benchmark
+    public List<Locomotive> scanRange() {
+        return inventory.stream()
+                .filter(item -> item.getCurrentValue().compareTo(MIN) >= 0 && item.getCurrentValue().compareTo(MAX) <= 0)
+                .sorted(Comparator.comparing(Locomotive::getCurrentValue))
+                .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.index.PrefixIndex;
+import com.softwareascraft.practice.model.Locomotive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 type-ahead suggestions over near-unique model numbers and a handful of manufacturers,
+ * for short and longer prefixes. Latency should stay well under a millisecond at 1M entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrefixSuggestBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int inventorySize;
+
+    private PrefixIndex<Locomotive> modelNumbers;
+    private PrefixIndex<Locomotive> manufacturers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        modelNumbers = new PrefixIndex<>(Locomotive::getModelNumber);
+        manufacturers = new PrefixIndex<>(Locomotive::getManufacturer);
+        for (Locomotive locomotive : BenchmarkData.locomotives(inventorySize)) {
+            modelNumbers.put(locomotive.getId(), locomotive);
+            manufacturers.put(locomotive.getId(), locomotive);
+        }
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Suggestion> modelNumberShortPrefix() {
+        return modelNumbers.suggest("r", 10);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Suggestion> modelNumberLongPrefix() {
+        return modelNumbers.suggest("rtr-85", 10);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Suggestion> manufacturerPrefix() {
+        return manufacturers.suggest("a", 10);
+    }
+}
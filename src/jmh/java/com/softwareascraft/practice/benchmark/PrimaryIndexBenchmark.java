@@ -0,0 +1,70 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.index.PrimaryIndex;
+import com.softwareascraft.practice.model.Locomotive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares findById through the primitive primary index against the boxed HashMap it
+ * replaced and the original stream scan over the entity list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrimaryIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int inventorySize;
+
+    private List<Locomotive> locomotives;
+    private PrimaryIndex<Locomotive> index;
+    private Map<Long, Locomotive> boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        locomotives = BenchmarkData.locomotives(inventorySize);
+        index = new PrimaryIndex<>();
+        boxed = new HashMap<>();
+        for (Locomotive locomotive : locomotives) {
+            index.put(locomotive.getId(), locomotive);
+            boxed.put(locomotive.getId(), locomotive);
+        }
+    }
+
+    @Benchmark
+    public Locomotive primaryIndexFindById() {
+        return index.get(randomId());
+    }
+
+    @Benchmark
+    public Locomotive boxedMapFindById() {
+        return boxed.get(randomId());
+    }
+
+    @Benchmark
+    public Optional<Locomotive> streamScanFindById() {
+        Long id = randomId();
+        return locomotives.stream()
+                .filter(l -> l.getId().equals(id))
+                .findFirst();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, inventorySize + 1);
+    }
+}
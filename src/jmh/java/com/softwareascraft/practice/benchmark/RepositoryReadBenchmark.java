@@ -0,0 +1,69 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares findById served from the resident store against the previous
+ * parse-the-file-and-scan path. Store latency should stay flat as the inventory grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryReadBenchmark {
+
+    private static final String FILE_NAME = "benchmark-locomotives.json";
+
+    @Param({"100", "1000", "10000"})
+    private int inventorySize;
+
+    private EntityStore<Locomotive> store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonFileManager.writeToFile(FILE_NAME, BenchmarkData.locomotives(inventorySize));
+        EntityStore.resetStore(FILE_NAME);
+        store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        store.getAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityStore.resetStore(FILE_NAME);
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    public Optional<Locomotive> storeFindById() {
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    public Optional<Locomotive> fileScanFindById() {
+        Long id = randomId();
+        return JsonFileManager.readFromFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}).stream()
+                .filter(l -> l.getId().equals(id))
+                .findFirst();
+    }
+
+    private Long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, inventorySize + 1);
+    }
+}
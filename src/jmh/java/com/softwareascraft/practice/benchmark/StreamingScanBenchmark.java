@@ -0,0 +1,77 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.storage.DataFile;
+import com.softwareascraft.practice.storage.StorageFormat;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares finder scans over the data file: binding the whole list and filtering it versus
+ * streaming one element at a time. Run with -prof gc to compare allocation per scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamingScanBenchmark {
+
+    private static final String FILE_NAME = "benchmark-scan-locomotives.json";
+    private static final TypeReference<List<Locomotive>> LIST_TYPE = new TypeReference<>() {};
+
+    @Param({"1000", "10000"})
+    private int inventorySize;
+
+    private DataFile<Locomotive> dataFile;
+    private Long middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonFileManager.writeToFile(FILE_NAME, BenchmarkData.locomotives(inventorySize));
+        dataFile = new DataFile<>(FILE_NAME, LIST_TYPE, StorageFormat.PRETTY_JSON);
+        middleId = (long) inventorySize / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDataFile(FILE_NAME);
+    }
+
+    @Benchmark
+    public List<Locomotive> listFindByManufacturer() {
+        return JsonFileManager.readFromFile(FILE_NAME, LIST_TYPE).stream()
+                .filter(l -> "Kato".equalsIgnoreCase(l.getManufacturer()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Locomotive> streamingFindByManufacturer() {
+        return dataFile.scan(l -> "Kato".equalsIgnoreCase(l.getManufacturer()), Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Optional<Locomotive> listFindById() {
+        return JsonFileManager.readFromFile(FILE_NAME, LIST_TYPE).stream()
+                .filter(l -> middleId.equals(l.getId()))
+                .findFirst();
+    }
+
+    @Benchmark
+    public Optional<Locomotive> streamingFindById() {
+        return dataFile.scan(l -> middleId.equals(l.getId()), 1).stream().findFirst();
+    }
+}
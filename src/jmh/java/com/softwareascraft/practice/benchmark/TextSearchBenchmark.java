@@ -0,0 +1,88 @@
+package com.softwareascraft.practice.benchmark;
+
+import com.softwareascraft.practice.index.TextIndex;
+import com.softwareascraft.practice.model.MaintenanceLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 full-text search over maintenance logs through the inverted index, against a
+ * case-insensitive substring scan of the same text. The corpus draws its words from a small
+ * maintenance vocabulary with a skewed distribution, so common terms have long postings lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextSearchBenchmark {
+
+    private static final String[] VOCABULARY = {
+            "cleaned", "wheels", "motor", "lubricated", "gears", "replaced", "gearbox", "decoder",
+            "coupler", "trucks", "pickups", "bulb", "headlight", "speaker", "tender", "drawbar",
+            "traction", "tires", "worm", "flywheel", "repainted", "weathered", "kadee", "brass"
+    };
+
+    @Param({"100000", "1000000"})
+    private int corpusSize;
+
+    private TextIndex<MaintenanceLog> index;
+    private List<MaintenanceLog> logs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        index = new TextIndex<>(MaintenanceLog::getDescription, MaintenanceLog::getWorkPerformed);
+        logs = new ArrayList<>(corpusSize);
+        for (long id = 1; id <= corpusSize; id++) {
+            MaintenanceLog log = new MaintenanceLog();
+            log.setId(id);
+            log.setDescription(sentence(random, 4));
+            log.setWorkPerformed(sentence(random, 8));
+            logs.add(log);
+            index.put(id, log);
+        }
+    }
+
+    @Benchmark
+    public TextIndex.SearchHits indexSearchRareTerm() {
+        return index.search("brass drawbar", 10);
+    }
+
+    @Benchmark
+    public TextIndex.SearchHits indexSearchCommonTerm() {
+        return index.search("gearbox", 10);
+    }
+
+    @Benchmark
+    public List<MaintenanceLog> substringScan() {
+        List<MaintenanceLog> matches = new ArrayList<>();
+        for (MaintenanceLog log : logs) {
+            if (log.getWorkPerformed().toLowerCase(Locale.ROOT).contains("gearbox")
+                    || log.getDescription().toLowerCase(Locale.ROOT).contains("gearbox")) {
+                matches.add(log);
+            }
+        }
+        return matches;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            double skewed = Math.pow(random.nextDouble(), 2);
+            sentence.append(VOCABULARY[(int) (skewed * VOCABULARY.length)]).append(' ');
+        }
+        return sentence.toString();
+    }
+}
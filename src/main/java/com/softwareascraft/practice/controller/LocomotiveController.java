@@ -1,13 +1,26 @@
 package com.softwareascraft.practice.controller;
 
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateLocomotiveRequest;
+import com.softwareascraft.practice.dto.request.InventoryQueryRequest;
 import com.softwareascraft.practice.dto.request.UpdateLocomotiveRequest;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
+import com.softwareascraft.practice.dto.response.FuzzyMatchResponse;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
 import com.softwareascraft.practice.dto.response.LocomotiveResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
+import com.softwareascraft.practice.dto.response.SuggestionResponse;
 import com.softwareascraft.practice.service.LocomotiveService;
+import com.softwareascraft.practice.util.BulkImport;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -26,14 +39,44 @@ public class LocomotiveController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultResponse<LocomotiveResponse>> applyLocomotiveBatch(
+            @RequestBody BatchRequest<CreateLocomotiveRequest> request) {
+        BatchResultResponse<LocomotiveResponse> response = locomotiveService.applyLocomotiveBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<SearchResultsResponse<LocomotiveResponse>> getLocomotivesPage(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "order", required = false) String order,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        SearchResultsResponse<LocomotiveResponse> response = locomotiveService.getLocomotivesPage(sort, order, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<LocomotiveResponse> getLocomotiveById(@PathVariable Long id) {
+    public ResponseEntity<LocomotiveResponse> getLocomotiveById(@PathVariable Long id, WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getVersion(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         LocomotiveResponse response = locomotiveService.getLocomotiveById(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<LocomotiveResponse>> getAllLocomotives() {
+    public ResponseEntity<List<LocomotiveResponse>> getAllLocomotives(WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<LocomotiveResponse> responses = locomotiveService.getAllLocomotives();
         return ResponseEntity.ok(responses);
     }
@@ -54,8 +97,105 @@ public class LocomotiveController {
 
     @GetMapping("/manufacturer/{manufacturer}")
     public ResponseEntity<List<LocomotiveResponse>> getLocomotivesByManufacturer(
-            @PathVariable String manufacturer) {
+            @PathVariable String manufacturer,
+            WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<LocomotiveResponse> responses = locomotiveService.getLocomotivesByManufacturer(manufacturer);
         return ResponseEntity.ok(responses);
     }
+
+    @GetMapping("/most-valuable")
+    public ResponseEntity<List<LocomotiveResponse>> getMostValuableLocomotives(
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<LocomotiveResponse> responses = locomotiveService.getMostValuableLocomotives(limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    @PostMapping("/query")
+    public ResponseEntity<SearchResultsResponse<LocomotiveResponse>> queryLocomotives(
+            @RequestBody InventoryQueryRequest request) {
+        SearchResultsResponse<LocomotiveResponse> response = locomotiveService.queryLocomotives(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResultResponse> importLocomotivesNdjson(InputStream body) throws IOException {
+        ImportResultResponse response = locomotiveService.importLocomotives(body, BulkImport.Format.NDJSON);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultResponse> importLocomotivesCsv(InputStream body) throws IOException {
+        ImportResultResponse response = locomotiveService.importLocomotives(body, BulkImport.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLocomotives(InventoryQueryRequest filters, WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        StreamingResponseBody body = locomotiveService.exportLocomotives(filters)::writeTo;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultsResponse<LocomotiveResponse>> searchLocomotives(
+            @RequestParam("q") String text,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        SearchResultsResponse<LocomotiveResponse> response = locomotiveService.searchLocomotives(text, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggestLocomotives(
+            @RequestParam("field") String field,
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<SuggestionResponse> responses = locomotiveService.suggestLocomotives(field, prefix, limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/fuzzy")
+    public ResponseEntity<List<FuzzyMatchResponse>> fuzzyMatchLocomotives(
+            @RequestParam("field") String field,
+            @RequestParam("q") String text,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, locomotiveService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<FuzzyMatchResponse> responses = locomotiveService.fuzzyMatchLocomotives(field, text, limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Tags the response with a version and checks it against If-None-Match, before anything is
+     * read or mapped
+     * @param version the version, or null for a missing item, which is never tagged
+     * @return true if the client's copy is current and a 304 should be sent
+     */
+    private static boolean notModified(WebRequest webRequest, Long version) {
+        return version != null && webRequest.checkNotModified("\"" + version + "\"");
+    }
 }
@@ -1,13 +1,21 @@
 package com.softwareascraft.practice.controller;
 
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateMaintenanceLogRequest;
 import com.softwareascraft.practice.dto.request.UpdateMaintenanceStatusRequest;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
 import com.softwareascraft.practice.dto.response.MaintenanceLogResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
 import com.softwareascraft.practice.service.MaintenanceService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -27,14 +35,29 @@ public class MaintenanceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultResponse<MaintenanceLogResponse>> applyMaintenanceLogBatch(
+            @RequestBody BatchRequest<CreateMaintenanceLogRequest> request) {
+        BatchResultResponse<MaintenanceLogResponse> response = maintenanceService.applyMaintenanceLogBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<MaintenanceLogResponse> getMaintenanceLogById(@PathVariable Long id) {
+    public ResponseEntity<MaintenanceLogResponse> getMaintenanceLogById(@PathVariable Long id, WebRequest webRequest) {
+        if (notModified(webRequest, maintenanceService.getVersion(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         MaintenanceLogResponse response = maintenanceService.getMaintenanceLogById(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/item/{itemId}")
-    public ResponseEntity<List<MaintenanceLogResponse>> getMaintenanceLogsByItemId(@PathVariable Long itemId) {
+    public ResponseEntity<List<MaintenanceLogResponse>> getMaintenanceLogsByItemId(@PathVariable Long itemId, WebRequest webRequest) {
+        if (notModified(webRequest, maintenanceService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<MaintenanceLogResponse> responses = maintenanceService.getMaintenanceLogsByItemId(itemId);
         return ResponseEntity.ok(responses);
     }
@@ -52,4 +75,41 @@ public class MaintenanceController {
         maintenanceService.deleteMaintenanceLog(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMaintenanceLogs(
+            @RequestParam(value = "itemId", required = false) Long itemId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+        if (notModified(webRequest, maintenanceService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        StreamingResponseBody body = maintenanceService.exportMaintenanceLogs(itemId, from, to)::writeTo;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultsResponse<MaintenanceLogResponse>> searchMaintenanceLogs(
+            @RequestParam("q") String text,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, maintenanceService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        SearchResultsResponse<MaintenanceLogResponse> response = maintenanceService.searchMaintenanceLogs(text, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Tags the response with a version and checks it against If-None-Match, before anything is
+     * read or mapped
+     * @param version the version, or null for a missing item, which is never tagged
+     * @return true if the client's copy is current and a 304 should be sent
+     */
+    private static boolean notModified(WebRequest webRequest, Long version) {
+        return version != null && webRequest.checkNotModified("\"" + version + "\"");
+    }
 }
@@ -1,13 +1,26 @@
 package com.softwareascraft.practice.controller;
 
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateRollingStockRequest;
+import com.softwareascraft.practice.dto.request.InventoryQueryRequest;
 import com.softwareascraft.practice.dto.request.UpdateRollingStockRequest;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
+import com.softwareascraft.practice.dto.response.FuzzyMatchResponse;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
 import com.softwareascraft.practice.dto.response.RollingStockResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
+import com.softwareascraft.practice.dto.response.SuggestionResponse;
 import com.softwareascraft.practice.service.RollingStockService;
+import com.softwareascraft.practice.util.BulkImport;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -26,14 +39,44 @@ public class RollingStockController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultResponse<RollingStockResponse>> applyRollingStockBatch(
+            @RequestBody BatchRequest<CreateRollingStockRequest> request) {
+        BatchResultResponse<RollingStockResponse> response = rollingStockService.applyRollingStockBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<SearchResultsResponse<RollingStockResponse>> getRollingStockPage(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "order", required = false) String order,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        SearchResultsResponse<RollingStockResponse> response = rollingStockService.getRollingStockPage(sort, order, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<RollingStockResponse> getRollingStockById(@PathVariable Long id) {
+    public ResponseEntity<RollingStockResponse> getRollingStockById(@PathVariable Long id, WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getVersion(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         RollingStockResponse response = rollingStockService.getRollingStockById(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<RollingStockResponse>> getAllRollingStock() {
+    public ResponseEntity<List<RollingStockResponse>> getAllRollingStock(WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<RollingStockResponse> responses = rollingStockService.getAllRollingStock();
         return ResponseEntity.ok(responses);
     }
@@ -54,8 +97,105 @@ public class RollingStockController {
 
     @GetMapping("/manufacturer/{manufacturer}")
     public ResponseEntity<List<RollingStockResponse>> getRollingStockByManufacturer(
-            @PathVariable String manufacturer) {
+            @PathVariable String manufacturer,
+            WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<RollingStockResponse> responses = rollingStockService.getRollingStockByManufacturer(manufacturer);
         return ResponseEntity.ok(responses);
     }
+
+    @GetMapping("/most-valuable")
+    public ResponseEntity<List<RollingStockResponse>> getMostValuableRollingStock(
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<RollingStockResponse> responses = rollingStockService.getMostValuableRollingStock(limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    @PostMapping("/query")
+    public ResponseEntity<SearchResultsResponse<RollingStockResponse>> queryRollingStock(
+            @RequestBody InventoryQueryRequest request) {
+        SearchResultsResponse<RollingStockResponse> response = rollingStockService.queryRollingStock(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResultResponse> importRollingStockNdjson(InputStream body) throws IOException {
+        ImportResultResponse response = rollingStockService.importRollingStock(body, BulkImport.Format.NDJSON);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultResponse> importRollingStockCsv(InputStream body) throws IOException {
+        ImportResultResponse response = rollingStockService.importRollingStock(body, BulkImport.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRollingStock(InventoryQueryRequest filters, WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        StreamingResponseBody body = rollingStockService.exportRollingStock(filters)::writeTo;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultsResponse<RollingStockResponse>> searchRollingStock(
+            @RequestParam("q") String text,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        SearchResultsResponse<RollingStockResponse> response = rollingStockService.searchRollingStock(text, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggestRollingStock(
+            @RequestParam("field") String field,
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<SuggestionResponse> responses = rollingStockService.suggestRollingStock(field, prefix, limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/fuzzy")
+    public ResponseEntity<List<FuzzyMatchResponse>> fuzzyMatchRollingStock(
+            @RequestParam("field") String field,
+            @RequestParam("q") String text,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest, rollingStockService.getCollectionVersion())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<FuzzyMatchResponse> responses = rollingStockService.fuzzyMatchRollingStock(field, text, limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Tags the response with a version and checks it against If-None-Match, before anything is
+     * read or mapped
+     * @param version the version, or null for a missing item, which is never tagged
+     * @return true if the client's copy is current and a 304 should be sent
+     */
+    private static boolean notModified(WebRequest webRequest, Long version) {
+        return version != null && webRequest.checkNotModified("\"" + version + "\"");
+    }
 }
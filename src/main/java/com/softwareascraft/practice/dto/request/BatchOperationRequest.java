@@ -0,0 +1,31 @@
+package com.softwareascraft.practice.dto.request;
+
+public class BatchOperationRequest<T> {
+    private String op;
+    private Long id;
+    private T data;
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,24 @@
+package com.softwareascraft.practice.dto.request;
+
+import java.util.List;
+
+public class BatchRequest<T> {
+    private Boolean atomic;
+    private List<BatchOperationRequest<T>> operations;
+
+    public Boolean getAtomic() {
+        return atomic;
+    }
+
+    public void setAtomic(Boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    public List<BatchOperationRequest<T>> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperationRequest<T>> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,38 @@
+package com.softwareascraft.practice.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResultResponse<T> {
+    private Integer succeeded;
+    private Integer failed;
+    private List<BatchOperationResultResponse<T>> results;
+
+    public BatchResultResponse() {
+        this.results = new ArrayList<>();
+    }
+
+    public Integer getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(Integer succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchOperationResultResponse<T>> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchOperationResultResponse<T>> results) {
+        this.results = results;
+    }
+}
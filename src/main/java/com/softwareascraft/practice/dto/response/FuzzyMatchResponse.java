@@ -0,0 +1,31 @@
+package com.softwareascraft.practice.dto.response;
+
+public class FuzzyMatchResponse {
+    private String value;
+    private Double similarity;
+    private Integer count;
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Double getSimilarity() {
+        return similarity;
+    }
+
+    public void setSimilarity(Double similarity) {
+        this.similarity = similarity;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,22 @@
+package com.softwareascraft.practice.dto.response;
+
+public class ImportErrorResponse {
+    private Integer line;
+    private String message;
+
+    public Integer getLine() {
+        return line;
+    }
+
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
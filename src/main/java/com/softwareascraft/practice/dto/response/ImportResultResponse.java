@@ -0,0 +1,33 @@
+package com.softwareascraft.practice.dto.response;
+
+import java.util.List;
+
+public class ImportResultResponse {
+    private Integer imported;
+    private Integer failed;
+    private List<ImportErrorResponse> errors;
+
+    public Integer getImported() {
+        return imported;
+    }
+
+    public void setImported(Integer imported) {
+        this.imported = imported;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportErrorResponse> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportErrorResponse> errors) {
+        this.errors = errors;
+    }
+}
@@ -8,6 +8,8 @@ public class SearchResultsResponse<T> {
     private Long totalResults;
     private Integer page;
     private Integer pageSize;
+    private List<String> queryPlan;
+    private String nextCursor;
 
     public SearchResultsResponse() {
         this.results = new ArrayList<>();
@@ -44,4 +46,20 @@ public class SearchResultsResponse<T> {
     public void setPageSize(Integer pageSize) {
         this.pageSize = pageSize;
     }
+
+    public List<String> getQueryPlan() {
+        return queryPlan;
+    }
+
+    public void setQueryPlan(List<String> queryPlan) {
+        this.queryPlan = queryPlan;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,22 @@
+package com.softwareascraft.practice.dto.response;
+
+public class SuggestionResponse {
+    private String value;
+    private Integer count;
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
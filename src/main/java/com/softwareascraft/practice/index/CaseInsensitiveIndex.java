@@ -0,0 +1,125 @@
+package com.softwareascraft.practice.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hash index over a string field compared without regard to case. Each value is normalized to
+ * lower case once when indexed, so a lookup is one hash probe returning the ids that share the
+ * value, held in ascending order in an array with room to grow. A lookup costs the number of
+ * matches rather than the highest id. Entities whose field is null are not indexed and never match.
+ */
+public class CaseInsensitiveIndex<T> implements SecondaryIndex<T> {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final Function<T, String> keyExtractor;
+    private final Map<String, SortedIds> idsByKey = new HashMap<>();
+    private final Map<Long, String> keysById = new HashMap<>();
+
+    public CaseInsensitiveIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        String key = normalize(keyExtractor.apply(entity));
+        String previous = key == null ? keysById.remove(id) : keysById.put(id, key);
+        if (previous != null && previous.equals(key)) {
+            return;
+        }
+
+        if (previous != null) {
+            unlink(previous, id);
+        }
+        if (key != null) {
+            idsByKey.computeIfAbsent(key, k -> new SortedIds()).add(id);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        String previous = keysById.remove(id);
+        if (previous != null) {
+            unlink(previous, id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        idsByKey.clear();
+        keysById.clear();
+    }
+
+    /**
+     * Gets the ids whose field equals a value, ignoring case
+     * @param value the value to match; null matches nothing
+     * @return the matching ids in ascending order
+     */
+    public long[] ids(String value) {
+        SortedIds ids = idsByKey.get(normalize(value));
+        return ids == null ? NO_IDS : Arrays.copyOf(ids.ids, ids.size);
+    }
+
+    /**
+     * Gets the ids whose field equals a value, ignoring case, for intersecting with other indexes
+     * @param value the value to match; null matches nothing
+     * @return a bitset the caller may modify
+     */
+    public BitSet matching(String value) {
+        BitSet bits = new BitSet();
+        SortedIds ids = idsByKey.get(normalize(value));
+        if (ids != null) {
+            for (int i = 0; i < ids.size; i++) {
+                bits.set(EnumBitmapIndex.bitFor(ids.ids[i]));
+            }
+        }
+        return bits;
+    }
+
+    public int count(String value) {
+        SortedIds ids = idsByKey.get(normalize(value));
+        return ids == null ? 0 : ids.size;
+    }
+
+    private void unlink(String key, long id) {
+        SortedIds ids = idsByKey.get(key);
+        ids.remove(id);
+        if (ids.size == 0) {
+            idsByKey.remove(key);
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ids sharing a key in ascending order. Ids are generated in sequence, so adding one is
+     * usually an append.
+     */
+    private static final class SortedIds {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? size : -Arrays.binarySearch(ids, 0, size, id) - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
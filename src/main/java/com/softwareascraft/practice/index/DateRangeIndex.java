@@ -0,0 +1,187 @@
+package com.softwareascraft.practice.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Ordered index over a date field: a navigable map from epoch day to the ids dated that day,
+ * held in a small sorted array. A range query visits only the days inside the range, in either
+ * direction, and a count needs no entity at all. Entities without a date are not indexed.
+ */
+public class DateRangeIndex<T> implements OrderedIndex<T> {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final Function<T, LocalDate> dateExtractor;
+    private final NavigableMap<Long, long[]> idsByDay = new TreeMap<>();
+    private final Map<Long, Long> daysById = new HashMap<>();
+
+    public DateRangeIndex(Function<T, LocalDate> dateExtractor) {
+        this.dateExtractor = dateExtractor;
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        LocalDate date = dateExtractor.apply(entity);
+        Long day = date == null ? null : date.toEpochDay();
+        Long previous = day == null ? daysById.remove(id) : daysById.put(id, day);
+        if (previous != null && previous.equals(day)) {
+            return;
+        }
+
+        if (previous != null) {
+            unlink(previous, id);
+        }
+        if (day != null) {
+            link(day, id);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        Long previous = daysById.remove(id);
+        if (previous != null) {
+            unlink(previous, id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        idsByDay.clear();
+        daysById.clear();
+    }
+
+    /**
+     * Gets the ids dated within a range, in date order; ids sharing a day are in ascending order
+     * @param start the first date to include, or null for no lower bound
+     * @param end the last date to include, or null for no upper bound
+     * @param descending true to walk from the latest date back to the earliest
+     * @return the matching ids
+     */
+    public long[] between(LocalDate start, LocalDate end, boolean descending) {
+        NavigableMap<Long, long[]> days = range(start, end);
+        if (descending) {
+            days = days.descendingMap();
+        }
+
+        long[] ids = new long[count(days)];
+        int next = 0;
+        for (long[] dayIds : days.values()) {
+            System.arraycopy(dayIds, 0, ids, next, dayIds.length);
+            next += dayIds.length;
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the ids dated within a range as a bitset the caller may modify
+     */
+    public BitSet matching(LocalDate start, LocalDate end) {
+        BitSet ids = new BitSet();
+        for (long[] dayIds : range(start, end).values()) {
+            for (long id : dayIds) {
+                ids.set(EnumBitmapIndex.bitFor(id));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Counts the ids dated within a range without resolving any of them
+     */
+    public int count(LocalDate start, LocalDate end) {
+        return count(range(start, end));
+    }
+
+    /**
+     * Gets the ids after a position in (epoch day, id) order
+     */
+    @Override
+    public long[] after(long key, long id, int limit, boolean descending) {
+        if (limit <= 0) {
+            return NO_IDS;
+        }
+
+        NavigableMap<Long, long[]> days = descending
+                ? idsByDay.headMap(key, true).descendingMap()
+                : idsByDay.tailMap(key, true);
+        long[] page = new long[Math.min(limit, daysById.size())];
+        int next = 0;
+        for (Map.Entry<Long, long[]> entry : days.entrySet()) {
+            long[] dayIds = entry.getValue();
+            boolean sameDay = entry.getKey() == key;
+            for (int i = 0; i < dayIds.length && next < page.length; i++) {
+                long candidate = descending ? dayIds[dayIds.length - 1 - i] : dayIds[i];
+                if (!sameDay || (descending ? candidate < id : candidate > id)) {
+                    page[next++] = candidate;
+                }
+            }
+            if (next == page.length) {
+                break;
+            }
+        }
+        return next == page.length ? page : Arrays.copyOf(page, next);
+    }
+
+    @Override
+    public long keyOf(long id) {
+        return daysById.get(id);
+    }
+
+    @Override
+    public int size() {
+        return daysById.size();
+    }
+
+    private NavigableMap<Long, long[]> range(LocalDate start, LocalDate end) {
+        long from = start == null ? Long.MIN_VALUE : start.toEpochDay();
+        long to = end == null ? Long.MAX_VALUE : end.toEpochDay();
+        if (from > to) {
+            return new TreeMap<>();
+        }
+        return idsByDay.subMap(from, true, to, true);
+    }
+
+    private static int count(NavigableMap<Long, long[]> days) {
+        int count = 0;
+        for (long[] dayIds : days.values()) {
+            count += dayIds.length;
+        }
+        return count;
+    }
+
+    private void link(long day, long id) {
+        long[] ids = idsByDay.get(day);
+        if (ids == null) {
+            idsByDay.put(day, new long[]{id});
+            return;
+        }
+
+        int position = -Arrays.binarySearch(ids, id) - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, position);
+        grown[position] = id;
+        System.arraycopy(ids, position, grown, position + 1, ids.length - position);
+        idsByDay.put(day, grown);
+    }
+
+    private void unlink(long day, long id) {
+        long[] ids = idsByDay.get(day);
+        if (ids.length == 1) {
+            idsByDay.remove(day);
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, id);
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, position);
+        System.arraycopy(ids, position + 1, shrunk, position, shrunk.length - position);
+        idsByDay.put(day, shrunk);
+    }
+}
@@ -0,0 +1,85 @@
+package com.softwareascraft.practice.index;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bitmap index over an enum-valued field: one bitset of ids per enum constant, plus one for
+ * entities whose field is null.
+ *
+ * Ids come from a sequential generator, so each bitmap is dense and a plain {@link BitSet}
+ * needs no further compression. Queries combining several fields intersect the bitmaps with
+ * {@link BitSet#and} instead of scanning the collection.
+ */
+public class EnumBitmapIndex<T, E extends Enum<E>> implements SecondaryIndex<T> {
+
+    private final Class<E> enumType;
+    private final Function<T, E> keyExtractor;
+    private final Map<E, BitSet> bitmaps;
+    private final BitSet unset = new BitSet();
+
+    public EnumBitmapIndex(Class<E> enumType, Function<T, E> keyExtractor) {
+        this.enumType = enumType;
+        this.keyExtractor = keyExtractor;
+        this.bitmaps = new EnumMap<>(enumType);
+        for (E value : enumType.getEnumConstants()) {
+            bitmaps.put(value, new BitSet());
+        }
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        int bit = bitFor(id);
+        remove(id);
+        E value = keyExtractor.apply(entity);
+        bitmapFor(value).set(bit);
+    }
+
+    @Override
+    public void remove(long id) {
+        int bit = bitFor(id);
+        unset.clear(bit);
+        for (BitSet bitmap : bitmaps.values()) {
+            bitmap.clear(bit);
+        }
+    }
+
+    @Override
+    public void clear() {
+        unset.clear();
+        bitmaps.values().forEach(BitSet::clear);
+    }
+
+    /**
+     * Gets the ids whose field equals a value
+     * @param value the enum constant to match, or null to match entities without a value
+     * @return a copy of the matching bitmap that the caller may modify
+     */
+    public BitSet matching(E value) {
+        return (BitSet) bitmapFor(value).clone();
+    }
+
+    /**
+     * Counts the ids whose field equals a value without copying the bitmap
+     */
+    public int count(E value) {
+        return bitmapFor(value).cardinality();
+    }
+
+    public Class<E> getEnumType() {
+        return enumType;
+    }
+
+    private BitSet bitmapFor(E value) {
+        return value == null ? unset : bitmaps.get(value);
+    }
+
+    static int bitFor(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id " + id + " cannot be held in a bitmap index");
+        }
+        return (int) id;
+    }
+}
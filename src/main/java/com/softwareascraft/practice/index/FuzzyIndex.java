@@ -0,0 +1,326 @@
+package com.softwareascraft.practice.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Approximate-match index over a string field: a trigram index of the field's distinct values,
+ * counting how many entities hold each one.
+ *
+ * Values are normalized to lower-case words of letters and digits, so "Athearn, Inc." and
+ * "athearn inc" are the same term. Each word is padded with two leading blanks and one trailing
+ * blank before it is cut into trigrams, which gives word starts extra weight. Similarity is the
+ * Jaccard coefficient of two terms' trigram sets, so "Athern" scores 0.5 against "Athearn"
+ * and "athearn inc" scores 0.67.
+ *
+ * A match counts shared trigrams through the postings of the query's trigrams only, so it
+ * touches just the terms sharing at least one trigram with the query rather than the whole
+ * vocabulary. The counts live in per-thread scratch arrays, of which a match clears only the
+ * entries it touched.
+ */
+public class FuzzyIndex<T> implements SecondaryIndex<T> {
+
+    /**
+     * The lowest similarity reported as a match
+     */
+    public static final double MIN_SIMILARITY = 0.3;
+
+    private static final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private final Function<T, String> keyExtractor;
+    private final Map<Long, String> keysById = new HashMap<>();
+    private final Map<String, Term> terms = new HashMap<>();
+    private final Map<String, TermList> postingsByGram = new HashMap<>();
+    private Term[] termsByNumber = new Term[16];
+    private int[] freeNumbers = new int[16];
+    private int freeCount;
+    private int nextNumber;
+
+    public FuzzyIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        String value = keyExtractor.apply(entity);
+        String key = normalize(value);
+        String previous = key == null ? keysById.remove(id) : keysById.put(id, key);
+        if (previous != null && previous.equals(key)) {
+            return;
+        }
+
+        if (previous != null) {
+            decrement(previous);
+        }
+        if (key != null) {
+            increment(key, value);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        String previous = keysById.remove(id);
+        if (previous != null) {
+            decrement(previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        keysById.clear();
+        terms.clear();
+        postingsByGram.clear();
+        termsByNumber = new Term[16];
+        freeNumbers = new int[16];
+        freeCount = 0;
+        nextNumber = 0;
+    }
+
+    /**
+     * Gets the indexed values most similar to some text
+     * @param text the text to match, typically a misspelled or abbreviated value
+     * @param limit the maximum number of matches
+     * @return matches at or above {@link #MIN_SIMILARITY}, most similar first, then most
+     *         frequent, then alphabetical
+     */
+    public List<Match> match(String text, int limit) {
+        List<Match> matches = new ArrayList<>();
+        String key = normalize(text);
+        if (key == null || limit <= 0) {
+            return matches;
+        }
+
+        String[] grams = grams(key);
+        Scratch counts = scratch.get();
+        counts.ensureCapacity(nextNumber);
+        int[] shared = counts.shared;
+        int[] touched = counts.touched;
+        int touchedCount = 0;
+        for (String gram : grams) {
+            TermList postings = postingsByGram.get(gram);
+            if (postings == null) {
+                continue;
+            }
+            for (int i = 0; i < postings.size; i++) {
+                int number = postings.numbers[i];
+                if (shared[number]++ == 0) {
+                    touched[touchedCount++] = number;
+                }
+            }
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(Match::compareWeakestFirst);
+        for (int i = 0; i < touchedCount; i++) {
+            Term term = termsByNumber[touched[i]];
+            int common = shared[touched[i]];
+            shared[touched[i]] = 0;
+            double similarity = (double) common / (grams.length + term.grams.length - common);
+            if (similarity < MIN_SIMILARITY) {
+                continue;
+            }
+
+            Match match = new Match(term.value, similarity, term.count);
+            if (best.size() < limit) {
+                best.offer(match);
+            } else if (Match.compareWeakestFirst(match, best.peek()) > 0) {
+                best.poll();
+                best.offer(match);
+            }
+        }
+
+        while (!best.isEmpty()) {
+            matches.add(best.poll());
+        }
+        Collections.reverse(matches);
+        return matches;
+    }
+
+    private void increment(String key, String value) {
+        Term term = terms.get(key);
+        if (term == null) {
+            int number = takeNumber();
+            term = new Term(value, grams(key), number);
+            terms.put(key, term);
+            termsByNumber[number] = term;
+            for (String gram : term.grams) {
+                postingsByGram.computeIfAbsent(gram, g -> new TermList()).add(number);
+            }
+        }
+        term.count++;
+    }
+
+    private void decrement(String key) {
+        Term term = terms.get(key);
+        term.count--;
+        if (term.count > 0) {
+            return;
+        }
+
+        terms.remove(key);
+        termsByNumber[term.number] = null;
+        for (String gram : term.grams) {
+            TermList postings = postingsByGram.get(gram);
+            postings.remove(term.number);
+            if (postings.size == 0) {
+                postingsByGram.remove(gram);
+            }
+        }
+        if (freeCount == freeNumbers.length) {
+            freeNumbers = Arrays.copyOf(freeNumbers, freeCount * 2);
+        }
+        freeNumbers[freeCount++] = term.number;
+    }
+
+    private int takeNumber() {
+        if (freeCount > 0) {
+            return freeNumbers[--freeCount];
+        }
+        if (nextNumber == termsByNumber.length) {
+            termsByNumber = Arrays.copyOf(termsByNumber, nextNumber * 2);
+        }
+        return nextNumber++;
+    }
+
+    /**
+     * Reduces a value to lower-case words of letters and digits separated by single spaces
+     * @return the normalized value, or null if it has no letters or digits
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder(value.length());
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            } else if (key.length() > 0 && key.charAt(key.length() - 1) != ' ') {
+                key.append(' ');
+            }
+        }
+        int end = key.length();
+        if (end > 0 && key.charAt(end - 1) == ' ') {
+            key.setLength(end - 1);
+        }
+        return key.length() == 0 ? null : key.toString();
+    }
+
+    /**
+     * Gets the distinct trigrams of a normalized value
+     */
+    static String[] grams(String key) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : key.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams.toArray(new String[0]);
+    }
+
+    /**
+     * An indexed value, its similarity to the text matched, and the number of entities holding it
+     */
+    public static final class Match {
+        private final String value;
+        private final double similarity;
+        private final int count;
+
+        private Match(String value, double similarity, int count) {
+            this.value = value;
+            this.similarity = similarity;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        private static int compareWeakestFirst(Match a, Match b) {
+            if (a.similarity != b.similarity) {
+                return Double.compare(a.similarity, b.similarity);
+            }
+            if (a.count != b.count) {
+                return Integer.compare(a.count, b.count);
+            }
+            return b.value.compareTo(a.value);
+        }
+    }
+
+    /**
+     * A distinct normalized value, shown with the casing it had when it was first indexed
+     */
+    private static final class Term {
+        private final String value;
+        private final String[] grams;
+        private final int number;
+        private int count;
+
+        private Term(String value, String[] grams, int number) {
+            this.value = value;
+            this.grams = grams;
+            this.number = number;
+        }
+    }
+
+    /**
+     * Shared-trigram counts by term number, and the numbers a match has touched. Every count is
+     * zero between matches.
+     */
+    private static final class Scratch {
+        private int[] shared = new int[16];
+        private int[] touched = new int[16];
+
+        private void ensureCapacity(int terms) {
+            if (terms > shared.length) {
+                int length = Math.max(terms, shared.length * 2);
+                shared = new int[length];
+                touched = new int[length];
+            }
+        }
+    }
+
+    /**
+     * Unordered growable list of term numbers sharing a trigram
+     */
+    private static final class TermList {
+        private int[] numbers = new int[4];
+        private int size;
+
+        private void add(int number) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = number;
+        }
+
+        private void remove(int number) {
+            for (int i = 0; i < size; i++) {
+                if (numbers[i] == number) {
+                    numbers[i] = numbers[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
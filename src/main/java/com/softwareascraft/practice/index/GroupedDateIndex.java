@@ -0,0 +1,129 @@
+package com.softwareascraft.practice.index;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Index from a group key to that group's ids ordered by date, such as an inventory item to its
+ * maintenance logs. Each group is a sorted set of longs packing the epoch day into the high
+ * half and the id into the low half, so the latest N entries of a group cost O(log n + N).
+ *
+ * Entries on the same day iterate newest-first in ascending id order, matching a stable sort
+ * by date descending. Entries without a date sort before every dated entry; entities without
+ * a group key are not indexed.
+ */
+public class GroupedDateIndex<T> implements SecondaryIndex<T> {
+
+    private static final int UNDATED = Integer.MIN_VALUE;
+
+    private final Function<T, Long> groupExtractor;
+    private final Function<T, LocalDate> dateExtractor;
+    private final Map<Long, NavigableSet<Long>> entriesByGroup = new HashMap<>();
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+
+    public GroupedDateIndex(Function<T, Long> groupExtractor, Function<T, LocalDate> dateExtractor) {
+        this.groupExtractor = groupExtractor;
+        this.dateExtractor = dateExtractor;
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        remove(id);
+        Long group = groupExtractor.apply(entity);
+        if (group == null) {
+            return;
+        }
+
+        long key = pack(dateExtractor.apply(entity), id);
+        entriesByGroup.computeIfAbsent(group, g -> new TreeSet<>()).add(key);
+        entriesById.put(id, new Entry(group, key));
+    }
+
+    @Override
+    public void remove(long id) {
+        Entry entry = entriesById.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        NavigableSet<Long> entries = entriesByGroup.get(entry.group);
+        entries.remove(entry.key);
+        if (entries.isEmpty()) {
+            entriesByGroup.remove(entry.group);
+        }
+    }
+
+    @Override
+    public void clear() {
+        entriesByGroup.clear();
+        entriesById.clear();
+    }
+
+    /**
+     * Gets the ids in a group, newest first
+     * @param group the group key
+     * @param limit the maximum number of ids to return
+     * @return the ids of the latest entries in the group
+     */
+    public long[] latest(Long group, int limit) {
+        NavigableSet<Long> entries = entriesByGroup.get(group);
+        if (entries == null || limit <= 0) {
+            return new long[0];
+        }
+
+        long[] ids = new long[Math.min(limit, entries.size())];
+        Iterator<Long> newestFirst = entries.descendingIterator();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = unpackId(newestFirst.next());
+        }
+        return ids;
+    }
+
+    /**
+     * Gets every id in a group as a bitset the caller may modify
+     */
+    public BitSet matching(Long group) {
+        BitSet ids = new BitSet();
+        NavigableSet<Long> entries = entriesByGroup.get(group);
+        if (entries != null) {
+            for (long key : entries) {
+                ids.set((int) unpackId(key));
+            }
+        }
+        return ids;
+    }
+
+    public int count(Long group) {
+        NavigableSet<Long> entries = entriesByGroup.get(group);
+        return entries == null ? 0 : entries.size();
+    }
+
+    /**
+     * Packs the date into the high 32 bits and the complemented id into the low 32 bits, so
+     * that within one day a descending walk yields ascending ids.
+     */
+    private static long pack(LocalDate date, long id) {
+        long day = date == null ? UNDATED : Math.toIntExact(date.toEpochDay());
+        return (day << 32) | (Integer.MAX_VALUE - EnumBitmapIndex.bitFor(id));
+    }
+
+    private static long unpackId(long key) {
+        return Integer.MAX_VALUE - (int) key;
+    }
+
+    private static final class Entry {
+        private final Long group;
+        private final long key;
+
+        private Entry(Long group, long key) {
+            this.group = group;
+            this.key = key;
+        }
+    }
+}
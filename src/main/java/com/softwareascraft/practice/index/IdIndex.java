@@ -0,0 +1,81 @@
+package com.softwareascraft.practice.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The ids of a collection in ascending order, as a bitset. The primary index hashes its ids, so
+ * this is what lets a page over the whole collection resume from an id without sorting.
+ */
+public class IdIndex<T> implements OrderedIndex<T> {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final BitSet ids = new BitSet();
+    private int size;
+
+    @Override
+    public void put(long id, T entity) {
+        int bit = EnumBitmapIndex.bitFor(id);
+        if (!ids.get(bit)) {
+            ids.set(bit);
+            size++;
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        int bit = EnumBitmapIndex.bitFor(id);
+        if (ids.get(bit)) {
+            ids.clear(bit);
+            size--;
+        }
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets every indexed id as a bitset the caller may modify
+     */
+    public BitSet all() {
+        return (BitSet) ids.clone();
+    }
+
+    @Override
+    public long[] after(long key, long id, int limit, boolean descending) {
+        if (limit <= 0) {
+            return NO_IDS;
+        }
+
+        long[] page = new long[limit];
+        int next = 0;
+        if (descending) {
+            int from = (int) Math.min(Integer.MAX_VALUE, id - 1);
+            for (int bit = from < 0 ? -1 : ids.previousSetBit(from); bit >= 0 && next < limit;
+                 bit = bit == 0 ? -1 : ids.previousSetBit(bit - 1)) {
+                page[next++] = bit;
+            }
+        } else {
+            int from = (int) Math.max(0, Math.min(Integer.MAX_VALUE, id + 1));
+            for (int bit = ids.nextSetBit(from); bit >= 0 && next < limit;
+                 bit = bit == Integer.MAX_VALUE ? -1 : ids.nextSetBit(bit + 1)) {
+                page[next++] = bit;
+            }
+        }
+        return next == limit ? page : Arrays.copyOf(page, next);
+    }
+
+    @Override
+    public long keyOf(long id) {
+        return id;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,243 @@
+package com.softwareascraft.practice.index;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Ordered index over a decimal field such as a price, keyed by the value scaled to a fixed
+ * number of decimal places and floored to a primitive long, so ordering never compares
+ * {@link BigDecimal}s. Ids sharing a key are held in a small sorted array.
+ *
+ * Flooring is lossy only for values with more decimal places than the index keeps, and values
+ * beyond the range of a long are clamped to its ends. Either way such a value can only share a
+ * key with a range bound, so the exact value is compared at the two bounding keys and nowhere
+ * else. Entities without a value are not indexed.
+ */
+public class NumericRangeIndex<T> implements OrderedIndex<T> {
+
+    private static final long[] NO_IDS = new long[0];
+    private static final BigDecimal MIN_KEY = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_KEY = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final Function<T, BigDecimal> valueExtractor;
+    private final int scale;
+    private final NavigableMap<Long, long[]> idsByKey = new TreeMap<>();
+    private final Map<Long, BigDecimal> valuesById = new HashMap<>();
+
+    /**
+     * @param valueExtractor reads the indexed value
+     * @param scale the number of decimal places kept in the key, 2 for amounts in cents
+     */
+    public NumericRangeIndex(Function<T, BigDecimal> valueExtractor, int scale) {
+        this.valueExtractor = valueExtractor;
+        this.scale = scale;
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        BigDecimal value = valueExtractor.apply(entity);
+        BigDecimal previous = value == null ? valuesById.remove(id) : valuesById.put(id, value);
+        if (previous != null && value != null && previous.compareTo(value) == 0) {
+            return;
+        }
+
+        if (previous != null) {
+            unlink(keyFor(previous), id);
+        }
+        if (value != null) {
+            link(keyFor(value), id);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        BigDecimal previous = valuesById.remove(id);
+        if (previous != null) {
+            unlink(keyFor(previous), id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        idsByKey.clear();
+        valuesById.clear();
+    }
+
+    /**
+     * Gets the ids valued within a range, in value order; ids sharing a key are in ascending order
+     * @param min the lowest value to include, or null for no lower bound
+     * @param max the highest value to include, or null for no upper bound
+     * @param descending true to walk from the highest value down to the lowest
+     * @return the matching ids
+     */
+    public long[] between(BigDecimal min, BigDecimal max, boolean descending) {
+        return collect(range(min, max), min, max, descending, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the ids holding the highest values, read straight off the top of the index
+     * @param limit the maximum number of ids to return
+     * @return the ids, highest value first
+     */
+    public long[] highest(int limit) {
+        return collect(idsByKey, null, null, true, limit);
+    }
+
+    /**
+     * Gets the ids valued within a range as a bitset the caller may modify
+     */
+    public BitSet matching(BigDecimal min, BigDecimal max) {
+        BitSet bits = new BitSet();
+        for (long id : collect(range(min, max), min, max, false, Integer.MAX_VALUE)) {
+            bits.set(EnumBitmapIndex.bitFor(id));
+        }
+        return bits;
+    }
+
+    /**
+     * Counts the ids valued within a range without resolving any of them
+     */
+    public int count(BigDecimal min, BigDecimal max) {
+        NavigableMap<Long, long[]> keys = range(min, max);
+        int count = 0;
+        for (Map.Entry<Long, long[]> entry : keys.entrySet()) {
+            if (isBoundary(entry.getKey(), min, max)) {
+                for (long id : entry.getValue()) {
+                    if (inRange(valuesById.get(id), min, max)) {
+                        count++;
+                    }
+                }
+            } else {
+                count += entry.getValue().length;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long[] after(long key, long id, int limit, boolean descending) {
+        if (limit <= 0) {
+            return NO_IDS;
+        }
+
+        NavigableMap<Long, long[]> keys = descending
+                ? idsByKey.headMap(key, true).descendingMap()
+                : idsByKey.tailMap(key, true);
+        long[] page = new long[Math.min(limit, valuesById.size())];
+        int next = 0;
+        for (Map.Entry<Long, long[]> entry : keys.entrySet()) {
+            long[] ids = entry.getValue();
+            boolean sameKey = entry.getKey() == key;
+            for (int i = 0; i < ids.length && next < page.length; i++) {
+                long candidate = descending ? ids[ids.length - 1 - i] : ids[i];
+                if (!sameKey || (descending ? candidate < id : candidate > id)) {
+                    page[next++] = candidate;
+                }
+            }
+            if (next == page.length) {
+                break;
+            }
+        }
+        return next == page.length ? page : Arrays.copyOf(page, next);
+    }
+
+    @Override
+    public long keyOf(long id) {
+        return keyFor(valuesById.get(id));
+    }
+
+    @Override
+    public int size() {
+        return valuesById.size();
+    }
+
+    private long[] collect(NavigableMap<Long, long[]> keys, BigDecimal min, BigDecimal max,
+                           boolean descending, int limit) {
+        if (limit <= 0) {
+            return NO_IDS;
+        }
+
+        long[] ids = new long[Math.min(limit, valuesById.size())];
+        int next = 0;
+        for (Map.Entry<Long, long[]> entry : (descending ? keys.descendingMap() : keys).entrySet()) {
+            boolean boundary = isBoundary(entry.getKey(), min, max);
+            for (long id : entry.getValue()) {
+                if (!boundary || inRange(valuesById.get(id), min, max)) {
+                    ids[next++] = id;
+                    if (next == ids.length) {
+                        return ids;
+                    }
+                }
+            }
+        }
+        return next == ids.length ? ids : Arrays.copyOf(ids, next);
+    }
+
+    private NavigableMap<Long, long[]> range(BigDecimal min, BigDecimal max) {
+        long from = min == null ? Long.MIN_VALUE : keyFor(min);
+        long to = max == null ? Long.MAX_VALUE : keyFor(max);
+        if ((min != null && max != null && min.compareTo(max) > 0) || from > to) {
+            return new TreeMap<>();
+        }
+        return idsByKey.subMap(from, true, to, true);
+    }
+
+    /**
+     * Whether a key may hold values outside the range, which is only true of the keys the bounds
+     * themselves floor to
+     */
+    private boolean isBoundary(long key, BigDecimal min, BigDecimal max) {
+        return (min != null && key == keyFor(min)) || (max != null && key == keyFor(max));
+    }
+
+    private long keyFor(BigDecimal value) {
+        BigDecimal scaled = value.movePointRight(scale).setScale(0, RoundingMode.FLOOR);
+        if (scaled.compareTo(MIN_KEY) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        if (scaled.compareTo(MAX_KEY) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return scaled.longValue();
+    }
+
+    private static boolean inRange(BigDecimal value, BigDecimal min, BigDecimal max) {
+        return (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private void link(long key, long id) {
+        long[] ids = idsByKey.get(key);
+        if (ids == null) {
+            idsByKey.put(key, new long[]{id});
+            return;
+        }
+
+        int position = -Arrays.binarySearch(ids, id) - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, position);
+        grown[position] = id;
+        System.arraycopy(ids, position, grown, position + 1, ids.length - position);
+        idsByKey.put(key, grown);
+    }
+
+    private void unlink(long key, long id) {
+        long[] ids = idsByKey.get(key);
+        if (ids.length == 1) {
+            idsByKey.remove(key);
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, id);
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, position);
+        System.arraycopy(ids, position + 1, shrunk, position, shrunk.length - position);
+        idsByKey.put(key, shrunk);
+    }
+}
@@ -0,0 +1,30 @@
+package com.softwareascraft.practice.index;
+
+/**
+ * Secondary index that keeps its ids in a total order of (sort key, id), so a page can resume
+ * right after the last entry of the previous page instead of skipping an offset. Entities the
+ * index does not hold, such as those without a value for the sort field, never appear in a page.
+ */
+public interface OrderedIndex<T> extends SecondaryIndex<T> {
+
+    /**
+     * Gets the ids that follow a position in index order
+     * @param key the sort key of the position; {@link Long#MIN_VALUE} ascending or
+     *            {@link Long#MAX_VALUE} descending, with the same id, starts from the beginning
+     * @param id the id of the position, which breaks ties between equal keys
+     * @param limit the maximum number of ids to return
+     * @param descending true to walk from the highest key and id down
+     * @return the ids strictly after the position
+     */
+    long[] after(long key, long id, int limit, boolean descending);
+
+    /**
+     * Gets the sort key an indexed id is ordered by
+     */
+    long keyOf(long id);
+
+    /**
+     * Gets the number of ids the index holds
+     */
+    int size();
+}
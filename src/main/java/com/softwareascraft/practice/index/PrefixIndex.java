@@ -0,0 +1,251 @@
+package com.softwareascraft.practice.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Type-ahead index over a string field: a trie of the distinct values, compared without regard
+ * to case, counting how many entities hold each value.
+ *
+ * Every node also records the highest count anywhere beneath it, which lets
+ * {@link #suggest} walk the trie best-first and stop after K completions instead of visiting
+ * every value under the prefix. Children are kept in sorted parallel arrays rather than maps.
+ * A value is shown with the casing it had when it was first indexed.
+ */
+public class PrefixIndex<T> implements SecondaryIndex<T> {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Function<T, String> keyExtractor;
+    private final Map<Long, String> keysById = new HashMap<>();
+    private Node root = new Node();
+
+    public PrefixIndex(Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        String value = keyExtractor.apply(entity);
+        String key = normalize(value);
+        String previous = key == null ? keysById.remove(id) : keysById.put(id, key);
+        if (previous != null && previous.equals(key)) {
+            return;
+        }
+
+        if (previous != null) {
+            decrement(previous);
+        }
+        if (key != null) {
+            increment(key, value);
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        String previous = keysById.remove(id);
+        if (previous != null) {
+            decrement(previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        keysById.clear();
+        root = new Node();
+    }
+
+    /**
+     * Gets the most frequent values starting with a prefix, ignoring case
+     * @param prefix the text typed so far; an empty prefix ranks every value
+     * @param limit the maximum number of suggestions
+     * @return the suggestions, most frequent first and alphabetical among equal counts
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        Node start = root;
+        String key = normalize(prefix == null ? "" : prefix);
+        for (int i = 0; i < key.length() && start != null; i++) {
+            start = start.child(key.charAt(i));
+        }
+        if (start == null || start.best == 0 || limit <= 0) {
+            return suggestions;
+        }
+
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>();
+        frontier.add(new Candidate(start, key, false));
+        while (!frontier.isEmpty() && suggestions.size() < limit) {
+            Candidate candidate = frontier.poll();
+            Node node = candidate.node;
+            if (candidate.terminal) {
+                suggestions.add(new Suggestion(node.value, node.count));
+                continue;
+            }
+
+            if (node.count > 0) {
+                frontier.add(new Candidate(node, candidate.path, true));
+            }
+            for (int i = 0; i < node.size; i++) {
+                frontier.add(new Candidate(node.children[i], candidate.path + node.keys[i], false));
+            }
+        }
+        return suggestions;
+    }
+
+    private void increment(String key, String value) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        node.count++;
+        if (node.value == null) {
+            node.value = value;
+        }
+
+        int count = node.count;
+        node = root;
+        for (int i = 0; i <= key.length(); i++) {
+            node.best = Math.max(node.best, count);
+            if (i < key.length()) {
+                node = node.child(key.charAt(i));
+            }
+        }
+    }
+
+    private void decrement(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+
+        Node terminal = path[key.length()];
+        terminal.count--;
+        if (terminal.count == 0) {
+            terminal.value = null;
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node node = path[i];
+            node.recomputeBest();
+            if (i > 0 && node.best == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A suggested completion and the number of entities holding it
+     */
+    public static final class Suggestion {
+        private final String value;
+        private final int count;
+
+        private Suggestion(String value, int count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        private int count;
+        private int best;
+        private String value;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            return position < 0 ? null : children[position];
+        }
+
+        private Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            if (position >= 0) {
+                return children[position];
+            }
+
+            position = -position - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            System.arraycopy(children, position, children, position + 1, size - position);
+            Node child = new Node();
+            keys[position] = key;
+            children[position] = child;
+            size++;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            System.arraycopy(children, position + 1, children, position, size - position - 1);
+            size--;
+            children[size] = null;
+        }
+
+        private void recomputeBest() {
+            best = count;
+            for (int i = 0; i < size; i++) {
+                best = Math.max(best, children[i].best);
+            }
+        }
+    }
+
+    /**
+     * Frontier entry: either a whole subtree, ranked by the best count inside it, or one value.
+     * Equal ranks are broken by path so that values come out alphabetically, with a value ahead
+     * of the subtree it heads.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final Node node;
+        private final String path;
+        private final boolean terminal;
+
+        private Candidate(Node node, String path, boolean terminal) {
+            this.node = node;
+            this.path = path;
+            this.terminal = terminal;
+        }
+
+        private int rank() {
+            return terminal ? node.count : node.best;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (rank() != other.rank()) {
+                return Integer.compare(other.rank(), rank());
+            }
+            int byPath = path.compareTo(other.path);
+            if (byPath != 0) {
+                return byPath;
+            }
+            return Boolean.compare(other.terminal, terminal);
+        }
+    }
+}
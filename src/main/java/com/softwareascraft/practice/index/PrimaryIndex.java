@@ -0,0 +1,252 @@
+package com.softwareascraft.practice.index;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Primary key index from a primitive long id to its entity.
+ *
+ * Ids are kept in an open-addressing table with linear probing, so lookups never box the key.
+ * The table stores each id's position in a dense entry array that preserves insertion order;
+ * removing an entity leaves a hole that is squeezed out once holes outnumber live entries.
+ * {@link #values()} iterates that array in order without copying.
+ *
+ * The index is not thread-safe; callers guard it with their own lock.
+ */
+public class PrimaryIndex<T> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] positions;
+    private int mask;
+
+    private long[] entryIds;
+    private Object[] entries;
+    private int count;
+    private int size;
+
+    public PrimaryIndex() {
+        allocateTable(MIN_CAPACITY);
+        entryIds = new long[MIN_CAPACITY];
+        entries = new Object[MIN_CAPACITY];
+    }
+
+    /**
+     * Gets the entity stored under an id
+     * @param id the id to look up
+     * @return the entity, or null if the id is not indexed
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long id) {
+        int slot = find(id);
+        return slot < 0 ? null : (T) entries[positions[slot]];
+    }
+
+    public boolean containsKey(long id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Stores an entity under an id, keeping the original position if the id is already indexed
+     * @return the entity previously stored under the id, or null
+     */
+    @SuppressWarnings("unchecked")
+    public T put(long id, T entity) {
+        if (id == EMPTY) {
+            throw new IllegalArgumentException("Id " + id + " cannot be indexed");
+        }
+
+        int slot = slotFor(id);
+        if (keys[slot] == id) {
+            T previous = (T) entries[positions[slot]];
+            entries[positions[slot]] = entity;
+            return previous;
+        }
+
+        if (count == entries.length) {
+            entries = Arrays.copyOf(entries, count * 2);
+            entryIds = Arrays.copyOf(entryIds, count * 2);
+        }
+        entries[count] = entity;
+        entryIds[count] = id;
+        keys[slot] = id;
+        positions[slot] = count;
+        count++;
+        size++;
+
+        if (size * 2 > keys.length) {
+            allocateTable(keys.length * 2);
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Removes an id from the index
+     * @return the entity that was stored under the id, or null if it was not indexed
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return null;
+        }
+
+        int position = positions[slot];
+        T previous = (T) entries[position];
+        entries[position] = null;
+        size--;
+        deleteSlot(slot);
+
+        if (count - size > MIN_CAPACITY && count - size > size) {
+            squeeze();
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the highest indexed id
+     * @return the highest id, or 0 if the index is empty
+     */
+    public long maxId() {
+        long maxId = 0;
+        for (int i = 0; i < count; i++) {
+            if (entries[i] != null && entryIds[i] > maxId) {
+                maxId = entryIds[i];
+            }
+        }
+        return maxId;
+    }
+
+    public void clear() {
+        allocateTable(MIN_CAPACITY);
+        entryIds = new long[MIN_CAPACITY];
+        entries = new Object[MIN_CAPACITY];
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * Live view of the indexed entities in insertion order
+     */
+    public Collection<T> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int find(long id) {
+        int slot = slotFor(id);
+        return keys[slot] == id && id != EMPTY ? slot : -1;
+    }
+
+    private int slotFor(long id) {
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Backward-shift deletion: moves later members of the probe run into the freed slot so
+     * lookups never need tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                positions[free] = positions[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = EMPTY;
+    }
+
+    private void squeeze() {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            if (entries[i] != null) {
+                entries[live] = entries[i];
+                entryIds[live] = entryIds[i];
+                live++;
+            }
+        }
+        Arrays.fill(entries, live, count, null);
+        count = live;
+        rehash();
+    }
+
+    private void rehash() {
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < count; i++) {
+            if (entries[i] != null) {
+                int slot = slotFor(entryIds[i]);
+                keys[slot] = entryIds[i];
+                positions[slot] = i;
+            }
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        keys = new long[capacity];
+        positions = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Fibonacci hashing spreads sequential ids across the table instead of clustering them
+     */
+    private static int hash(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private class EntryIterator implements Iterator<T> {
+        private int next = advance(0);
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            T entity = (T) entries[next];
+            next = advance(next + 1);
+            return entity;
+        }
+
+        private int advance(int from) {
+            while (from < count && entries[from] == null) {
+                from++;
+            }
+            return from;
+        }
+    }
+}
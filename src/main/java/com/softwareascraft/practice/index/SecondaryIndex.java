@@ -0,0 +1,27 @@
+package com.softwareascraft.practice.index;
+
+/**
+ * Index over one or more fields of a collection, kept in step with the collection by its store.
+ *
+ * Entities are held by reference and callers often modify an instance before handing it back,
+ * so an index cannot rely on seeing the previous field values on update. Each index therefore
+ * remembers whatever it needs to unlink an id itself: {@link #put} replaces any earlier entry
+ * for the id and {@link #remove} needs only the id.
+ *
+ * Implementations are not thread-safe; the owning store calls them under its write lock and
+ * queries them under its read lock.
+ */
+public interface SecondaryIndex<T> {
+
+    /**
+     * Indexes an entity, replacing any earlier entry for the same id
+     */
+    void put(long id, T entity);
+
+    /**
+     * Removes every entry for an id; does nothing if the id is not indexed
+     */
+    void remove(long id);
+
+    void clear();
+}
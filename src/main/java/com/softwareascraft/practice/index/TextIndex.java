@@ -0,0 +1,269 @@
+package com.softwareascraft.practice.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Inverted full-text index over one or more string fields, ranked with BM25.
+ *
+ * Text is split into lower-case runs of letters and digits; single characters are dropped.
+ * Each term maps to a postings list of primitive arrays kept in id order, holding the term
+ * frequency and document length of every entity containing it, so scoring reads no other
+ * structure. A search merges the postings of the query terms, scoring every entity that shares
+ * at least one term with the query, and keeps the best K in a bounded heap.
+ */
+public class TextIndex<T> implements SecondaryIndex<T> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private final List<Function<T, String>> fields;
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, String[]> termsById = new HashMap<>();
+    private long totalLength;
+
+    @SafeVarargs
+    public TextIndex(Function<T, String>... fields) {
+        this.fields = List.of(fields);
+    }
+
+    @Override
+    public void put(long id, T entity) {
+        remove(id);
+
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (Function<T, String> field : fields) {
+            for (String term : tokenize(field.apply(entity))) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+        }
+        if (length == 0) {
+            return;
+        }
+
+        int bit = EnumBitmapIndex.bitFor(id);
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postingsByTerm.computeIfAbsent(entry.getKey(), term -> new Postings())
+                    .add(bit, entry.getValue(), length);
+        }
+        termsById.put(id, frequencies.keySet().toArray(new String[0]));
+        totalLength += length;
+    }
+
+    @Override
+    public void remove(long id) {
+        String[] terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        int bit = EnumBitmapIndex.bitFor(id);
+        for (String term : terms) {
+            Postings postings = postingsByTerm.get(term);
+            totalLength -= postings.remove(bit);
+            if (postings.size == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        postingsByTerm.clear();
+        termsById.clear();
+        totalLength = 0;
+    }
+
+    /**
+     * Finds the entities most relevant to a free-text query
+     * @param text the query; its terms are combined with OR and ranked together
+     * @param limit the maximum number of hits to return
+     * @return the best hits, most relevant first, and the number of entities that matched
+     */
+    public SearchHits search(String text, int limit) {
+        List<Postings> matched = new ArrayList<>();
+        for (String term : tokenize(text)) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings != null && !matched.contains(postings)) {
+                matched.add(postings);
+            }
+        }
+        if (matched.isEmpty() || limit <= 0) {
+            return new SearchHits(new long[0], new double[0], 0);
+        }
+
+        int documents = termsById.size();
+        double averageLength = (double) totalLength / documents;
+        double[] idf = new double[matched.size()];
+        int[] cursors = new int[matched.size()];
+        for (int t = 0; t < idf.length; t++) {
+            int df = matched.get(t).size;
+            idf[t] = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+        }
+
+        // Postings are sorted by id, so a k-way merge visits each matching entity once
+        PriorityQueue<Hit> best = new PriorityQueue<>();
+        int totalHits = 0;
+        while (true) {
+            int id = Integer.MAX_VALUE;
+            for (int t = 0; t < cursors.length; t++) {
+                Postings postings = matched.get(t);
+                if (cursors[t] < postings.size && postings.ids[cursors[t]] < id) {
+                    id = postings.ids[cursors[t]];
+                }
+            }
+            if (id == Integer.MAX_VALUE) {
+                break;
+            }
+
+            double score = 0;
+            for (int t = 0; t < cursors.length; t++) {
+                Postings postings = matched.get(t);
+                int i = cursors[t];
+                if (i < postings.size && postings.ids[i] == id) {
+                    double tf = postings.frequencies[i];
+                    double norm = K1 * (1 - B + B * postings.lengths[i] / averageLength);
+                    score += idf[t] * tf * (K1 + 1) / (tf + norm);
+                    cursors[t]++;
+                }
+            }
+            totalHits++;
+            if (best.size() < limit) {
+                best.offer(new Hit(id, score));
+            } else if (score > best.peek().score) {
+                best.poll();
+                best.offer(new Hit(id, score));
+            }
+        }
+
+        long[] ids = new long[best.size()];
+        double[] scores = new double[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            Hit hit = best.poll();
+            ids[i] = hit.id;
+            scores[i] = hit.score;
+        }
+        return new SearchHits(ids, scores, totalHits);
+    }
+
+    /**
+     * Splits text into lower-case terms of letters and digits
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    terms.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The ranked result of a {@link #search}
+     */
+    public static final class SearchHits {
+        private final long[] ids;
+        private final double[] scores;
+        private final int totalHits;
+
+        private SearchHits(long[] ids, double[] scores, int totalHits) {
+            this.ids = ids;
+            this.scores = scores;
+            this.totalHits = totalHits;
+        }
+
+        public long[] getIds() {
+            return ids;
+        }
+
+        public double[] getScores() {
+            return scores;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+
+    /**
+     * Heap entry ordered so the weakest hit is at the head: lower score first, and among equal
+     * scores the higher id, so ties resolve in ascending id order
+     */
+    private static final class Hit implements Comparable<Hit> {
+        private final int id;
+        private final double score;
+
+        private Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            return score != other.score ? Double.compare(score, other.score) : Integer.compare(other.id, id);
+        }
+    }
+
+    /**
+     * Postings of one term as parallel arrays sorted by id
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int[] frequencies = new int[4];
+        private int[] lengths = new int[4];
+        private int size;
+
+        private void add(int id, int frequency, int length) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+
+            int position = size == 0 || ids[size - 1] < id ? size : -Arrays.binarySearch(ids, 0, size, id) - 1;
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            System.arraycopy(lengths, position, lengths, position + 1, size - position);
+            ids[position] = id;
+            frequencies[position] = frequency;
+            lengths[position] = length;
+            size++;
+        }
+
+        /**
+         * @return the number of term occurrences removed from the index
+         */
+        private int remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            int frequency = frequencies[position];
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            System.arraycopy(lengths, position + 1, lengths, position, size - position - 1);
+            size--;
+            return frequency;
+        }
+    }
+}
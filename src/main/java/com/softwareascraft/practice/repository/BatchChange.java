@@ -0,0 +1,54 @@
+package com.softwareascraft.practice.repository;
+
+/**
+ * One change in a batch handed to {@link EntityStore#applyAll}: an insert of an entity that
+ * already carries its id, a replacement or a removal
+ */
+public class BatchChange<T> {
+
+    public enum Operation {
+        INSERT,
+        REPLACE,
+        REMOVE
+    }
+
+    private final Operation operation;
+    private final Long id;
+    private final T entity;
+
+    private BatchChange(Operation operation, Long id, T entity) {
+        this.operation = operation;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public static <T> BatchChange<T> insert(T entity) {
+        return new BatchChange<>(Operation.INSERT, null, entity);
+    }
+
+    public static <T> BatchChange<T> replace(Long id, T entity) {
+        return new BatchChange<>(Operation.REPLACE, id, entity);
+    }
+
+    public static <T> BatchChange<T> remove(Long id) {
+        return new BatchChange<>(Operation.REMOVE, id, null);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the id of the entity replaced or removed, or null for an insert
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the entity inserted or the replacement, or null for a removal
+     */
+    public T getEntity() {
+        return entity;
+    }
+}
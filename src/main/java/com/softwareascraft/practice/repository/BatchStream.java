@@ -0,0 +1,54 @@
+package com.softwareascraft.practice.repository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Entities selected from a store, resolved a batch at a time so that only one batch is ever
+ * held in memory. The selected ids are fixed when the stream is opened: entities removed since
+ * are skipped, and entities added since are not included.
+ */
+public class BatchStream<T> {
+
+    private final EntityStore<T> store;
+    private final BitSet ids;
+    private final Predicate<T> filter;
+
+    BatchStream(EntityStore<T> store, BitSet ids) {
+        this(store, ids, entity -> true);
+    }
+
+    private BatchStream(EntityStore<T> store, BitSet ids, Predicate<T> filter) {
+        this.store = store;
+        this.ids = ids;
+        this.filter = filter;
+    }
+
+    /**
+     * Gets a stream that also drops the entities failing a condition, checked as each batch is
+     * resolved
+     */
+    public BatchStream<T> filter(Predicate<T> condition) {
+        return new BatchStream<>(store, ids, filter.and(condition));
+    }
+
+    /**
+     * Hands the entities to a consumer in id order, one batch at a time
+     * @param batchSize the number of ids resolved per batch; a batch may hold fewer entities
+     * @param consumer called with each non-empty batch, outside the store's lock
+     */
+    public void forEachBatch(int batchSize, Consumer<List<T>> consumer) {
+        int next = 0;
+        while (next >= 0) {
+            List<T> batch = new ArrayList<>(batchSize);
+            next = store.resolveBatch(ids, next, batchSize, batch);
+            batch.removeIf(filter.negate());
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+    }
+}
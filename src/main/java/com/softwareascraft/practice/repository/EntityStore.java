@@ -0,0 +1,735 @@
+package com.softwareascraft.practice.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.index.OrderedIndex;
+import com.softwareascraft.practice.index.PrimaryIndex;
+import com.softwareascraft.practice.index.SecondaryIndex;
+import com.softwareascraft.practice.index.TextIndex;
+import com.softwareascraft.practice.storage.CommitPipeline;
+import com.softwareascraft.practice.storage.Committer;
+import com.softwareascraft.practice.storage.RandomAccessStorageEngine;
+import com.softwareascraft.practice.storage.StorageEngine;
+import com.softwareascraft.practice.storage.StorageEngines;
+import com.softwareascraft.practice.storage.StorageMutation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Resident, authoritative in-memory copy of one JSON data file.
+ *
+ * The file is read once, the first time the store is written or fully listed. After that every
+ * read is served from memory. Lookups and filters made while the store is not resident scan the
+ * file through {@link StorageEngine#scan} instead, so only the matches are materialized.
+ *
+ * Every mutation is applied to memory first and then handed to the file's {@link Committer},
+ * which persists it through the {@link StorageEngine} configured for the file. With the
+ * default {@link CommitPipeline} mutating methods return once their change is committed
+ * together with any other mutations that arrived at the same time; if a commit fails, the
+ * in-memory copy is discarded and reloaded from the file on next use. In write-behind mode
+ * they return immediately and changes are flushed in the background.
+ *
+ * When the file uses a {@link RandomAccessStorageEngine} the store keeps no resident copy:
+ * every read goes to the engine and every mutation is persisted before the lock is released.
+ * The engine is opened when the store is created, before it is shared.
+ *
+ * Each store has one read-write lock: reads run concurrently, mutations are serialized and
+ * committers persist under the read lock, so reads are not blocked while a batch is written.
+ *
+ * Resident entities are keyed by a {@link PrimaryIndex}, so lookups, replacements and removals
+ * by id are constant time without boxing the id.
+ *
+ * Repositories register {@link SecondaryIndex secondary indexes} through {@link #index}. The
+ * store builds them when the collection is loaded and updates them with every mutation under
+ * the write lock, and {@link #lookup} evaluates a query over them under the read lock. In
+ * random-access mode the indexes are the only resident state. They are built the first time
+ * they are queried, in one pass that reads the engine an entity at a time, so the collection is
+ * never held in memory as a whole. What stays on the heap is the indexes themselves: the
+ * bitmap, range and id indexes cost a few dozen bytes per entity, while text, prefix and fuzzy
+ * indexes hold every distinct term or value and grow with the text in the collection. Those
+ * are registered through {@link #indexOnDemand}, which in this mode defers them until first
+ * used, so a collection kept on disk only pays for the searches it actually serves.
+ *
+ * Every mutation advances the collection's version and stamps the entities it touched with
+ * that version. Versions are seeded from the clock whenever the in-memory copy is discarded, so
+ * they keep increasing across reloads and restarts. The collection version is read without
+ * taking the lock or touching the file, and an entity's version only needs the id to be looked
+ * up, which lets callers answer conditional requests cheaply.
+ *
+ * Stores are shared per file name so that every repository instance pointing at the same
+ * file sees the same data.
+ *
+ * Entities are held by reference: a caller that modifies an instance returned by the store
+ * must hand it back through {@link #replace(Long, Object)} for the change to be persisted.
+ */
+public class EntityStore<T> {
+
+    private static final Map<String, EntityStore<?>> stores = new HashMap<>();
+
+    private final StorageEngine<T> engine;
+    private final RandomAccessStorageEngine<T> randomAccessEngine;
+    private final Committer<T> committer;
+    private final Function<T, Long> idExtractor;
+    private final PrimaryIndex<T> entities = new PrimaryIndex<>();
+    private final Map<String, SecondaryIndex<T>> indexes = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> entityVersions = new ConcurrentHashMap<>();
+    private volatile long version;
+    private volatile long baseVersion;
+    private boolean loaded;
+
+    private EntityStore(String fileName, TypeReference<List<T>> typeReference, Function<T, Long> idExtractor) {
+        this.engine = StorageEngines.create(fileName, typeReference, idExtractor);
+        this.committer = StorageEngines.createCommitter(fileName, engine, entities::values, lock, this::reset);
+        this.randomAccessEngine = engine instanceof RandomAccessStorageEngine<T> randomAccess ? randomAccess : null;
+        this.idExtractor = idExtractor;
+        this.version = clockVersion();
+        this.baseVersion = version;
+        if (randomAccessEngine != null) {
+            // Reads only take the read lock, so the engine must be open before any can reach it
+            randomAccessEngine.open();
+        }
+    }
+
+    /**
+     * Gets the shared store for a data file, creating it on first use
+     * @param fileName the name of the file (without path)
+     * @param typeReference the type reference for deserialization
+     * @param idExtractor function returning the id of an entity
+     * @return the store backing the given file
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <T> EntityStore<T> forFile(String fileName,
+                                                          TypeReference<List<T>> typeReference,
+                                                          Function<T, Long> idExtractor) {
+        return (EntityStore<T>) stores.computeIfAbsent(fileName,
+                name -> new EntityStore<>(name, typeReference, idExtractor));
+    }
+
+    /**
+     * Discards the in-memory copy of a file so the next access reloads it (for testing purposes)
+     * @param fileName the name of the file (without path)
+     */
+    public static synchronized void resetStore(String fileName) {
+        EntityStore<?> store = stores.get(fileName);
+        if (store != null) {
+            store.reset();
+        }
+    }
+
+    public T insert(T entity) {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            Long id = idExtractor.apply(entity);
+            if (isResident()) {
+                ensureLoaded();
+                entities.put(id, entity);
+            }
+            indexPut(id, entity);
+            commit = submit(StorageMutation.put(id, entity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        committer.await(commit);
+        return entity;
+    }
+
+    /**
+     * Inserts entities under one acquisition of the write lock and commits them as one batch
+     * @param batch entities that already carry their ids
+     * @return the entities, in the order given
+     */
+    public List<T> insertAll(List<T> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            if (isResident()) {
+                ensureLoaded();
+            }
+            List<StorageMutation<T>> mutations = new ArrayList<>(batch.size());
+            for (T entity : batch) {
+                Long id = idExtractor.apply(entity);
+                if (isResident()) {
+                    entities.put(id, entity);
+                }
+                indexPut(id, entity);
+                mutations.add(StorageMutation.put(id, entity));
+            }
+            commit = submitAll(mutations);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        committer.await(commit);
+        return batch;
+    }
+
+    public Optional<T> get(Long id) {
+        lock.readLock().lock();
+        try {
+            if (!isResident()) {
+                return randomAccessEngine.find(id);
+            }
+            if (!loaded) {
+                return engine.scan(entity -> id.equals(idExtractor.apply(entity)), 1).stream().findFirst();
+            }
+            return Optional.ofNullable(entities.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<T> getAll() {
+        if (!isResident()) {
+            return readLocked(engine::load);
+        }
+        lockLoadedForReading();
+        try {
+            return new ArrayList<>(entities.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<T> filter(Predicate<T> predicate) {
+        lock.readLock().lock();
+        try {
+            if (!isResident() || !loaded) {
+                return engine.scan(predicate, Integer.MAX_VALUE);
+            }
+            List<T> matches = new ArrayList<>();
+            for (T entity : entities.values()) {
+                if (predicate.test(entity)) {
+                    matches.add(entity);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the entities whose ids a query over this store's indexes selects
+     * @param query evaluated under the read lock once the indexes are built; may return a
+     *              bitset it owns, such as the result of intersecting index bitmaps
+     * @return the selected entities in id order
+     */
+    public List<T> lookup(Supplier<BitSet> query) {
+        lockLoadedForReading();
+        try {
+            BitSet ids = query.get();
+            List<T> matches = new ArrayList<>(ids.cardinality());
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                T entity = resolve(id);
+                if (entity != null) {
+                    matches.add(entity);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the entities for ids an ordered query over this store's indexes returns
+     * @param query evaluated under the read lock once the indexes are built
+     * @return the entities in the order of the returned ids, skipping ids no longer present
+     */
+    public List<T> lookupInOrder(Supplier<long[]> query) {
+        lockLoadedForReading();
+        try {
+            long[] ids = query.get();
+            List<T> matches = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                T entity = resolve(id);
+                if (entity != null) {
+                    matches.add(entity);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a full-text search over a text index of this store
+     * @param index the text index registered with this store
+     * @param text the free-text query
+     * @param limit the maximum number of results
+     * @return the best matches, most relevant first
+     */
+    public SearchResult<T> search(TextIndex<T> index, String text, int limit) {
+        lockLoadedForReading();
+        try {
+            TextIndex.SearchHits hits = index.search(text, limit);
+            List<T> results = new ArrayList<>(hits.getIds().length);
+            for (long id : hits.getIds()) {
+                T entity = resolve(id);
+                if (entity != null) {
+                    results.add(entity);
+                }
+            }
+            return new SearchResult<>(results, hits.getTotalHits());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the page of entities following a position in the order of an ordered index. One more
+     * id than the page holds is read to tell whether another page follows.
+     * @param index the ordered index registered with this store
+     * @param after the position to resume from
+     * @param limit the maximum number of entities on the page
+     * @return the page, with a cursor for the next page unless this is the last
+     */
+    public PageResult<T> page(OrderedIndex<T> index, KeysetCursor after, int limit) {
+        lockLoadedForReading();
+        try {
+            long[] ids = index.after(after.getKey(), after.getId(), limit + 1, after.isDescending());
+            int pageSize = Math.min(ids.length, limit);
+            List<T> results = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                T entity = resolve(ids[i]);
+                if (entity != null) {
+                    results.add(entity);
+                }
+            }
+
+            KeysetCursor next = null;
+            if (ids.length > limit) {
+                long lastId = ids[pageSize - 1];
+                next = new KeysetCursor(after.getSort(), after.isDescending(), index.keyOf(lastId), lastId);
+            }
+            return new PageResult<>(results, next, index.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Selects entities through this store's indexes for resolving a batch at a time. The ids are
+     * fixed now; each batch takes the read lock only while it is resolved, so a slow consumer
+     * never holds up writers.
+     * @param query evaluated under the read lock once the indexes are built; must return a
+     *              bitset it owns
+     * @return the selected entities, to be consumed in id order
+     */
+    public BatchStream<T> stream(Supplier<BitSet> query) {
+        return new BatchStream<>(this, query(query));
+    }
+
+    /**
+     * Resolves the next batch of a {@link BatchStream}, skipping ids removed since it was opened
+     * @return the id to resume from, or -1 once every id has been visited
+     */
+    int resolveBatch(BitSet ids, int from, int size, List<T> batch) {
+        lockLoadedForReading();
+        try {
+            int id = ids.nextSetBit(from);
+            for (int visited = 0; id >= 0 && visited < size; id = ids.nextSetBit(id + 1), visited++) {
+                T entity = resolve(id);
+                if (entity != null) {
+                    batch.add(entity);
+                }
+            }
+            return id;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates a query over this store's indexes that needs no entities, such as a count
+     * @param query evaluated under the read lock once the indexes are built
+     * @return the query result
+     */
+    public <R> R query(Supplier<R> query) {
+        lockLoadedForReading();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a secondary index of this store, creating and building it on first use. Indexes are
+     * shared like the store itself, so every repository on the same file gets the same instance.
+     * @param name the name identifying the index within this store
+     * @param factory creates the empty index
+     * @return the index registered under the given name
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends SecondaryIndex<T>> I index(String name, Supplier<I> factory) {
+        lock.writeLock().lock();
+        try {
+            SecondaryIndex<T> index = indexes.get(name);
+            if (index == null) {
+                index = factory.get();
+                indexes.put(name, index);
+                if (loaded) {
+                    build(index);
+                }
+            }
+            return (I) index;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a secondary index whose size grows with the text in the collection, such as a text,
+     * prefix or fuzzy index. A resident store registers it now, as {@link #index} does; in
+     * random-access mode it is registered and built the first time the supplier is called.
+     * Call the supplier before taking a lock on this store, never from inside a query.
+     * @param name the name identifying the index within this store
+     * @param factory creates the empty index
+     * @return a supplier of the index registered under the given name
+     */
+    public <I extends SecondaryIndex<T>> Supplier<I> indexOnDemand(String name, Supplier<I> factory) {
+        if (isResident()) {
+            I index = index(name, factory);
+            return () -> index;
+        }
+
+        AtomicReference<I> registered = new AtomicReference<>();
+        return () -> {
+            I index = registered.get();
+            if (index == null) {
+                index = index(name, factory);
+                registered.set(index);
+            }
+            return index;
+        };
+    }
+
+    /**
+     * Replaces an existing entity
+     * @return false if no entity with the given id exists
+     */
+    public boolean replace(Long id, T entity) {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            if (!isResident()) {
+                if (!randomAccessEngine.contains(id)) {
+                    return false;
+                }
+            } else {
+                ensureLoaded();
+                if (!entities.containsKey(id)) {
+                    return false;
+                }
+                entities.put(id, entity);
+            }
+            indexPut(id, entity);
+            commit = submit(StorageMutation.put(id, entity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        committer.await(commit);
+        return true;
+    }
+
+    /**
+     * Removes an entity
+     * @return false if no entity with the given id exists
+     */
+    public boolean remove(Long id) {
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            if (!isResident()) {
+                if (!randomAccessEngine.contains(id)) {
+                    return false;
+                }
+            } else {
+                ensureLoaded();
+                if (entities.remove(id) == null) {
+                    return false;
+                }
+            }
+            indexRemove(id);
+            commit = submit(StorageMutation.delete(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        committer.await(commit);
+        return true;
+    }
+
+    /**
+     * Applies a batch of changes in order under one acquisition of the write lock and commits
+     * the applied ones as one batch. A replacement or removal whose entity does not exist, or
+     * was removed earlier in the batch, is skipped.
+     * @param changes the changes, applied in the order given
+     * @param atomic true to apply nothing at all if any change would be skipped
+     * @return for each change, whether its entity was found; inserts are always found
+     */
+    public boolean[] applyAll(List<BatchChange<T>> changes, boolean atomic) {
+        boolean[] found = new boolean[changes.size()];
+        CompletableFuture<Void> commit;
+        lock.writeLock().lock();
+        try {
+            if (isResident()) {
+                ensureLoaded();
+            }
+
+            boolean complete = true;
+            Set<Long> removed = new HashSet<>();
+            for (int i = 0; i < found.length; i++) {
+                BatchChange<T> change = changes.get(i);
+                if (change.getOperation() == BatchChange.Operation.INSERT) {
+                    found[i] = true;
+                    continue;
+                }
+                Long id = change.getId();
+                found[i] = !removed.contains(id)
+                        && (isResident() ? entities.containsKey(id) : randomAccessEngine.contains(id));
+                if (found[i] && change.getOperation() == BatchChange.Operation.REMOVE) {
+                    removed.add(id);
+                }
+                complete &= found[i];
+            }
+            if (atomic && !complete) {
+                return found;
+            }
+
+            List<StorageMutation<T>> mutations = new ArrayList<>(found.length);
+            for (int i = 0; i < found.length; i++) {
+                if (!found[i]) {
+                    continue;
+                }
+                BatchChange<T> change = changes.get(i);
+                if (change.getOperation() == BatchChange.Operation.REMOVE) {
+                    if (isResident()) {
+                        entities.remove(change.getId());
+                    }
+                    indexRemove(change.getId());
+                    mutations.add(StorageMutation.delete(change.getId()));
+                } else {
+                    T entity = change.getEntity();
+                    Long id = change.getOperation() == BatchChange.Operation.INSERT
+                            ? idExtractor.apply(entity) : change.getId();
+                    if (isResident()) {
+                        entities.put(id, entity);
+                    }
+                    indexPut(id, entity);
+                    mutations.add(StorageMutation.put(id, entity));
+                }
+            }
+            if (mutations.isEmpty()) {
+                return found;
+            }
+            commit = submitAll(mutations);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        committer.await(commit);
+        return found;
+    }
+
+    /**
+     * Gets the collection version, which changes with every mutation. Read it before the data it
+     * describes, so that a concurrent mutation can only make the version look older than the
+     * data, never newer.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the version of one entity: the collection version of its latest mutation, or the
+     * version the collection was loaded at if it has not changed since. The entity's existence is
+     * checked under the read lock, in memory or in the engine's id index, without reading it.
+     * @return the version, or null if no entity has the id
+     */
+    public Long getVersion(Long id) {
+        if (!isResident()) {
+            return readLocked(() -> randomAccessEngine.contains(id)
+                    ? entityVersions.getOrDefault(id, baseVersion) : null);
+        }
+        lockLoadedForReading();
+        try {
+            return entities.containsKey(id) ? entityVersions.getOrDefault(id, baseVersion) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the highest id in the collection without reading every entity when avoidable
+     * @return the highest id, or 0 if the collection is empty
+     */
+    public long getMaxId() {
+        if (!isResident()) {
+            return readLocked(randomAccessEngine::getMaxId);
+        }
+        lockLoadedForReading();
+        try {
+            return entities.maxId();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the read lock with the collection loaded, loading it under the write lock first
+     * if needed. The caller must release the read lock.
+     */
+    private void lockLoadedForReading() {
+        lock.readLock().lock();
+        if (loaded) {
+            return;
+        }
+
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            ensureLoaded();
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <R> R readLocked(Supplier<R> read) {
+        lock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private T resolve(long id) {
+        return isResident() ? entities.get(id) : randomAccessEngine.find(id).orElse(null);
+    }
+
+    private boolean isResident() {
+        return randomAccessEngine == null;
+    }
+
+    /**
+     * Loads the collection and builds the indexes. In random-access mode only the indexes are
+     * built, streaming the engine, so nothing is read unless an index has been registered.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        if (isResident()) {
+            for (T entity : engine.load()) {
+                Long id = idExtractor.apply(entity);
+                entities.put(id, entity);
+                indexPut(id, entity);
+            }
+        } else if (!indexes.isEmpty()) {
+            forEachStored(entity -> indexPut(idExtractor.apply(entity), entity));
+        }
+        loaded = true;
+    }
+
+    private void build(SecondaryIndex<T> index) {
+        if (isResident()) {
+            for (T entity : entities.values()) {
+                index.put(idExtractor.apply(entity), entity);
+            }
+        } else {
+            forEachStored(entity -> index.put(idExtractor.apply(entity), entity));
+        }
+    }
+
+    /**
+     * Visits every entity of a random-access engine one at a time, keeping none of them
+     */
+    private void forEachStored(Consumer<T> visitor) {
+        randomAccessEngine.scan(entity -> {
+            visitor.accept(entity);
+            return false;
+        }, Integer.MAX_VALUE);
+    }
+
+    private void indexPut(Long id, T entity) {
+        for (SecondaryIndex<T> index : indexes.values()) {
+            index.put(id, entity);
+        }
+    }
+
+    private void indexRemove(Long id) {
+        for (SecondaryIndex<T> index : indexes.values()) {
+            index.remove(id);
+        }
+    }
+
+    /**
+     * Submits a mutation already applied in memory, advancing the versions. Callers must hold
+     * the write lock.
+     */
+    private CompletableFuture<Void> submit(StorageMutation<T> mutation) {
+        long next = version + 1;
+        entityVersions.put(mutation.getId(), next);
+        version = next;
+        return committer.submit(mutation);
+    }
+
+    private CompletableFuture<Void> submitAll(List<StorageMutation<T>> mutations) {
+        long next = version + 1;
+        for (StorageMutation<T> mutation : mutations) {
+            entityVersions.put(mutation.getId(), next);
+        }
+        version = next;
+        return committer.submitAll(mutations);
+    }
+
+    /**
+     * @return a version above any this process could have reached earlier, assuming fewer than
+     *         a thousand mutations a millisecond on average
+     */
+    private static long clockVersion() {
+        return System.currentTimeMillis() * 1000;
+    }
+
+    private void reset() {
+        lock.writeLock().lock();
+        try {
+            version = Math.max(version + 1, clockVersion());
+            baseVersion = version;
+            entityVersions.clear();
+            entities.clear();
+            indexes.values().forEach(SecondaryIndex::clear);
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.softwareascraft.practice.repository;
+
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.InvalidRequestException;
+import com.softwareascraft.practice.index.CaseInsensitiveIndex;
+import com.softwareascraft.practice.index.DateRangeIndex;
+import com.softwareascraft.practice.index.EnumBitmapIndex;
+import com.softwareascraft.practice.index.FuzzyIndex;
+import com.softwareascraft.practice.index.IdIndex;
+import com.softwareascraft.practice.index.NumericRangeIndex;
+import com.softwareascraft.practice.index.OrderedIndex;
+import com.softwareascraft.practice.index.PrefixIndex;
+import com.softwareascraft.practice.index.TextIndex;
+import com.softwareascraft.practice.model.BaseInventoryItem;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The secondary indexes shared by every inventory collection, and the query conditions built on
+ * them. Type-specific repositories register their own indexes next to these. The text, prefix
+ * and fuzzy indexes are registered on demand, see {@link EntityStore#indexOnDemand}.
+ */
+class InventoryIndexes<T extends BaseInventoryItem> {
+
+    private static final int PRICE_SCALE = 2;
+
+    private final EntityStore<T> store;
+    private final CaseInsensitiveIndex<T> manufacturer;
+    private final CaseInsensitiveIndex<T> roadName;
+    private final EnumBitmapIndex<T, Scale> scale;
+    private final EnumBitmapIndex<T, MaintenanceStatus> maintenanceStatus;
+    private final DateRangeIndex<T> purchaseDate;
+    private final IdIndex<T> ids;
+    private final NumericRangeIndex<T> purchasePrice;
+    private final NumericRangeIndex<T> currentValue;
+    private final Supplier<TextIndex<T>> text;
+    private final Map<String, Supplier<PrefixIndex<T>>> suggesters = new LinkedHashMap<>();
+    private final Map<String, Supplier<FuzzyIndex<T>>> matchers = new LinkedHashMap<>();
+    private final Map<String, OrderedIndex<T>> sortKeys = new LinkedHashMap<>();
+
+    InventoryIndexes(EntityStore<T> store, Function<T, String> roadNumber) {
+        this.store = store;
+        this.manufacturer = store.index("manufacturer",
+                () -> new CaseInsensitiveIndex<>(BaseInventoryItem::getManufacturer));
+        this.roadName = store.index("roadName",
+                () -> new CaseInsensitiveIndex<>(BaseInventoryItem::getRoadName));
+        this.scale = store.index("scale",
+                () -> new EnumBitmapIndex<>(Scale.class, BaseInventoryItem::getScale));
+        this.maintenanceStatus = store.index("maintenanceStatus",
+                () -> new EnumBitmapIndex<>(MaintenanceStatus.class, BaseInventoryItem::getMaintenanceStatus));
+        this.purchaseDate = store.index("purchaseDate",
+                () -> new DateRangeIndex<>(BaseInventoryItem::getPurchaseDate));
+        this.purchasePrice = store.index("purchasePrice",
+                () -> new NumericRangeIndex<>(BaseInventoryItem::getPurchasePrice, PRICE_SCALE));
+        this.currentValue = store.index("currentValue",
+                () -> new NumericRangeIndex<>(BaseInventoryItem::getCurrentValue, PRICE_SCALE));
+        this.text = store.indexOnDemand("text",
+                () -> new TextIndex<>(BaseInventoryItem::getDescription, BaseInventoryItem::getNotes));
+        addSuggester("modelNumber", BaseInventoryItem::getModelNumber);
+        addSuggester("roadNumber", roadNumber);
+        addSuggester("manufacturer", BaseInventoryItem::getManufacturer);
+        addMatcher("manufacturer", BaseInventoryItem::getManufacturer);
+        addMatcher("roadName", BaseInventoryItem::getRoadName);
+        this.ids = store.index("id", IdIndex::new);
+        sortKeys.put("id", ids);
+        sortKeys.put("purchasePrice", purchasePrice);
+        sortKeys.put("currentValue", currentValue);
+        sortKeys.put("purchaseDate", purchaseDate);
+    }
+
+    CaseInsensitiveIndex<T> manufacturer() {
+        return manufacturer;
+    }
+
+    CaseInsensitiveIndex<T> roadName() {
+        return roadName;
+    }
+
+    EnumBitmapIndex<T, Scale> scale() {
+        return scale;
+    }
+
+    EnumBitmapIndex<T, MaintenanceStatus> maintenanceStatus() {
+        return maintenanceStatus;
+    }
+
+    NumericRangeIndex<T> purchasePrice() {
+        return purchasePrice;
+    }
+
+    NumericRangeIndex<T> currentValue() {
+        return currentValue;
+    }
+
+    /**
+     * Searches descriptions and notes, most relevant first
+     */
+    SearchResult<T> search(String text, int limit) {
+        return store.search(this.text.get(), text, limit);
+    }
+
+    /**
+     * Suggests completions of a field value, most frequent first
+     * @param field one of modelNumber, roadNumber or manufacturer
+     */
+    List<PrefixIndex.Suggestion> suggest(String field, String prefix, int limit) {
+        Supplier<PrefixIndex<T>> registered = suggesters.get(field);
+        if (registered == null) {
+            throw new InvalidRequestException("Suggestions are available for " + suggesters.keySet() + ", not " + field);
+        }
+        PrefixIndex<T> suggester = registered.get();
+        return store.query(() -> suggester.suggest(prefix, limit));
+    }
+
+    /**
+     * Finds the values of a field that approximately match some text, most similar first
+     * @param field one of manufacturer or roadName
+     */
+    List<FuzzyIndex.Match> fuzzyMatch(String field, String text, int limit) {
+        Supplier<FuzzyIndex<T>> registered = matchers.get(field);
+        if (registered == null) {
+            throw new InvalidRequestException("Fuzzy matching is available for " + matchers.keySet() + ", not " + field);
+        }
+        FuzzyIndex<T> matcher = registered.get();
+        return store.query(() -> matcher.match(text, limit));
+    }
+
+    /**
+     * Gets one page of the collection in the order of a sort key. Items without a value for the
+     * sort key are not listed under it.
+     * @param sort one of id, purchasePrice, currentValue or purchaseDate; null to take it from
+     *             the cursor, or id on the first page
+     * @param descending the direction; null to take it from the cursor, or ascending on the
+     *                   first page
+     * @param cursor the token ending the previous page, or null for the first page
+     */
+    PageResult<T> page(String sort, Boolean descending, String cursor, int limit) {
+        KeysetCursor after;
+        if (cursor == null) {
+            after = KeysetCursor.start(sort == null ? "id" : sort, Boolean.TRUE.equals(descending));
+        } else {
+            after = KeysetCursor.decode(cursor);
+            if ((sort != null && !sort.equals(after.getSort()))
+                    || (descending != null && descending != after.isDescending())) {
+                throw new InvalidRequestException("Cursor belongs to a different sort order");
+            }
+        }
+
+        OrderedIndex<T> index = sortKeys.get(after.getSort());
+        if (index == null) {
+            throw new InvalidRequestException("Sorting is available by " + sortKeys.keySet() + ", not " + after.getSort());
+        }
+        return store.page(index, after, limit);
+    }
+
+    /**
+     * Selects the items a query matches for consuming them a batch at a time
+     */
+    BatchStream<T> stream(QueryPlanner<T> planner) {
+        return planner.stream(ids::all);
+    }
+
+    /**
+     * Starts a plan holding the conditions on fields every inventory item has
+     */
+    QueryPlanner<T> planner(InventoryQuery query) {
+        QueryPlanner<T> planner = new QueryPlanner<>(store);
+        if (query.getScale() != null) {
+            planner.index("scale = " + query.getScale(),
+                    () -> scale.count(query.getScale()), () -> scale.matching(query.getScale()));
+        }
+        if (query.getMaintenanceStatus() != null) {
+            planner.index("maintenanceStatus = " + query.getMaintenanceStatus(),
+                    () -> maintenanceStatus.count(query.getMaintenanceStatus()),
+                    () -> maintenanceStatus.matching(query.getMaintenanceStatus()));
+        }
+        if (query.getManufacturer() != null) {
+            planner.index("manufacturer = " + query.getManufacturer(),
+                    () -> manufacturer.count(query.getManufacturer()),
+                    () -> manufacturer.matching(query.getManufacturer()));
+        }
+        if (query.getRoadName() != null) {
+            planner.index("roadName = " + query.getRoadName(),
+                    () -> roadName.count(query.getRoadName()), () -> roadName.matching(query.getRoadName()));
+        }
+        if (query.getPurchasedFrom() != null || query.getPurchasedTo() != null) {
+            planner.index("purchaseDate between " + query.getPurchasedFrom() + " and " + query.getPurchasedTo(),
+                    () -> purchaseDate.count(query.getPurchasedFrom(), query.getPurchasedTo()),
+                    () -> purchaseDate.matching(query.getPurchasedFrom(), query.getPurchasedTo()));
+        }
+        if (query.getMinPurchasePrice() != null || query.getMaxPurchasePrice() != null) {
+            planner.index("purchasePrice between " + query.getMinPurchasePrice() + " and " + query.getMaxPurchasePrice(),
+                    () -> purchasePrice.count(query.getMinPurchasePrice(), query.getMaxPurchasePrice()),
+                    () -> purchasePrice.matching(query.getMinPurchasePrice(), query.getMaxPurchasePrice()));
+        }
+        if (query.getMinCurrentValue() != null || query.getMaxCurrentValue() != null) {
+            planner.index("currentValue between " + query.getMinCurrentValue() + " and " + query.getMaxCurrentValue(),
+                    () -> currentValue.count(query.getMinCurrentValue(), query.getMaxCurrentValue()),
+                    () -> currentValue.matching(query.getMinCurrentValue(), query.getMaxCurrentValue()));
+        }
+        return planner;
+    }
+
+    private void addSuggester(String field, Function<T, String> extractor) {
+        suggesters.put(field, store.indexOnDemand(field + "Prefix", () -> new PrefixIndex<>(extractor)));
+    }
+
+    private void addMatcher(String field, Function<T, String> extractor) {
+        matchers.put(field, store.indexOnDemand(field + "Fuzzy", () -> new FuzzyIndex<>(extractor)));
+    }
+}
@@ -0,0 +1,135 @@
+package com.softwareascraft.practice.repository;
+
+import com.softwareascraft.practice.enums.AARType;
+import com.softwareascraft.practice.enums.LocomotiveType;
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.PowerType;
+import com.softwareascraft.practice.enums.Scale;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Criteria for querying locomotives or rolling stock. Every criterion is optional and a null
+ * criterion places no constraint; the criteria that are set must all hold. Price and date
+ * ranges are inclusive and may be open on either side.
+ */
+public class InventoryQuery {
+    private Scale scale;
+    private MaintenanceStatus maintenanceStatus;
+    private AARType aarType;
+    private LocomotiveType locomotiveType;
+    private PowerType powerType;
+    private String manufacturer;
+    private String roadName;
+    private BigDecimal minPurchasePrice;
+    private BigDecimal maxPurchasePrice;
+    private BigDecimal minCurrentValue;
+    private BigDecimal maxCurrentValue;
+    private LocalDate purchasedFrom;
+    private LocalDate purchasedTo;
+
+    public Scale getScale() {
+        return scale;
+    }
+
+    public void setScale(Scale scale) {
+        this.scale = scale;
+    }
+
+    public MaintenanceStatus getMaintenanceStatus() {
+        return maintenanceStatus;
+    }
+
+    public void setMaintenanceStatus(MaintenanceStatus maintenanceStatus) {
+        this.maintenanceStatus = maintenanceStatus;
+    }
+
+    public AARType getAarType() {
+        return aarType;
+    }
+
+    public void setAarType(AARType aarType) {
+        this.aarType = aarType;
+    }
+
+    public LocomotiveType getLocomotiveType() {
+        return locomotiveType;
+    }
+
+    public void setLocomotiveType(LocomotiveType locomotiveType) {
+        this.locomotiveType = locomotiveType;
+    }
+
+    public PowerType getPowerType() {
+        return powerType;
+    }
+
+    public void setPowerType(PowerType powerType) {
+        this.powerType = powerType;
+    }
+
+    public String getManufacturer() {
+        return manufacturer;
+    }
+
+    public void setManufacturer(String manufacturer) {
+        this.manufacturer = manufacturer;
+    }
+
+    public String getRoadName() {
+        return roadName;
+    }
+
+    public void setRoadName(String roadName) {
+        this.roadName = roadName;
+    }
+
+    public BigDecimal getMinPurchasePrice() {
+        return minPurchasePrice;
+    }
+
+    public void setMinPurchasePrice(BigDecimal minPurchasePrice) {
+        this.minPurchasePrice = minPurchasePrice;
+    }
+
+    public BigDecimal getMaxPurchasePrice() {
+        return maxPurchasePrice;
+    }
+
+    public void setMaxPurchasePrice(BigDecimal maxPurchasePrice) {
+        this.maxPurchasePrice = maxPurchasePrice;
+    }
+
+    public BigDecimal getMinCurrentValue() {
+        return minCurrentValue;
+    }
+
+    public void setMinCurrentValue(BigDecimal minCurrentValue) {
+        this.minCurrentValue = minCurrentValue;
+    }
+
+    public BigDecimal getMaxCurrentValue() {
+        return maxCurrentValue;
+    }
+
+    public void setMaxCurrentValue(BigDecimal maxCurrentValue) {
+        this.maxCurrentValue = maxCurrentValue;
+    }
+
+    public LocalDate getPurchasedFrom() {
+        return purchasedFrom;
+    }
+
+    public void setPurchasedFrom(LocalDate purchasedFrom) {
+        this.purchasedFrom = purchasedFrom;
+    }
+
+    public LocalDate getPurchasedTo() {
+        return purchasedTo;
+    }
+
+    public void setPurchasedTo(LocalDate purchasedTo) {
+        this.purchasedTo = purchasedTo;
+    }
+}
@@ -0,0 +1,78 @@
+package com.softwareascraft.practice.repository;
+
+import com.softwareascraft.practice.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated listing: the sort it belongs to and the (sort key, id) of the
+ * last entry already returned. Clients only ever see it as an opaque token.
+ */
+public class KeysetCursor {
+
+    private static final String VERSION = "k1";
+
+    private final String sort;
+    private final boolean descending;
+    private final long key;
+    private final long id;
+
+    public KeysetCursor(String sort, boolean descending, long key, long id) {
+        this.sort = sort;
+        this.descending = descending;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Gets the position before the first entry of a listing
+     */
+    public static KeysetCursor start(String sort, boolean descending) {
+        long edge = descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+        return new KeysetCursor(sort, descending, edge, edge);
+    }
+
+    /**
+     * Reads a token produced by {@link #encode()}
+     * @throws InvalidRequestException if the token was not issued by this server
+     */
+    public static KeysetCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+
+        try {
+            return new KeysetCursor(parts[1], "desc".equals(parts[2]), Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + sort + ":" + (descending ? "desc" : "asc") + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
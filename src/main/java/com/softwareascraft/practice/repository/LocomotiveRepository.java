@@ -1,108 +1,263 @@
 package com.softwareascraft.practice.repository;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.enums.LocomotiveType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.PowerType;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
+import com.softwareascraft.practice.index.EnumBitmapIndex;
+import com.softwareascraft.practice.index.FuzzyIndex;
+import com.softwareascraft.practice.index.PrefixIndex;
 import com.softwareascraft.practice.model.Locomotive;
 import com.softwareascraft.practice.util.IdGenerator;
-import com.softwareascraft.practice.util.JsonFileManager;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class LocomotiveRepository {
 
     private static final String FILE_NAME = "locomotives.json";
     private static final String ENTITY_TYPE = "locomotive";
 
+    private final EntityStore<Locomotive> store;
+    private final InventoryIndexes<Locomotive> indexes;
+    private final EnumBitmapIndex<Locomotive, LocomotiveType> locomotiveTypeIndex;
+    private final EnumBitmapIndex<Locomotive, PowerType> powerTypeIndex;
+
     public LocomotiveRepository() {
-        List<Locomotive> existing = findAll();
-        IdGenerator.initializeCounter(ENTITY_TYPE, existing);
+        this.store = EntityStore.forFile(FILE_NAME, new TypeReference<List<Locomotive>>() {}, Locomotive::getId);
+        this.indexes = new InventoryIndexes<>(store, Locomotive::getRoadNumber);
+        this.locomotiveTypeIndex = store.index("locomotiveType",
+                () -> new EnumBitmapIndex<>(LocomotiveType.class, Locomotive::getLocomotiveType));
+        this.powerTypeIndex = store.index("powerType",
+                () -> new EnumBitmapIndex<>(PowerType.class, Locomotive::getPowerType));
+        IdGenerator.initializeCounter(ENTITY_TYPE, store.getMaxId());
     }
 
     public Locomotive save(Locomotive locomotive) {
-        List<Locomotive> locomotives = findAll();
-
         Long newId = IdGenerator.generateId(ENTITY_TYPE);
         locomotive.setId(newId);
 
-        locomotives.add(locomotive);
+        return store.insert(locomotive);
+    }
 
-        JsonFileManager.writeToFile(FILE_NAME, locomotives);
+    /**
+     * Saves a batch of new locomotives, taking their ids as one block and committing them together
+     * @return the saved items, in the order given
+     */
+    public List<Locomotive> saveAll(List<Locomotive> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
 
-        return locomotive;
+        long nextId = IdGenerator.reserveIds(ENTITY_TYPE, batch.size());
+        for (Locomotive item : batch) {
+            item.setId(nextId++);
+        }
+        return store.insertAll(batch);
     }
 
     public Optional<Locomotive> findById(Long id) {
-        List<Locomotive> locomotives = findAll();
-        return locomotives.stream()
-                .filter(l -> l.getId().equals(id))
-                .findFirst();
+        return store.get(id);
+    }
+
+    /**
+     * Gets the version of the whole collection, without reading it
+     */
+    public long getVersion() {
+        return store.getVersion();
+    }
+
+    /**
+     * Gets the version of one item, without reading it
+     * @return the version, or null if no item has the id
+     */
+    public Long getVersion(Long id) {
+        return store.getVersion(id);
     }
 
     public List<Locomotive> findAll() {
-        return JsonFileManager.readFromFile(FILE_NAME, new TypeReference<List<Locomotive>>() {});
+        return store.getAll();
+    }
+
+    /**
+     * Gets one page of locomotives in the order of a sort key, resuming after a cursor so that
+     * every page costs the same however deep it is
+     * @param sort id, purchasePrice, currentValue or purchaseDate, or null to follow the cursor
+     * @param descending the direction, or null to follow the cursor
+     * @param cursor the token from the previous page, or null for the first page
+     * @param limit the maximum number of results on the page
+     * @return the page and the cursor for the next one
+     */
+    public PageResult<Locomotive> findPage(String sort, Boolean descending, String cursor, int limit) {
+        return indexes.page(sort, descending, cursor, limit);
     }
 
     public Locomotive update(Long id, Locomotive updatedLocomotive) {
-        List<Locomotive> locomotives = findAll();
-
-        boolean found = false;
-        for (int i = 0; i < locomotives.size(); i++) {
-            if (locomotives.get(i).getId().equals(id)) {
-                updatedLocomotive.setId(id);
-                locomotives.set(i, updatedLocomotive);
-                found = true;
-                break;
-            }
-        }
+        updatedLocomotive.setId(id);
 
-        if (!found) {
+        if (!store.replace(id, updatedLocomotive)) {
             throw new ResourceNotFoundException("Locomotive", id);
         }
 
-        JsonFileManager.writeToFile(FILE_NAME, locomotives);
-
         return updatedLocomotive;
     }
 
-    public void deleteById(Long id) {
-        List<Locomotive> locomotives = findAll();
+    /**
+     * Applies a batch of inserts, replacements and removals of locomotives as one commit, giving
+     * the inserted ones ids from one reserved block
+     * @param atomic true to apply nothing if any replacement or removal does not find its target
+     * @return for each change, whether its target was found
+     */
+    public boolean[] applyAll(List<BatchChange<Locomotive>> changes, boolean atomic) {
+        int inserts = 0;
+        for (BatchChange<Locomotive> change : changes) {
+            if (change.getOperation() == BatchChange.Operation.INSERT) {
+                inserts++;
+            }
+        }
 
-        boolean removed = locomotives.removeIf(l -> l.getId().equals(id));
+        long nextId = inserts == 0 ? 0 : IdGenerator.reserveIds(ENTITY_TYPE, inserts);
+        for (BatchChange<Locomotive> change : changes) {
+            if (change.getOperation() == BatchChange.Operation.INSERT) {
+                change.getEntity().setId(nextId++);
+            } else if (change.getOperation() == BatchChange.Operation.REPLACE) {
+                change.getEntity().setId(change.getId());
+            }
+        }
+        return store.applyAll(changes, atomic);
+    }
 
-        if (!removed) {
+    public void deleteById(Long id) {
+        if (!store.remove(id)) {
             throw new ResourceNotFoundException("Locomotive", id);
         }
-
-        JsonFileManager.writeToFile(FILE_NAME, locomotives);
     }
 
     public List<Locomotive> findByManufacturer(String manufacturer) {
-        return findAll().stream()
-                .filter(l -> l.getManufacturer() != null &&
-                           l.getManufacturer().equalsIgnoreCase(manufacturer))
-                .collect(Collectors.toList());
+        return store.lookupInOrder(() -> indexes.manufacturer().ids(manufacturer));
     }
 
     public List<Locomotive> findByScale(Scale scale) {
-        return findAll().stream()
-                .filter(l -> l.getScale() == scale)
-                .collect(Collectors.toList());
+        return store.lookup(() -> indexes.scale().matching(scale));
     }
 
     public List<Locomotive> findByMaintenanceStatus(MaintenanceStatus status) {
-        return findAll().stream()
-                .filter(l -> l.getMaintenanceStatus() == status)
-                .collect(Collectors.toList());
+        return store.lookup(() -> indexes.maintenanceStatus().matching(status));
+    }
+
+    public List<Locomotive> findByLocomotiveType(LocomotiveType locomotiveType) {
+        return store.lookup(() -> locomotiveTypeIndex.matching(locomotiveType));
+    }
+
+    public List<Locomotive> findByPowerType(PowerType powerType) {
+        return store.lookup(() -> powerTypeIndex.matching(powerType));
     }
 
     public List<Locomotive> findByRoadName(String roadName) {
-        return findAll().stream()
-                .filter(l -> l.getRoadName() != null &&
-                           l.getRoadName().equalsIgnoreCase(roadName))
-                .collect(Collectors.toList());
+        return store.lookupInOrder(() -> indexes.roadName().ids(roadName));
+    }
+
+    /**
+     * Finds the locomotives bought for a price within a range
+     * @param min the lowest price to include, or null for no lower bound
+     * @param max the highest price to include, or null for no upper bound
+     * @return the matches, cheapest first
+     */
+    public List<Locomotive> findByPurchasePriceBetween(BigDecimal min, BigDecimal max) {
+        return store.lookupInOrder(() -> indexes.purchasePrice().between(min, max, false));
+    }
+
+    /**
+     * Finds the locomotives currently valued within a range
+     * @param min the lowest value to include, or null for no lower bound
+     * @param max the highest value to include, or null for no upper bound
+     * @return the matches, least valuable first
+     */
+    public List<Locomotive> findByCurrentValueBetween(BigDecimal min, BigDecimal max) {
+        return store.lookupInOrder(() -> indexes.currentValue().between(min, max, false));
+    }
+
+    /**
+     * Finds the locomotives with the highest current value; items without a value are left out
+     * @param limit the maximum number of results
+     * @return the matches, most valuable first
+     */
+    public List<Locomotive> findMostValuable(int limit) {
+        return store.lookupInOrder(() -> indexes.currentValue().highest(limit));
+    }
+
+    /**
+     * Finds the locomotives matching every criterion that is set
+     * @param query the criteria; aarType does not apply to locomotives
+     * @return the matches in id order and the plan used to find them
+     */
+    public QueryResult<Locomotive> query(InventoryQuery query) {
+        return planner(query).execute();
+    }
+
+    /**
+     * Selects the locomotives matching every criterion that is set, for consuming them a batch at
+     * a time in id order; with no criteria every item is selected
+     * @param query the criteria, as for {@link #query}
+     * @return the matches, resolved as they are consumed
+     */
+    public BatchStream<Locomotive> stream(InventoryQuery query) {
+        return indexes.stream(planner(query));
+    }
+
+    private QueryPlanner<Locomotive> planner(InventoryQuery query) {
+        if (query.getAarType() != null) {
+            throw new InvalidRequestException("aarType does not apply to locomotives");
+        }
+
+        QueryPlanner<Locomotive> planner = indexes.planner(query);
+        if (query.getLocomotiveType() != null) {
+            planner.index("locomotiveType = " + query.getLocomotiveType(),
+                    () -> locomotiveTypeIndex.count(query.getLocomotiveType()),
+                    () -> locomotiveTypeIndex.matching(query.getLocomotiveType()));
+        }
+        if (query.getPowerType() != null) {
+            planner.index("powerType = " + query.getPowerType(),
+                    () -> powerTypeIndex.count(query.getPowerType()),
+                    () -> powerTypeIndex.matching(query.getPowerType()));
+        }
+        return planner;
+    }
+
+    /**
+     * Searches descriptions and notes for any of the words in a free-text query
+     * @param text the words to search for
+     * @param limit the maximum number of results
+     * @return the best matches, most relevant first
+     */
+    public SearchResult<Locomotive> search(String text, int limit) {
+        return indexes.search(text, limit);
+    }
+
+    /**
+     * Suggests completions for type-ahead on modelNumber, roadNumber or manufacturer
+     * @param field the field being typed
+     * @param prefix the text typed so far, matched without regard to case
+     * @param limit the maximum number of suggestions
+     * @return the completions, most frequent first
+     */
+    public List<PrefixIndex.Suggestion> suggest(String field, String prefix, int limit) {
+        return indexes.suggest(field, prefix, limit);
+    }
+
+    /**
+     * Finds manufacturer or road name values close to some text, to catch variants such as
+     * misspellings and suffixes that an exact match misses
+     * @param field manufacturer or roadName
+     * @param text the value to match
+     * @param limit the maximum number of matches
+     * @return the matching values, most similar first
+     */
+    public List<FuzzyIndex.Match> fuzzyMatch(String field, String text, int limit) {
+        return indexes.fuzzyMatch(field, text, limit);
     }
 }
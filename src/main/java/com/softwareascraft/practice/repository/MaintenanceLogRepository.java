@@ -2,101 +2,173 @@ package com.softwareascraft.practice.repository;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
+import com.softwareascraft.practice.index.DateRangeIndex;
+import com.softwareascraft.practice.index.GroupedDateIndex;
+import com.softwareascraft.practice.index.IdIndex;
+import com.softwareascraft.practice.index.TextIndex;
 import com.softwareascraft.practice.model.MaintenanceLog;
 import com.softwareascraft.practice.util.IdGenerator;
-import com.softwareascraft.practice.util.JsonFileManager;
 
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 public class MaintenanceLogRepository {
 
     private static final String FILE_NAME = "maintenance-logs.json";
     private static final String ENTITY_TYPE = "maintenance_log";
 
+    private final EntityStore<MaintenanceLog> store;
+    private final GroupedDateIndex<MaintenanceLog> itemIndex;
+    private final DateRangeIndex<MaintenanceLog> dateIndex;
+    private final Supplier<TextIndex<MaintenanceLog>> textIndex;
+    private final IdIndex<MaintenanceLog> idIndex;
+
     public MaintenanceLogRepository() {
-        List<MaintenanceLog> existing = findAll();
-        IdGenerator.initializeCounter(ENTITY_TYPE, existing);
+        this.store = EntityStore.forFile(FILE_NAME, new TypeReference<List<MaintenanceLog>>() {}, MaintenanceLog::getId);
+        this.itemIndex = store.index("inventoryItemId",
+                () -> new GroupedDateIndex<>(MaintenanceLog::getInventoryItemId, MaintenanceLog::getMaintenanceDate));
+        this.dateIndex = store.index("maintenanceDate",
+                () -> new DateRangeIndex<>(MaintenanceLog::getMaintenanceDate));
+        this.textIndex = store.indexOnDemand("text", () -> new TextIndex<>(
+                MaintenanceLog::getDescription, MaintenanceLog::getWorkPerformed, MaintenanceLog::getNotes));
+        this.idIndex = store.index("id", IdIndex::new);
+        IdGenerator.initializeCounter(ENTITY_TYPE, store.getMaxId());
     }
 
     public MaintenanceLog save(MaintenanceLog log) {
-        List<MaintenanceLog> logs = findAll();
-
         Long newId = IdGenerator.generateId(ENTITY_TYPE);
         log.setId(newId);
 
-        logs.add(log);
+        return store.insert(log);
+    }
 
-        JsonFileManager.writeToFile(FILE_NAME, logs);
+    public Optional<MaintenanceLog> findById(Long id) {
+        return store.get(id);
+    }
 
-        return log;
+    /**
+     * Gets the version of the whole collection, without reading it
+     */
+    public long getVersion() {
+        return store.getVersion();
     }
 
-    public Optional<MaintenanceLog> findById(Long id) {
-        List<MaintenanceLog> logs = findAll();
-        return logs.stream()
-                .filter(log -> log.getId().equals(id))
-                .findFirst();
+    /**
+     * Gets the version of one log, without reading it
+     * @return the version, or null if no log has the id
+     */
+    public Long getVersion(Long id) {
+        return store.getVersion(id);
     }
 
     public List<MaintenanceLog> findAll() {
-        return JsonFileManager.readFromFile(FILE_NAME, new TypeReference<List<MaintenanceLog>>() {});
+        return store.getAll();
     }
 
     public MaintenanceLog update(Long id, MaintenanceLog updatedLog) {
-        List<MaintenanceLog> logs = findAll();
-
-        boolean found = false;
-        for (int i = 0; i < logs.size(); i++) {
-            if (logs.get(i).getId().equals(id)) {
-                updatedLog.setId(id);
-                logs.set(i, updatedLog);
-                found = true;
-                break;
-            }
-        }
+        updatedLog.setId(id);
 
-        if (!found) {
+        if (!store.replace(id, updatedLog)) {
             throw new ResourceNotFoundException("MaintenanceLog", id);
         }
 
-        JsonFileManager.writeToFile(FILE_NAME, logs);
-
         return updatedLog;
     }
 
-    public void deleteById(Long id) {
-        List<MaintenanceLog> logs = findAll();
+    /**
+     * Applies a batch of inserts, replacements and removals of maintenance logs as one commit, giving
+     * the inserted ones ids from one reserved block
+     * @param atomic true to apply nothing if any replacement or removal does not find its target
+     * @return for each change, whether its target was found
+     */
+    public boolean[] applyAll(List<BatchChange<MaintenanceLog>> changes, boolean atomic) {
+        int inserts = 0;
+        for (BatchChange<MaintenanceLog> change : changes) {
+            if (change.getOperation() == BatchChange.Operation.INSERT) {
+                inserts++;
+            }
+        }
 
-        boolean removed = logs.removeIf(log -> log.getId().equals(id));
+        long nextId = inserts == 0 ? 0 : IdGenerator.reserveIds(ENTITY_TYPE, inserts);
+        for (BatchChange<MaintenanceLog> change : changes) {
+            if (change.getOperation() == BatchChange.Operation.INSERT) {
+                change.getEntity().setId(nextId++);
+            } else if (change.getOperation() == BatchChange.Operation.REPLACE) {
+                change.getEntity().setId(change.getId());
+            }
+        }
+        return store.applyAll(changes, atomic);
+    }
 
-        if (!removed) {
+    public void deleteById(Long id) {
+        if (!store.remove(id)) {
             throw new ResourceNotFoundException("MaintenanceLog", id);
         }
-
-        JsonFileManager.writeToFile(FILE_NAME, logs);
     }
 
     public List<MaintenanceLog> findByInventoryItemId(Long itemId) {
-        return findAll().stream()
-                .filter(log -> log.getInventoryItemId().equals(itemId))
-                .collect(Collectors.toList());
+        return store.lookup(() -> itemIndex.matching(itemId));
     }
 
     public List<MaintenanceLog> findByInventoryItemIdOrderByMaintenanceDateDesc(Long itemId) {
-        return findAll().stream()
-                .filter(log -> log.getInventoryItemId().equals(itemId))
-                .sorted(Comparator.comparing(MaintenanceLog::getMaintenanceDate).reversed())
-                .collect(Collectors.toList());
+        return findLatestByInventoryItemId(itemId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the most recent maintenance logs of an inventory item
+     * @param itemId the inventory item id
+     * @param limit the maximum number of logs to return
+     * @return up to limit logs, newest first
+     */
+    public List<MaintenanceLog> findLatestByInventoryItemId(Long itemId, int limit) {
+        return store.lookupInOrder(() -> itemIndex.latest(itemId, limit));
     }
 
     public List<MaintenanceLog> findByMaintenanceDateBetween(LocalDate start, LocalDate end) {
-        return findAll().stream()
-                .filter(log -> !log.getMaintenanceDate().isBefore(start) &&
-                              !log.getMaintenanceDate().isAfter(end))
-                .collect(Collectors.toList());
+        return store.lookupInOrder(() -> dateIndex.between(start, end, false));
+    }
+
+    public List<MaintenanceLog> findByMaintenanceDateBetweenOrderByMaintenanceDateDesc(LocalDate start, LocalDate end) {
+        return store.lookupInOrder(() -> dateIndex.between(start, end, true));
+    }
+
+    /**
+     * Counts the maintenance logs dated within a range without loading them
+     * @param start the first date to include
+     * @param end the last date to include
+     * @return the number of logs in the range
+     */
+    public int countByMaintenanceDateBetween(LocalDate start, LocalDate end) {
+        return store.query(() -> dateIndex.count(start, end));
+    }
+
+    /**
+     * Searches descriptions, work performed and notes for any of the words in a free-text query
+     * @param text the words to search for
+     * @param limit the maximum number of results
+     * @return the best matches, most relevant first
+     */
+    public SearchResult<MaintenanceLog> search(String text, int limit) {
+        return store.search(textIndex.get(), text, limit);
+    }
+
+    /**
+     * Selects maintenance logs for consuming them a batch at a time in id order
+     * @param itemId the inventory item the logs belong to, or null for every item
+     * @param start the first date to include, or null for no lower bound
+     * @param end the last date to include, or null for no upper bound
+     * @return the matches, resolved as they are consumed
+     */
+    public BatchStream<MaintenanceLog> stream(Long itemId, LocalDate start, LocalDate end) {
+        return store.stream(() -> {
+            BitSet ids = itemId == null ? idIndex.all() : itemIndex.matching(itemId);
+            if (start != null || end != null) {
+                ids.and(dateIndex.matching(start, end));
+            }
+            return ids;
+        });
     }
 }
@@ -0,0 +1,35 @@
+package com.softwareascraft.practice.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing, the cursor for the page after it, and the number of
+ * entities in the whole listing
+ */
+public class PageResult<T> {
+
+    private final List<T> results;
+    private final KeysetCursor next;
+    private final long totalResults;
+
+    public PageResult(List<T> results, KeysetCursor next, long totalResults) {
+        this.results = results;
+        this.next = next;
+        this.totalResults = totalResults;
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the position after this page, or null if this is the last page
+     */
+    public KeysetCursor getNext() {
+        return next;
+    }
+
+    public long getTotalResults() {
+        return totalResults;
+    }
+}
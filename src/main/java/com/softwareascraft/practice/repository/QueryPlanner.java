@@ -0,0 +1,123 @@
+package com.softwareascraft.practice.repository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Plans and runs a conjunctive query over one store.
+ *
+ * Conditions backed by an index report an estimated match count and a bitset of candidate ids.
+ * The planner starts from the most selective index, intersects the others in order of
+ * increasing estimate, and stops early once no candidates remain. Conditions without an index
+ * are applied last, to the resolved candidates only. With no indexed condition the query falls
+ * back to a scan of the store. Every step is recorded in the returned plan.
+ */
+public class QueryPlanner<T> {
+
+    private final EntityStore<T> store;
+    private final List<IndexedCondition> indexed = new ArrayList<>();
+    private final List<String> residualDescriptions = new ArrayList<>();
+    private Predicate<T> residual = entity -> true;
+
+    public QueryPlanner(EntityStore<T> store) {
+        this.store = store;
+    }
+
+    /**
+     * Adds a condition answered by an index
+     * @param description how the condition appears in the plan
+     * @param estimate the number of ids the index would return, read under the store's read lock
+     * @param candidates the matching ids, read under the store's read lock
+     */
+    public QueryPlanner<T> index(String description, IntSupplier estimate, Supplier<BitSet> candidates) {
+        indexed.add(new IndexedCondition(description, estimate, candidates));
+        return this;
+    }
+
+    /**
+     * Adds a condition checked against each candidate entity
+     */
+    public QueryPlanner<T> filter(String description, Predicate<T> predicate) {
+        residualDescriptions.add(description);
+        residual = residual.and(predicate);
+        return this;
+    }
+
+    public QueryResult<T> execute() {
+        List<String> plan = new ArrayList<>();
+        List<T> candidates;
+        if (indexed.isEmpty()) {
+            plan.add("scan all");
+            candidates = store.filter(residual);
+            residualDescriptions.forEach(description -> plan.add("filter " + description));
+            plan.add("result " + candidates.size());
+            return new QueryResult<>(candidates, plan);
+        }
+
+        candidates = store.lookup(() -> intersect(plan));
+        if (!residualDescriptions.isEmpty()) {
+            List<T> matches = new ArrayList<>();
+            for (T entity : candidates) {
+                if (residual.test(entity)) {
+                    matches.add(entity);
+                }
+            }
+            residualDescriptions.forEach(description -> plan.add("filter " + description));
+            candidates = matches;
+        }
+        plan.add("result " + candidates.size());
+        return new QueryResult<>(candidates, plan);
+    }
+
+    /**
+     * Selects the matching ids without resolving any entity, for callers that consume the
+     * matches a batch at a time. Conditions without an index are checked batch by batch.
+     * @param all every id of the store, used when no condition has an index
+     */
+    public BatchStream<T> stream(Supplier<BitSet> all) {
+        BatchStream<T> matches = store.stream(indexed.isEmpty() ? all : () -> intersect(new ArrayList<>()));
+        return residualDescriptions.isEmpty() ? matches : matches.filter(residual);
+    }
+
+    private BitSet intersect(List<String> plan) {
+        indexed.forEach(IndexedCondition::estimate);
+        indexed.sort(Comparator.comparingInt(condition -> condition.estimate));
+
+        BitSet ids = null;
+        for (IndexedCondition condition : indexed) {
+            if (ids == null) {
+                ids = condition.candidates.get();
+                plan.add("index " + condition.description + " (" + ids.cardinality() + ")");
+            } else if (ids.isEmpty()) {
+                plan.add("skip " + condition.description + " (no candidates left)");
+            } else {
+                ids.and(condition.candidates.get());
+                plan.add("intersect " + condition.description + " (estimate " + condition.estimate
+                        + ", " + ids.cardinality() + " left)");
+            }
+        }
+        return ids;
+    }
+
+    private static final class IndexedCondition {
+        private final String description;
+        private final IntSupplier estimator;
+        private final Supplier<BitSet> candidates;
+        private int estimate;
+
+        private IndexedCondition(String description, IntSupplier estimator, Supplier<BitSet> candidates) {
+            this.description = description;
+            this.estimator = estimator;
+            this.candidates = candidates;
+        }
+
+        private void estimate() {
+            estimate = estimator.getAsInt();
+        }
+    }
+}
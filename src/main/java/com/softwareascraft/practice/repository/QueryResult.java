@@ -0,0 +1,25 @@
+package com.softwareascraft.practice.repository;
+
+import java.util.List;
+
+/**
+ * Entities matched by a {@link QueryPlanner} together with the steps it took to find them
+ */
+public class QueryResult<T> {
+
+    private final List<T> results;
+    private final List<String> plan;
+
+    public QueryResult(List<T> results, List<String> plan) {
+        this.results = results;
+        this.plan = plan;
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    public List<String> getPlan() {
+        return plan;
+    }
+}
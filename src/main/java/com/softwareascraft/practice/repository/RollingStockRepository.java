@@ -4,112 +4,258 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.softwareascraft.practice.enums.AARType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
+import com.softwareascraft.practice.index.EnumBitmapIndex;
+import com.softwareascraft.practice.index.FuzzyIndex;
+import com.softwareascraft.practice.index.PrefixIndex;
 import com.softwareascraft.practice.model.RollingStock;
 import com.softwareascraft.practice.util.IdGenerator;
-import com.softwareascraft.practice.util.JsonFileManager;
 
+import java.math.BigDecimal;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class RollingStockRepository {
 
     private static final String FILE_NAME = "rolling-stock.json";
     private static final String ENTITY_TYPE = "rolling_stock";
 
+    private final EntityStore<RollingStock> store;
+    private final InventoryIndexes<RollingStock> indexes;
+    private final EnumBitmapIndex<RollingStock, AARType> aarTypeIndex;
+
     public RollingStockRepository() {
-        List<RollingStock> existing = findAll();
-        IdGenerator.initializeCounter(ENTITY_TYPE, existing);
+        this.store = EntityStore.forFile(FILE_NAME, new TypeReference<List<RollingStock>>() {}, RollingStock::getId);
+        this.indexes = new InventoryIndexes<>(store, RollingStock::getRoadNumber);
+        this.aarTypeIndex = store.index("aarType",
+                () -> new EnumBitmapIndex<>(AARType.class, RollingStock::getAarType));
+        IdGenerator.initializeCounter(ENTITY_TYPE, store.getMaxId());
     }
 
     public RollingStock save(RollingStock rollingStock) {
-        List<RollingStock> rollingStocks = findAll();
-
         Long newId = IdGenerator.generateId(ENTITY_TYPE);
         rollingStock.setId(newId);
 
-        rollingStocks.add(rollingStock);
+        return store.insert(rollingStock);
+    }
 
-        JsonFileManager.writeToFile(FILE_NAME, rollingStocks);
+    /**
+     * Saves a batch of new rolling stock, taking their ids as one block and committing them together
+     * @return the saved items, in the order given
+     */
+    public List<RollingStock> saveAll(List<RollingStock> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
 
-        return rollingStock;
+        long nextId = IdGenerator.reserveIds(ENTITY_TYPE, batch.size());
+        for (RollingStock item : batch) {
+            item.setId(nextId++);
+        }
+        return store.insertAll(batch);
     }
 
     public Optional<RollingStock> findById(Long id) {
-        List<RollingStock> rollingStocks = findAll();
-        return rollingStocks.stream()
-                .filter(rs -> rs.getId().equals(id))
-                .findFirst();
+        return store.get(id);
+    }
+
+    /**
+     * Gets the version of the whole collection, without reading it
+     */
+    public long getVersion() {
+        return store.getVersion();
+    }
+
+    /**
+     * Gets the version of one item, without reading it
+     * @return the version, or null if no item has the id
+     */
+    public Long getVersion(Long id) {
+        return store.getVersion(id);
     }
 
     public List<RollingStock> findAll() {
-        return JsonFileManager.readFromFile(FILE_NAME, new TypeReference<List<RollingStock>>() {});
+        return store.getAll();
+    }
+
+    /**
+     * Gets one page of rolling stock in the order of a sort key, resuming after a cursor so that
+     * every page costs the same however deep it is
+     * @param sort id, purchasePrice, currentValue or purchaseDate, or null to follow the cursor
+     * @param descending the direction, or null to follow the cursor
+     * @param cursor the token from the previous page, or null for the first page
+     * @param limit the maximum number of results on the page
+     * @return the page and the cursor for the next one
+     */
+    public PageResult<RollingStock> findPage(String sort, Boolean descending, String cursor, int limit) {
+        return indexes.page(sort, descending, cursor, limit);
     }
 
     public RollingStock update(Long id, RollingStock updatedRollingStock) {
-        List<RollingStock> rollingStocks = findAll();
-
-        boolean found = false;
-        for (int i = 0; i < rollingStocks.size(); i++) {
-            if (rollingStocks.get(i).getId().equals(id)) {
-                updatedRollingStock.setId(id);
-                rollingStocks.set(i, updatedRollingStock);
-                found = true;
-                break;
-            }
-        }
+        updatedRollingStock.setId(id);
 
-        if (!found) {
+        if (!store.replace(id, updatedRollingStock)) {
             throw new ResourceNotFoundException("RollingStock", id);
         }
 
-        JsonFileManager.writeToFile(FILE_NAME, rollingStocks);
-
         return updatedRollingStock;
     }
 
-    public void deleteById(Long id) {
-        List<RollingStock> rollingStocks = findAll();
+    /**
+     * Applies a batch of inserts, replacements and removals of rolling stock as one commit, giving
+     * the inserted ones ids from one reserved block
+     * @param atomic true to apply nothing if any replacement or removal does not find its target
+     * @return for each change, whether its target was found
+     */
+    public boolean[] applyAll(List<BatchChange<RollingStock>> changes, boolean atomic) {
+        int inserts = 0;
+        for (BatchChange<RollingStock> change : changes) {
+            if (change.getOperation() == BatchChange.Operation.INSERT) {
+                inserts++;
+            }
+        }
 
-        boolean removed = rollingStocks.removeIf(rs -> rs.getId().equals(id));
+        long nextId = inserts == 0 ? 0 : IdGenerator.reserveIds(ENTITY_TYPE, inserts);
+        for (BatchChange<RollingStock> change : changes) {
+            if (change.getOperation() == BatchChange.Operation.INSERT) {
+                change.getEntity().setId(nextId++);
+            } else if (change.getOperation() == BatchChange.Operation.REPLACE) {
+                change.getEntity().setId(change.getId());
+            }
+        }
+        return store.applyAll(changes, atomic);
+    }
 
-        if (!removed) {
+    public void deleteById(Long id) {
+        if (!store.remove(id)) {
             throw new ResourceNotFoundException("RollingStock", id);
         }
-
-        JsonFileManager.writeToFile(FILE_NAME, rollingStocks);
     }
 
     public List<RollingStock> findByManufacturer(String manufacturer) {
-        return findAll().stream()
-                .filter(rs -> rs.getManufacturer() != null &&
-                            rs.getManufacturer().equalsIgnoreCase(manufacturer))
-                .collect(Collectors.toList());
+        return store.lookupInOrder(() -> indexes.manufacturer().ids(manufacturer));
     }
 
     public List<RollingStock> findByScale(Scale scale) {
-        return findAll().stream()
-                .filter(rs -> rs.getScale() == scale)
-                .collect(Collectors.toList());
+        return store.lookup(() -> indexes.scale().matching(scale));
     }
 
     public List<RollingStock> findByMaintenanceStatus(MaintenanceStatus status) {
-        return findAll().stream()
-                .filter(rs -> rs.getMaintenanceStatus() == status)
-                .collect(Collectors.toList());
+        return store.lookup(() -> indexes.maintenanceStatus().matching(status));
     }
 
     public List<RollingStock> findByRoadName(String roadName) {
-        return findAll().stream()
-                .filter(rs -> rs.getRoadName() != null &&
-                            rs.getRoadName().equalsIgnoreCase(roadName))
-                .collect(Collectors.toList());
+        return store.lookupInOrder(() -> indexes.roadName().ids(roadName));
     }
 
     public List<RollingStock> findByAarType(AARType aarType) {
-        return findAll().stream()
-                .filter(rs -> rs.getAarType() == aarType)
-                .collect(Collectors.toList());
+        return store.lookup(() -> aarTypeIndex.matching(aarType));
+    }
+
+    public List<RollingStock> findByScaleAndAarTypeAndMaintenanceStatus(Scale scale, AARType aarType,
+                                                                          MaintenanceStatus status) {
+        return store.lookup(() -> {
+            BitSet ids = indexes.scale().matching(scale);
+            ids.and(aarTypeIndex.matching(aarType));
+            ids.and(indexes.maintenanceStatus().matching(status));
+            return ids;
+        });
+    }
+
+    /**
+     * Finds the rolling stock bought for a price within a range
+     * @param min the lowest price to include, or null for no lower bound
+     * @param max the highest price to include, or null for no upper bound
+     * @return the matches, cheapest first
+     */
+    public List<RollingStock> findByPurchasePriceBetween(BigDecimal min, BigDecimal max) {
+        return store.lookupInOrder(() -> indexes.purchasePrice().between(min, max, false));
+    }
+
+    /**
+     * Finds the rolling stock currently valued within a range
+     * @param min the lowest value to include, or null for no lower bound
+     * @param max the highest value to include, or null for no upper bound
+     * @return the matches, least valuable first
+     */
+    public List<RollingStock> findByCurrentValueBetween(BigDecimal min, BigDecimal max) {
+        return store.lookupInOrder(() -> indexes.currentValue().between(min, max, false));
+    }
+
+    /**
+     * Finds the rolling stock with the highest current value; items without a value are left out
+     * @param limit the maximum number of results
+     * @return the matches, most valuable first
+     */
+    public List<RollingStock> findMostValuable(int limit) {
+        return store.lookupInOrder(() -> indexes.currentValue().highest(limit));
+    }
+
+    /**
+     * Finds the rolling stock matching every criterion that is set
+     * @param query the criteria; locomotiveType and powerType do not apply to rolling stock
+     * @return the matches in id order and the plan used to find them
+     */
+    public QueryResult<RollingStock> query(InventoryQuery query) {
+        return planner(query).execute();
+    }
+
+    /**
+     * Selects the rolling stock matching every criterion that is set, for consuming them a batch at
+     * a time in id order; with no criteria every item is selected
+     * @param query the criteria, as for {@link #query}
+     * @return the matches, resolved as they are consumed
+     */
+    public BatchStream<RollingStock> stream(InventoryQuery query) {
+        return indexes.stream(planner(query));
+    }
+
+    private QueryPlanner<RollingStock> planner(InventoryQuery query) {
+        if (query.getLocomotiveType() != null || query.getPowerType() != null) {
+            throw new InvalidRequestException("locomotiveType and powerType do not apply to rolling stock");
+        }
+
+        QueryPlanner<RollingStock> planner = indexes.planner(query);
+        if (query.getAarType() != null) {
+            planner.index("aarType = " + query.getAarType(),
+                    () -> aarTypeIndex.count(query.getAarType()),
+                    () -> aarTypeIndex.matching(query.getAarType()));
+        }
+        return planner;
+    }
+
+    /**
+     * Searches descriptions and notes for any of the words in a free-text query
+     * @param text the words to search for
+     * @param limit the maximum number of results
+     * @return the best matches, most relevant first
+     */
+    public SearchResult<RollingStock> search(String text, int limit) {
+        return indexes.search(text, limit);
+    }
+
+    /**
+     * Suggests completions for type-ahead on modelNumber, roadNumber or manufacturer
+     * @param field the field being typed
+     * @param prefix the text typed so far, matched without regard to case
+     * @param limit the maximum number of suggestions
+     * @return the completions, most frequent first
+     */
+    public List<PrefixIndex.Suggestion> suggest(String field, String prefix, int limit) {
+        return indexes.suggest(field, prefix, limit);
+    }
+
+    /**
+     * Finds manufacturer or road name values close to some text, to catch variants such as
+     * misspellings and suffixes that an exact match misses
+     * @param field manufacturer or roadName
+     * @param text the value to match
+     * @param limit the maximum number of matches
+     * @return the matching values, most similar first
+     */
+    public List<FuzzyIndex.Match> fuzzyMatch(String field, String text, int limit) {
+        return indexes.fuzzyMatch(field, text, limit);
     }
 }
@@ -0,0 +1,26 @@
+package com.softwareascraft.practice.repository;
+
+import java.util.List;
+
+/**
+ * The best matches of a full-text search, most relevant first, and the number of entities that
+ * matched in total
+ */
+public class SearchResult<T> {
+
+    private final List<T> results;
+    private final long totalHits;
+
+    public SearchResult(List<T> results, long totalHits) {
+        this.results = results;
+        this.totalHits = totalHits;
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+}
@@ -0,0 +1,169 @@
+package com.softwareascraft.practice.service;
+
+import com.softwareascraft.practice.dto.request.BatchOperationRequest;
+import com.softwareascraft.practice.dto.request.BatchRequest;
+import com.softwareascraft.practice.dto.response.BatchOperationResultResponse;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
+import com.softwareascraft.practice.exception.InvalidRequestException;
+import com.softwareascraft.practice.exception.ResourceNotFoundException;
+import com.softwareascraft.practice.repository.BatchChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Runs a batch request against one collection. Each create, update and delete is checked and
+ * mapped to a {@link BatchChange} first, then every valid change is applied through a single
+ * repository call, so the whole batch costs one lock acquisition and one commit.
+ *
+ * Each operation gets a result carrying an HTTP-style status: 201, 200 or 204 when applied,
+ * 400 or 404 when it failed. In atomic mode nothing is applied if any operation fails, and the
+ * operations that did not fail themselves are reported with 424.
+ */
+final class BatchOperations<T, D, R> {
+
+    static final int MAX_OPERATIONS = 1000;
+
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int NO_CONTENT = 204;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int FAILED_DEPENDENCY = 424;
+
+    private final String resourceType;
+    private final Function<D, T> creator;
+    private final BiFunction<Long, D, T> replacer;
+    private final BiFunction<List<BatchChange<T>>, Boolean, boolean[]> applier;
+    private final Function<T, R> responseMapper;
+
+    /**
+     * @param resourceType the name used in not-found messages
+     * @param creator builds a new entity from a create operation's data
+     * @param replacer builds the replacement for an entity from an update operation's data,
+     *                 throwing ResourceNotFoundException if the entity does not exist
+     * @param applier applies the changes in one commit, as the repositories' applyAll does
+     * @param responseMapper maps a created or updated entity to its response
+     */
+    BatchOperations(String resourceType, Function<D, T> creator, BiFunction<Long, D, T> replacer,
+                    BiFunction<List<BatchChange<T>>, Boolean, boolean[]> applier, Function<T, R> responseMapper) {
+        this.resourceType = resourceType;
+        this.creator = creator;
+        this.replacer = replacer;
+        this.applier = applier;
+        this.responseMapper = responseMapper;
+    }
+
+    BatchResultResponse<R> apply(BatchRequest<D> request) {
+        List<BatchOperationRequest<D>> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new InvalidRequestException("A batch needs at least one operation");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new InvalidRequestException("A batch may hold at most " + MAX_OPERATIONS + " operations");
+        }
+        boolean atomic = Boolean.TRUE.equals(request.getAtomic());
+
+        BatchResultResponse<R> response = new BatchResultResponse<>();
+        List<BatchChange<T>> changes = new ArrayList<>();
+        List<BatchOperationResultResponse<R>> pending = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationRequest<D> operation = operations.get(i);
+            BatchOperationResultResponse<R> result = new BatchOperationResultResponse<>();
+            result.setIndex(i);
+            result.setOp(operation.getOp());
+            result.setId(operation.getId());
+            response.getResults().add(result);
+            try {
+                changes.add(toChange(operation));
+                pending.add(result);
+            } catch (InvalidRequestException e) {
+                fail(result, BAD_REQUEST, e.getMessage());
+            } catch (ResourceNotFoundException e) {
+                fail(result, NOT_FOUND, e.getMessage());
+            }
+        }
+
+        boolean failed = pending.size() < operations.size();
+        if (!(atomic && failed)) {
+            boolean[] found = applier.apply(changes, atomic);
+            for (int i = 0; i < found.length; i++) {
+                if (!found[i]) {
+                    fail(pending.get(i), NOT_FOUND,
+                            new ResourceNotFoundException(resourceType, changes.get(i).getId()).getMessage());
+                    failed = true;
+                }
+            }
+            for (int i = 0; i < found.length; i++) {
+                if (found[i] && !(atomic && failed)) {
+                    succeed(pending.get(i), changes.get(i));
+                }
+            }
+        }
+
+        int succeeded = 0;
+        for (BatchOperationResultResponse<R> result : response.getResults()) {
+            if (result.getStatus() == null) {
+                fail(result, FAILED_DEPENDENCY, "Not applied because another operation in the batch failed");
+            } else if (result.getError() == null) {
+                succeeded++;
+            }
+        }
+        response.setSucceeded(succeeded);
+        response.setFailed(operations.size() - succeeded);
+        return response;
+    }
+
+    private BatchChange<T> toChange(BatchOperationRequest<D> operation) {
+        String op = operation.getOp();
+        if ("create".equals(op)) {
+            if (operation.getId() != null) {
+                throw new InvalidRequestException("id must not be set on create");
+            }
+            return BatchChange.insert(creator.apply(requireData(operation)));
+        }
+        if ("update".equals(op)) {
+            Long id = requireId(operation);
+            return BatchChange.replace(id, replacer.apply(id, requireData(operation)));
+        }
+        if ("delete".equals(op)) {
+            return BatchChange.remove(requireId(operation));
+        }
+        throw new InvalidRequestException("op must be create, update or delete, not " + op);
+    }
+
+    private static Long requireId(BatchOperationRequest<?> operation) {
+        if (operation.getId() == null) {
+            throw new InvalidRequestException("id is required for " + operation.getOp());
+        }
+        return operation.getId();
+    }
+
+    private static <D> D requireData(BatchOperationRequest<D> operation) {
+        if (operation.getData() == null) {
+            throw new InvalidRequestException("data is required for " + operation.getOp());
+        }
+        return operation.getData();
+    }
+
+    private void succeed(BatchOperationResultResponse<R> result, BatchChange<T> change) {
+        switch (change.getOperation()) {
+            case INSERT -> {
+                result.setStatus(CREATED);
+                result.setItem(responseMapper.apply(change.getEntity()));
+            }
+            case REPLACE -> {
+                result.setStatus(OK);
+                result.setItem(responseMapper.apply(change.getEntity()));
+            }
+            case REMOVE -> result.setStatus(NO_CONTENT);
+        }
+    }
+
+    private static void fail(BatchOperationResultResponse<?> result, int status, String error) {
+        result.setStatus(status);
+        result.setError(error);
+    }
+}
@@ -1,17 +1,36 @@
 package com.softwareascraft.practice.service;
 
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateLocomotiveRequest;
+import com.softwareascraft.practice.dto.request.InventoryQueryRequest;
 import com.softwareascraft.practice.dto.request.UpdateLocomotiveRequest;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
+import com.softwareascraft.practice.dto.response.FuzzyMatchResponse;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
 import com.softwareascraft.practice.dto.response.LocomotiveResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
+import com.softwareascraft.practice.dto.response.SuggestionResponse;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
 import com.softwareascraft.practice.model.Locomotive;
 import com.softwareascraft.practice.repository.LocomotiveRepository;
+import com.softwareascraft.practice.repository.PageResult;
+import com.softwareascraft.practice.repository.QueryResult;
+import com.softwareascraft.practice.repository.SearchResult;
+import com.softwareascraft.practice.util.BulkImport;
 import com.softwareascraft.practice.util.ModelMapper;
+import com.softwareascraft.practice.util.NdjsonExport;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public class LocomotiveService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final LocomotiveRepository locomotiveRepository;
 
     public LocomotiveService() {
@@ -33,6 +52,22 @@ public class LocomotiveService {
         return ModelMapper.toLocomotiveResponse(locomotive);
     }
 
+    /**
+     * Gets the version of the collection, for tagging responses built from it. Cheap enough
+     * to check on every request: it reads neither the data nor its file.
+     */
+    public long getCollectionVersion() {
+        return locomotiveRepository.getVersion();
+    }
+
+    /**
+     * Gets the version of one locomotive, for tagging its responses, without reading it
+     * @return the version, or null if it does not exist
+     */
+    public Long getVersion(Long id) {
+        return locomotiveRepository.getVersion(id);
+    }
+
     public List<LocomotiveResponse> getAllLocomotives() {
         List<Locomotive> locomotives = locomotiveRepository.findAll();
 
@@ -43,9 +78,10 @@ public class LocomotiveService {
         Locomotive existingLocomotive = locomotiveRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Locomotive", id));
 
-        ModelMapper.updateLocomotive(existingLocomotive, request);
+        Locomotive replacement = ModelMapper.copyLocomotive(existingLocomotive);
+        ModelMapper.updateLocomotive(replacement, request);
 
-        Locomotive updated = locomotiveRepository.update(id, existingLocomotive);
+        Locomotive updated = locomotiveRepository.update(id, replacement);
 
         return ModelMapper.toLocomotiveResponse(updated);
     }
@@ -58,4 +94,128 @@ public class LocomotiveService {
         List<Locomotive> locomotives = locomotiveRepository.findByManufacturer(manufacturer);
         return ModelMapper.toLocomotiveResponseList(locomotives);
     }
+
+    public SearchResultsResponse<LocomotiveResponse> getLocomotivesPage(String sort, String order, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        PageResult<Locomotive> page = locomotiveRepository.findPage(sort, toDescending(order), cursor, limit);
+        return ModelMapper.toSearchResultsResponse(page, ModelMapper::toLocomotiveResponse, limit);
+    }
+
+    public List<LocomotiveResponse> getMostValuableLocomotives(int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        List<Locomotive> locomotives = locomotiveRepository.findMostValuable(limit);
+        return ModelMapper.toLocomotiveResponseList(locomotives);
+    }
+
+    public SearchResultsResponse<LocomotiveResponse> queryLocomotives(InventoryQueryRequest request) {
+        QueryResult<Locomotive> result = locomotiveRepository.query(ModelMapper.toInventoryQuery(request));
+        return ModelMapper.toSearchResultsResponse(result, ModelMapper::toLocomotiveResponse);
+    }
+
+    /**
+     * Prepares a newline-delimited JSON export of the items matching optional filters. The
+     * filters are checked and the matching ids selected now; the items are read and written
+     * a batch at a time when the export is written.
+     */
+    public NdjsonExport<Locomotive> exportLocomotives(InventoryQueryRequest filters) {
+        return new NdjsonExport<>(locomotiveRepository.stream(ModelMapper.toInventoryQuery(filters)),
+                ModelMapper::toLocomotiveResponse);
+    }
+
+    /**
+     * Applies a list of creates, updates and deletes in one commit. An update replaces every
+     * field, as a PUT does, keeping the item's creation date.
+     */
+    public BatchResultResponse<LocomotiveResponse> applyLocomotiveBatch(BatchRequest<CreateLocomotiveRequest> request) {
+        return new BatchOperations<>("Locomotive", ModelMapper::toLocomotive, this::toReplacement,
+                locomotiveRepository::applyAll, ModelMapper::toLocomotiveResponse).apply(request);
+    }
+
+    /**
+     * Imports locomotives from newline-delimited JSON or CSV, persisting the valid rows a chunk at
+     * a time. A row needs a manufacturer, model number and scale, and prices that are not
+     * negative; rows that fail are skipped and reported.
+     */
+    public ImportResultResponse importLocomotives(InputStream in, BulkImport.Format format) throws IOException {
+        BulkImport<CreateLocomotiveRequest> bulkImport = new BulkImport<>(CreateLocomotiveRequest.class, LocomotiveService::validateImportRow,
+                chunk -> locomotiveRepository.saveAll(chunk.stream().map(ModelMapper::toLocomotive).toList()));
+        return bulkImport.importFrom(in, format);
+    }
+
+    public SearchResultsResponse<LocomotiveResponse> searchLocomotives(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("Search text must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidRequestException("Search limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        SearchResult<Locomotive> result = locomotiveRepository.search(text, limit);
+        return ModelMapper.toSearchResultsResponse(result, ModelMapper::toLocomotiveResponse, limit);
+    }
+
+    public List<SuggestionResponse> suggestLocomotives(String field, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return ModelMapper.toSuggestionResponseList(locomotiveRepository.suggest(field, prefix, limit));
+    }
+
+    public List<FuzzyMatchResponse> fuzzyMatchLocomotives(String field, String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("Match text must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Match limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return ModelMapper.toFuzzyMatchResponseList(locomotiveRepository.fuzzyMatch(field, text, limit));
+    }
+
+    /**
+     * Builds the replacement for an update without modifying the stored instance, which stays
+     * untouched if the batch is not applied
+     */
+    private Locomotive toReplacement(Long id, CreateLocomotiveRequest data) {
+        Locomotive existing = locomotiveRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Locomotive", id));
+        Locomotive replacement = ModelMapper.toLocomotive(data);
+        replacement.setCreatedDate(existing.getCreatedDate());
+        return replacement;
+    }
+
+    private static void validateImportRow(CreateLocomotiveRequest row) {
+        if (row.getManufacturer() == null || row.getManufacturer().isBlank()) {
+            throw new InvalidRequestException("manufacturer is required");
+        }
+        if (row.getModelNumber() == null || row.getModelNumber().isBlank()) {
+            throw new InvalidRequestException("modelNumber is required");
+        }
+        if (row.getScale() == null) {
+            throw new InvalidRequestException("scale is required");
+        }
+        if (row.getPurchasePrice() != null && row.getPurchasePrice().signum() < 0) {
+            throw new InvalidRequestException("purchasePrice must not be negative");
+        }
+        if (row.getCurrentValue() != null && row.getCurrentValue().signum() < 0) {
+            throw new InvalidRequestException("currentValue must not be negative");
+        }
+    }
+
+    private static Boolean toDescending(String order) {
+        if (order == null) {
+            return null;
+        }
+        if (!order.equals("asc") && !order.equals("desc")) {
+            throw new InvalidRequestException("Order must be asc or desc, not " + order);
+        }
+        return order.equals("desc");
+    }
 }
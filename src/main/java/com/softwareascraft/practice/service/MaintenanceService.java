@@ -1,8 +1,12 @@
 package com.softwareascraft.practice.service;
 
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateMaintenanceLogRequest;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
 import com.softwareascraft.practice.dto.response.MaintenanceLogResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
 import com.softwareascraft.practice.model.Locomotive;
 import com.softwareascraft.practice.model.MaintenanceLog;
@@ -10,24 +14,23 @@ import com.softwareascraft.practice.model.RollingStock;
 import com.softwareascraft.practice.repository.LocomotiveRepository;
 import com.softwareascraft.practice.repository.MaintenanceLogRepository;
 import com.softwareascraft.practice.repository.RollingStockRepository;
+import com.softwareascraft.practice.repository.SearchResult;
 import com.softwareascraft.practice.util.ModelMapper;
+import com.softwareascraft.practice.util.NdjsonExport;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public class MaintenanceService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final MaintenanceLogRepository maintenanceLogRepository = new MaintenanceLogRepository();
     private final LocomotiveRepository locomotiveRepository = new LocomotiveRepository();
     private final RollingStockRepository rollingStockRepository = new RollingStockRepository();
 
     public MaintenanceLogResponse createMaintenanceLog(CreateMaintenanceLogRequest request) {
-        Long itemId = request.getInventoryItemId();
-        boolean itemExists = locomotiveRepository.findById(itemId).isPresent() ||
-                           rollingStockRepository.findById(itemId).isPresent();
-
-        if (!itemExists) {
-            throw new ResourceNotFoundException("Inventory item with id " + itemId + " not found");
-        }
+        requireInventoryItem(request.getInventoryItemId());
 
         MaintenanceLog log = ModelMapper.toMaintenanceLog(request);
 
@@ -43,6 +46,22 @@ public class MaintenanceService {
         return ModelMapper.toMaintenanceLogResponse(log);
     }
 
+    /**
+     * Gets the version of the collection, for tagging responses built from it. Cheap enough
+     * to check on every request: it reads neither the data nor its file.
+     */
+    public long getCollectionVersion() {
+        return maintenanceLogRepository.getVersion();
+    }
+
+    /**
+     * Gets the version of one maintenance log, for tagging its responses, without reading it
+     * @return the version, or null if it does not exist
+     */
+    public Long getVersion(Long id) {
+        return maintenanceLogRepository.getVersion(id);
+    }
+
     public List<MaintenanceLogResponse> getMaintenanceLogsByItemId(Long itemId) {
         List<MaintenanceLog> logs = maintenanceLogRepository.findByInventoryItemId(itemId);
 
@@ -54,8 +73,9 @@ public class MaintenanceService {
             Locomotive locomotive = locomotiveRepository.findById(itemId)
                     .orElse(null);
             if (locomotive != null) {
-                locomotive.setMaintenanceStatus(status);
-                locomotiveRepository.update(itemId, locomotive);
+                Locomotive replacement = ModelMapper.copyLocomotive(locomotive);
+                replacement.setMaintenanceStatus(status);
+                locomotiveRepository.update(itemId, replacement);
                 return;
             }
         } catch (Exception e) {
@@ -64,11 +84,74 @@ public class MaintenanceService {
         RollingStock rollingStock = rollingStockRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory item with id " + itemId + " not found"));
 
-        rollingStock.setMaintenanceStatus(status);
-        rollingStockRepository.update(itemId, rollingStock);
+        RollingStock replacement = ModelMapper.copyRollingStock(rollingStock);
+        replacement.setMaintenanceStatus(status);
+        rollingStockRepository.update(itemId, replacement);
     }
 
     public void deleteMaintenanceLog(Long id) {
         maintenanceLogRepository.deleteById(id);
     }
+
+    /**
+     * Applies a list of log creates, updates and deletes in one commit. Every created or
+     * updated log must refer to an existing inventory item; an update replaces the whole log,
+     * keeping its creation date.
+     */
+    public BatchResultResponse<MaintenanceLogResponse> applyMaintenanceLogBatch(
+            BatchRequest<CreateMaintenanceLogRequest> request) {
+        return new BatchOperations<>("MaintenanceLog", this::toMaintenanceLog, this::toReplacement,
+                maintenanceLogRepository::applyAll, ModelMapper::toMaintenanceLogResponse).apply(request);
+    }
+
+    /**
+     * Prepares a newline-delimited JSON export of maintenance logs, optionally for one item and
+     * a date range. The matching ids are selected now and the logs written a batch at a time.
+     */
+    public NdjsonExport<MaintenanceLog> exportMaintenanceLogs(Long itemId, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidRequestException("Export range must not end before it starts");
+        }
+
+        return new NdjsonExport<>(maintenanceLogRepository.stream(itemId, from, to),
+                ModelMapper::toMaintenanceLogResponse);
+    }
+
+    public SearchResultsResponse<MaintenanceLogResponse> searchMaintenanceLogs(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("Search text must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidRequestException("Search limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        SearchResult<MaintenanceLog> result = maintenanceLogRepository.search(text, limit);
+        return ModelMapper.toSearchResultsResponse(result, ModelMapper::toMaintenanceLogResponse, limit);
+    }
+
+    private void requireInventoryItem(Long itemId) {
+        boolean itemExists = locomotiveRepository.findById(itemId).isPresent() ||
+                           rollingStockRepository.findById(itemId).isPresent();
+
+        if (!itemExists) {
+            throw new ResourceNotFoundException("Inventory item with id " + itemId + " not found");
+        }
+    }
+
+    private MaintenanceLog toMaintenanceLog(CreateMaintenanceLogRequest data) {
+        requireInventoryItem(data.getInventoryItemId());
+        return ModelMapper.toMaintenanceLog(data);
+    }
+
+    /**
+     * Builds the replacement for an update without modifying the stored instance, which stays
+     * untouched if the batch is not applied
+     */
+    private MaintenanceLog toReplacement(Long id, CreateMaintenanceLogRequest data) {
+        MaintenanceLog existing = maintenanceLogRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("MaintenanceLog", id));
+        MaintenanceLog replacement = toMaintenanceLog(data);
+        replacement.setCreatedDate(existing.getCreatedDate());
+        return replacement;
+    }
 }
@@ -1,17 +1,36 @@
 package com.softwareascraft.practice.service;
 
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateRollingStockRequest;
+import com.softwareascraft.practice.dto.request.InventoryQueryRequest;
 import com.softwareascraft.practice.dto.request.UpdateRollingStockRequest;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
+import com.softwareascraft.practice.dto.response.FuzzyMatchResponse;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
 import com.softwareascraft.practice.dto.response.RollingStockResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
+import com.softwareascraft.practice.dto.response.SuggestionResponse;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
 import com.softwareascraft.practice.model.RollingStock;
+import com.softwareascraft.practice.repository.PageResult;
+import com.softwareascraft.practice.repository.QueryResult;
 import com.softwareascraft.practice.repository.RollingStockRepository;
+import com.softwareascraft.practice.repository.SearchResult;
+import com.softwareascraft.practice.util.BulkImport;
 import com.softwareascraft.practice.util.ModelMapper;
+import com.softwareascraft.practice.util.NdjsonExport;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public class RollingStockService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final RollingStockRepository rollingStockRepository;
 
     public RollingStockService() {
@@ -33,6 +52,22 @@ public class RollingStockService {
         return ModelMapper.toRollingStockResponse(rollingStock);
     }
 
+    /**
+     * Gets the version of the collection, for tagging responses built from it. Cheap enough
+     * to check on every request: it reads neither the data nor its file.
+     */
+    public long getCollectionVersion() {
+        return rollingStockRepository.getVersion();
+    }
+
+    /**
+     * Gets the version of one rolling stock item, for tagging its responses, without reading it
+     * @return the version, or null if it does not exist
+     */
+    public Long getVersion(Long id) {
+        return rollingStockRepository.getVersion(id);
+    }
+
     public List<RollingStockResponse> getAllRollingStock() {
         List<RollingStock> rollingStocks = rollingStockRepository.findAll();
 
@@ -43,9 +78,10 @@ public class RollingStockService {
         RollingStock existingRollingStock = rollingStockRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("RollingStock", id));
 
-        ModelMapper.updateRollingStock(existingRollingStock, request);
+        RollingStock replacement = ModelMapper.copyRollingStock(existingRollingStock);
+        ModelMapper.updateRollingStock(replacement, request);
 
-        RollingStock updated = rollingStockRepository.update(id, existingRollingStock);
+        RollingStock updated = rollingStockRepository.update(id, replacement);
 
         return ModelMapper.toRollingStockResponse(updated);
     }
@@ -58,4 +94,128 @@ public class RollingStockService {
         List<RollingStock> rollingStocks = rollingStockRepository.findByManufacturer(manufacturer);
         return ModelMapper.toRollingStockResponseList(rollingStocks);
     }
+
+    public SearchResultsResponse<RollingStockResponse> getRollingStockPage(String sort, String order, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        PageResult<RollingStock> page = rollingStockRepository.findPage(sort, toDescending(order), cursor, limit);
+        return ModelMapper.toSearchResultsResponse(page, ModelMapper::toRollingStockResponse, limit);
+    }
+
+    public List<RollingStockResponse> getMostValuableRollingStock(int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        List<RollingStock> rollingStocks = rollingStockRepository.findMostValuable(limit);
+        return ModelMapper.toRollingStockResponseList(rollingStocks);
+    }
+
+    public SearchResultsResponse<RollingStockResponse> queryRollingStock(InventoryQueryRequest request) {
+        QueryResult<RollingStock> result = rollingStockRepository.query(ModelMapper.toInventoryQuery(request));
+        return ModelMapper.toSearchResultsResponse(result, ModelMapper::toRollingStockResponse);
+    }
+
+    /**
+     * Prepares a newline-delimited JSON export of the items matching optional filters. The
+     * filters are checked and the matching ids selected now; the items are read and written
+     * a batch at a time when the export is written.
+     */
+    public NdjsonExport<RollingStock> exportRollingStock(InventoryQueryRequest filters) {
+        return new NdjsonExport<>(rollingStockRepository.stream(ModelMapper.toInventoryQuery(filters)),
+                ModelMapper::toRollingStockResponse);
+    }
+
+    /**
+     * Applies a list of creates, updates and deletes in one commit. An update replaces every
+     * field, as a PUT does, keeping the item's creation date.
+     */
+    public BatchResultResponse<RollingStockResponse> applyRollingStockBatch(BatchRequest<CreateRollingStockRequest> request) {
+        return new BatchOperations<>("RollingStock", ModelMapper::toRollingStock, this::toReplacement,
+                rollingStockRepository::applyAll, ModelMapper::toRollingStockResponse).apply(request);
+    }
+
+    /**
+     * Imports rolling stock from newline-delimited JSON or CSV, persisting the valid rows a chunk at
+     * a time. A row needs a manufacturer, model number and scale, and prices that are not
+     * negative; rows that fail are skipped and reported.
+     */
+    public ImportResultResponse importRollingStock(InputStream in, BulkImport.Format format) throws IOException {
+        BulkImport<CreateRollingStockRequest> bulkImport = new BulkImport<>(CreateRollingStockRequest.class, RollingStockService::validateImportRow,
+                chunk -> rollingStockRepository.saveAll(chunk.stream().map(ModelMapper::toRollingStock).toList()));
+        return bulkImport.importFrom(in, format);
+    }
+
+    public SearchResultsResponse<RollingStockResponse> searchRollingStock(String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("Search text must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new InvalidRequestException("Search limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+
+        SearchResult<RollingStock> result = rollingStockRepository.search(text, limit);
+        return ModelMapper.toSearchResultsResponse(result, ModelMapper::toRollingStockResponse, limit);
+    }
+
+    public List<SuggestionResponse> suggestRollingStock(String field, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return ModelMapper.toSuggestionResponseList(rollingStockRepository.suggest(field, prefix, limit));
+    }
+
+    public List<FuzzyMatchResponse> fuzzyMatchRollingStock(String field, String text, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("Match text must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Match limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return ModelMapper.toFuzzyMatchResponseList(rollingStockRepository.fuzzyMatch(field, text, limit));
+    }
+
+    /**
+     * Builds the replacement for an update without modifying the stored instance, which stays
+     * untouched if the batch is not applied
+     */
+    private RollingStock toReplacement(Long id, CreateRollingStockRequest data) {
+        RollingStock existing = rollingStockRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("RollingStock", id));
+        RollingStock replacement = ModelMapper.toRollingStock(data);
+        replacement.setCreatedDate(existing.getCreatedDate());
+        return replacement;
+    }
+
+    private static void validateImportRow(CreateRollingStockRequest row) {
+        if (row.getManufacturer() == null || row.getManufacturer().isBlank()) {
+            throw new InvalidRequestException("manufacturer is required");
+        }
+        if (row.getModelNumber() == null || row.getModelNumber().isBlank()) {
+            throw new InvalidRequestException("modelNumber is required");
+        }
+        if (row.getScale() == null) {
+            throw new InvalidRequestException("scale is required");
+        }
+        if (row.getPurchasePrice() != null && row.getPurchasePrice().signum() < 0) {
+            throw new InvalidRequestException("purchasePrice must not be negative");
+        }
+        if (row.getCurrentValue() != null && row.getCurrentValue().signum() < 0) {
+            throw new InvalidRequestException("currentValue must not be negative");
+        }
+    }
+
+    private static Boolean toDescending(String order) {
+        if (order == null) {
+            return null;
+        }
+        if (!order.equals("asc") && !order.equals("desc")) {
+            throw new InvalidRequestException("Order must be asc or desc, not " + order);
+        }
+        return order.equals("desc");
+    }
 }
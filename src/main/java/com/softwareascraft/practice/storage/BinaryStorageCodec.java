@@ -0,0 +1,337 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.softwareascraft.practice.exception.JsonFileException;
+import com.softwareascraft.practice.util.JsonFileManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Compact binary format for data files.
+ *
+ * Layout: the magic bytes "TRNB", a version byte, a string dictionary, then one record per
+ * entity, each prefixed with its length. Records are the entity's Jackson token stream with
+ * every field name and every repeated string value - enum constants such as Scale or
+ * MaintenanceStatus, manufacturers, road names - replaced by its dictionary index. Numbers are
+ * variable-length, LocalDate is stored as its epoch day and LocalDateTime as epoch nanoseconds
+ * (UTC), covering the years 1677 to 2262.
+ */
+public class BinaryStorageCodec implements StorageCodec {
+
+    private static final byte[] MAGIC = {'T', 'R', 'N', 'B'};
+    private static final int VERSION = 1;
+
+    private static final int START_OBJECT = 1;
+    private static final int END_OBJECT = 2;
+    private static final int START_ARRAY = 3;
+    private static final int END_ARRAY = 4;
+    private static final int FIELD_NAME = 5;
+    private static final int STRING_REF = 6;
+    private static final int STRING = 7;
+    private static final int INTEGER = 8;
+    private static final int DECIMAL = 9;
+    private static final int DOUBLE = 10;
+    private static final int TRUE = 11;
+    private static final int FALSE = 12;
+    private static final int NULL = 13;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ObjectMapper objectMapper = createObjectMapper();
+
+    private static ObjectMapper createObjectMapper() {
+        SimpleModule epochDates = new SimpleModule("epoch-dates");
+        epochDates.addSerializer(LocalDate.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                gen.writeNumber(value.toEpochDay());
+            }
+        });
+        epochDates.addDeserializer(LocalDate.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+        });
+        epochDates.addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                gen.writeNumber(value.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + value.getNano());
+            }
+        });
+        epochDates.addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                long epochNanos = parser.getLongValue();
+                return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                        (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+            }
+        });
+
+        ObjectMapper mapper = JsonFileManager.createObjectMapper();
+        mapper.registerModule(epochDates);
+        return mapper;
+    }
+
+    @Override
+    public boolean recognizes(byte[] header, int length) {
+        return length >= MAGIC.length && Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    @Override
+    public void write(OutputStream out, Collection<?> entities, JavaType elementType) throws IOException {
+        List<TokenBuffer> records = new ArrayList<>(entities.size());
+        Map<String, Integer> occurrences = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            TokenBuffer tokens = new TokenBuffer(objectMapper, false);
+            objectMapper.writerFor(elementType).writeValue(tokens, entity);
+            countStrings(tokens, occurrences);
+            records.add(tokens);
+        }
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        occurrences.forEach((value, count) -> {
+            if (count > 1) {
+                dictionary.put(value, dictionary.size());
+            }
+        });
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        writeVarLong(data, dictionary.size());
+        for (String value : dictionary.keySet()) {
+            writeString(data, value);
+        }
+
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        for (TokenBuffer tokens : records) {
+            recordBytes.reset();
+            encode(tokens, dictionary, record);
+            writeVarLong(data, recordBytes.size());
+            recordBytes.writeTo(data);
+        }
+        data.flush();
+    }
+
+    @Override
+    public <T> void read(InputStream in, JavaType elementType, Predicate<? super T> visitor) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        int version = data.readUnsignedByte();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new JsonFileException("Unsupported binary data file version " + version);
+        }
+
+        String[] dictionary = new String[(int) readVarLong(data)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(data);
+        }
+
+        int first;
+        while ((first = data.read()) != -1) {
+            byte[] record = new byte[(int) readVarLong(data, first)];
+            data.readFully(record);
+
+            TokenBuffer tokens = decode(new DataInputStream(new ByteArrayInputStream(record)), dictionary);
+            try (JsonParser parser = tokens.asParser(objectMapper)) {
+                T entity = objectMapper.readValue(parser, elementType);
+                if (!visitor.test(entity)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void countStrings(TokenBuffer tokens, Map<String, Integer> occurrences) throws IOException {
+        try (JsonParser parser = tokens.asParser(objectMapper)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME || token == JsonToken.VALUE_STRING) {
+                    occurrences.merge(parser.getText(), 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private void encode(TokenBuffer tokens, Map<String, Integer> dictionary, DataOutputStream out) throws IOException {
+        try (JsonParser parser = tokens.asParser(objectMapper)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case START_OBJECT -> out.writeByte(START_OBJECT);
+                    case END_OBJECT -> out.writeByte(END_OBJECT);
+                    case START_ARRAY -> out.writeByte(START_ARRAY);
+                    case END_ARRAY -> out.writeByte(END_ARRAY);
+                    case FIELD_NAME -> {
+                        out.writeByte(FIELD_NAME);
+                        writeDictionaryString(out, parser.getText(), dictionary);
+                    }
+                    case VALUE_STRING -> writeDictionaryString(out, parser.getText(), dictionary);
+                    case VALUE_NUMBER_INT -> {
+                        if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                            writeDecimal(out, new BigDecimal(parser.getBigIntegerValue()));
+                        } else {
+                            out.writeByte(INTEGER);
+                            writeVarLong(out, zigZag(parser.getLongValue()));
+                        }
+                    }
+                    case VALUE_NUMBER_FLOAT -> {
+                        if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+                            writeDecimal(out, parser.getDecimalValue());
+                        } else {
+                            out.writeByte(DOUBLE);
+                            out.writeDouble(parser.getDoubleValue());
+                        }
+                    }
+                    case VALUE_TRUE -> out.writeByte(TRUE);
+                    case VALUE_FALSE -> out.writeByte(FALSE);
+                    case VALUE_NULL -> out.writeByte(NULL);
+                    default -> throw new JsonFileException("Cannot store token " + token + " in binary format");
+                }
+            }
+        }
+    }
+
+    private TokenBuffer decode(DataInputStream in, String[] dictionary) throws IOException {
+        TokenBuffer tokens = new TokenBuffer(objectMapper, false);
+        int tag;
+        while ((tag = in.read()) != -1) {
+            switch (tag) {
+                case START_OBJECT -> tokens.writeStartObject();
+                case END_OBJECT -> tokens.writeEndObject();
+                case START_ARRAY -> tokens.writeStartArray();
+                case END_ARRAY -> tokens.writeEndArray();
+                case FIELD_NAME -> tokens.writeFieldName(readDictionaryString(in, dictionary));
+                case STRING_REF, STRING -> tokens.writeString(readDictionaryString(in, tag, dictionary));
+                case INTEGER -> tokens.writeNumber(unZigZag(readVarLong(in)));
+                case DECIMAL -> tokens.writeNumber(readDecimal(in));
+                case DOUBLE -> tokens.writeNumber(in.readDouble());
+                case TRUE -> tokens.writeBoolean(true);
+                case FALSE -> tokens.writeBoolean(false);
+                case NULL -> tokens.writeNull();
+                default -> throw new JsonFileException("Corrupt binary record: unknown tag " + tag);
+            }
+        }
+        return tokens;
+    }
+
+    private void writeDictionaryString(DataOutputStream out, String value, Map<String, Integer> dictionary)
+            throws IOException {
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            out.writeByte(STRING_REF);
+            writeVarLong(out, index);
+        } else {
+            out.writeByte(STRING);
+            writeString(out, value);
+        }
+    }
+
+    private String readDictionaryString(DataInputStream in, String[] dictionary) throws IOException {
+        return readDictionaryString(in, in.readUnsignedByte(), dictionary);
+    }
+
+    private String readDictionaryString(DataInputStream in, int tag, String[] dictionary) throws IOException {
+        if (tag == STRING_REF) {
+            return dictionary[(int) readVarLong(in)];
+        }
+        if (tag == STRING) {
+            return readString(in);
+        }
+        throw new JsonFileException("Corrupt binary record: expected a string but found tag " + tag);
+    }
+
+    private void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeByte(DECIMAL);
+        writeVarLong(out, zigZag(value.scale()));
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarLong(out, unscaled.length);
+        out.write(unscaled);
+    }
+
+    private BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = (int) unZigZag(readVarLong(in));
+        byte[] unscaled = new byte[(int) readVarLong(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        return readVarLong(in, in.readUnsignedByte());
+    }
+
+    private static long readVarLong(DataInputStream in, int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int next = first;
+        while ((next & 0x80) != 0) {
+            if (shift > 63) {
+                throw new JsonFileException("Corrupt binary record: variable-length number too long");
+            }
+            next = in.readUnsignedByte();
+            value |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
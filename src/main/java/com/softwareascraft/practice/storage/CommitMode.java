@@ -0,0 +1,8 @@
+package com.softwareascraft.practice.storage;
+
+public enum CommitMode {
+    /** Writers wait until their change is persisted together with concurrent changes */
+    GROUP,
+    /** Writers return immediately; changes are coalesced and flushed in the background */
+    WRITE_BEHIND
+}
@@ -0,0 +1,220 @@
+package com.softwareascraft.practice.storage;
+
+import com.softwareascraft.practice.exception.JsonFileException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for one collection.
+ *
+ * Writers apply their change in memory, submit the mutation and then wait on the returned
+ * future. A single committer thread collects every mutation that arrives within the commit
+ * window, hands them to the storage engine as one batch and completes the futures once the
+ * batch is written (and forced to disk, depending on the {@link FsyncPolicy}).
+ *
+ * Mutations submitted together through {@link #submitAll} travel as one entry and are always
+ * written in the same batch, however many of them there are.
+ *
+ * The committer writes while holding the owning store's read lock, so the engine sees the
+ * in-memory collection in a consistent state while readers carry on. A failed batch is
+ * handled under the write lock.
+ */
+public class CommitPipeline<T> implements Committer<T> {
+
+    private final StorageEngine<T> engine;
+    private final Supplier<Collection<T>> current;
+    private final ReadWriteLock lock;
+    private final Runnable onFailure;
+    private final FsyncPolicy fsyncPolicy;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingMutation<T>> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+
+    /**
+     * @param name the collection name, used for the committer thread name
+     * @param engine the engine that persists batches
+     * @param current supplies the full in-memory collection; only read while holding the lock
+     * @param lock the lock guarding the in-memory collection
+     * @param onFailure run while holding the write lock after a batch fails to persist
+     */
+    public CommitPipeline(String name, StorageEngine<T> engine, Supplier<Collection<T>> current, ReadWriteLock lock,
+                          Runnable onFailure, FsyncPolicy fsyncPolicy, long windowMillis, int maxBatchSize) {
+        this.engine = engine;
+        this.current = current;
+        this.lock = lock;
+        this.onFailure = onFailure;
+        this.fsyncPolicy = fsyncPolicy;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+
+        Thread committer = new Thread(this::run, name + "-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Queues a mutation that has already been applied in memory. Callers must hold the write
+     * lock, which keeps the queue in the same order as the in-memory changes.
+     * @return a future completed once the mutation is durable
+     */
+    @Override
+    public CompletableFuture<Void> submit(StorageMutation<T> mutation) {
+        return submitAll(List.of(mutation));
+    }
+
+    /**
+     * Queues mutations that have already been applied in memory, to be written in one batch.
+     * Callers must hold the write lock.
+     * @return a future completed once every mutation is durable
+     */
+    @Override
+    public CompletableFuture<Void> submitAll(List<StorageMutation<T>> mutations) {
+        PendingMutation<T> pending = new PendingMutation<>(mutations);
+        pendingChanges.addAndGet(mutations.size());
+        queue.add(pending);
+        return pending.committed;
+    }
+
+    /**
+     * Waits for a submitted mutation to be committed
+     * @throws JsonFileException if the batch holding the mutation could not be written
+     */
+    @Override
+    public void await(CompletableFuture<Void> commit) {
+        try {
+            commit.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonFileException("Interrupted while waiting for commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new JsonFileException("Commit failed", e.getCause());
+        }
+    }
+
+    @Override
+    public int getPendingChanges() {
+        return pendingChanges.get();
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                List<PendingMutation<T>> batch = collectBatch();
+                RuntimeException failure;
+                lock.readLock().lock();
+                try {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    failure = commit(batch);
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (failure != null) {
+                    fail(batch, failure);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private List<PendingMutation<T>> collectBatch() throws InterruptedException {
+        List<PendingMutation<T>> batch = new ArrayList<>();
+        batch.add(queue.take());
+
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingMutation<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * @return the failure, or null once every mutation in the batch is committed
+     */
+    private RuntimeException commit(List<PendingMutation<T>> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            return e;
+        }
+
+        pendingChanges.addAndGet(-count(batch));
+        for (PendingMutation<T> pending : batch) {
+            pending.committed.complete(null);
+        }
+        return null;
+    }
+
+    private void fail(List<PendingMutation<T>> batch, RuntimeException failure) {
+        lock.writeLock().lock();
+        try {
+            // Everything still queued was applied in memory on top of the failed batch
+            queue.drainTo(batch);
+            pendingChanges.addAndGet(-count(batch));
+            // Recover before releasing callers so none of them can observe the failed state
+            onFailure.run();
+            for (PendingMutation<T> pending : batch) {
+                pending.committed.completeExceptionally(failure);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(List<PendingMutation<T>> batch) {
+        if (fsyncPolicy == FsyncPolicy.WRITE) {
+            for (PendingMutation<T> pending : batch) {
+                engine.write(pending.mutations, current.get(), true);
+            }
+            return;
+        }
+
+        List<StorageMutation<T>> mutations = new ArrayList<>(count(batch));
+        for (PendingMutation<T> pending : batch) {
+            mutations.addAll(pending.mutations);
+        }
+        engine.write(mutations, current.get(), fsyncPolicy == FsyncPolicy.BATCH);
+    }
+
+    private static <T> int count(List<PendingMutation<T>> batch) {
+        int count = 0;
+        for (PendingMutation<T> pending : batch) {
+            count += pending.mutations.size();
+        }
+        return count;
+    }
+
+    /**
+     * Mutations submitted together, committed or failed as one
+     */
+    private static class PendingMutation<T> {
+        private final List<StorageMutation<T>> mutations;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        private PendingMutation(List<StorageMutation<T>> mutations) {
+            this.mutations = mutations;
+        }
+    }
+}
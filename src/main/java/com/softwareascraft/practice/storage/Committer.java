@@ -0,0 +1,41 @@
+package com.softwareascraft.practice.storage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Takes mutations that a store has applied in memory and gets them persisted.
+ * Stores submit while holding their lock and wait on the returned future after releasing it.
+ */
+public interface Committer<T> {
+
+    /**
+     * Queues a mutation that has already been applied in memory
+     * @return a future completed once the committer considers the mutation handled
+     */
+    CompletableFuture<Void> submit(StorageMutation<T> mutation);
+
+    /**
+     * Queues mutations that have already been applied in memory, to be persisted together.
+     * The default submits them one at a time; committers that can write a batch in one go
+     * override it.
+     * @return a future completed once the committer considers every mutation handled
+     */
+    default CompletableFuture<Void> submitAll(List<StorageMutation<T>> mutations) {
+        CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+        for (StorageMutation<T> mutation : mutations) {
+            last = submit(mutation);
+        }
+        return last;
+    }
+
+    /**
+     * Waits for a submitted mutation, rethrowing any persistence failure
+     */
+    void await(CompletableFuture<Void> commit);
+
+    /**
+     * @return the number of changes applied in memory but not yet persisted
+     */
+    int getPendingChanges();
+}
@@ -0,0 +1,114 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.softwareascraft.practice.util.FileCompression;
+import com.softwareascraft.practice.util.JsonFileManager;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The base data file of a collection, read and written through a {@link StorageCodec}.
+ *
+ * The codec and compression of an existing file are detected from its header, so a file keeps
+ * loading after the configured format changes and is converted by the next write.
+ */
+public class DataFile<T> {
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final String fileName;
+    private final JavaType elementType;
+    private final StorageFormat format;
+    private final FileCompression compression;
+
+    /**
+     * @param fileName the name of the file (without path)
+     * @param typeReference the list type stored in the file
+     * @param format the format used for writing
+     */
+    public DataFile(String fileName, TypeReference<List<T>> typeReference, StorageFormat format) {
+        this(fileName, typeReference, format, FileCompression.NONE);
+    }
+
+    /**
+     * @param fileName the name of the file (without path)
+     * @param typeReference the list type stored in the file
+     * @param format the format used for writing
+     * @param compression the compression used for writing
+     */
+    public DataFile(String fileName, TypeReference<List<T>> typeReference, StorageFormat format,
+                    FileCompression compression) {
+        this.fileName = fileName;
+        this.elementType = JsonFileManager.elementType(typeReference);
+        this.format = format;
+        this.compression = compression;
+    }
+
+    /**
+     * Reads every entity, creating an empty file if none exists
+     * @return the entities in file order
+     */
+    public List<T> load() {
+        return scan(entity -> true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the file one entity at a time, keeping only the matches
+     * @param filter the condition an entity must meet to be returned
+     * @param limit the number of matches after which the read stops
+     * @return the matching entities in file order
+     */
+    public List<T> scan(Predicate<? super T> filter, int limit) {
+        if (!JsonFileManager.fileExists(fileName)) {
+            replace(List.of(), false);
+        }
+
+        List<T> matches = new ArrayList<>();
+        if (limit <= 0) {
+            return matches;
+        }
+        JsonFileManager.readFile(fileName, in -> {
+            try (InputStream content = FileCompression.decompressing(in)) {
+                InputStream buffered = content.markSupported() ? content : new BufferedInputStream(content);
+                detect(buffered).getCodec().<T>read(buffered, elementType, entity -> {
+                    if (filter.test(entity)) {
+                        matches.add(entity);
+                    }
+                    return matches.size() < limit;
+                });
+            }
+            return matches;
+        });
+        return matches;
+    }
+
+    /**
+     * Replaces the file with the given entities in the configured format
+     * @param entities the entities in file order
+     * @param sync whether to force the data to disk before the file is replaced
+     */
+    public void replace(Collection<T> entities, boolean sync) {
+        JsonFileManager.replaceFile(fileName,
+                out -> compression.write(out, content -> format.getCodec().write(content, entities, elementType)),
+                sync);
+    }
+
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    private StorageFormat detect(InputStream in) throws IOException {
+        in.mark(HEADER_LENGTH);
+        byte[] header = new byte[HEADER_LENGTH];
+        int length = in.readNBytes(header, 0, HEADER_LENGTH);
+        in.reset();
+        return StorageFormat.detect(header, length);
+    }
+}
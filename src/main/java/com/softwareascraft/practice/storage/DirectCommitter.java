@@ -0,0 +1,45 @@
+package com.softwareascraft.practice.storage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Persists each mutation as soon as it is submitted, while the store still holds its lock.
+ * Used for random-access engines, where the store reads from disk and must see its own writes.
+ */
+public class DirectCommitter<T> implements Committer<T> {
+
+    private static final CompletableFuture<Void> COMMITTED = CompletableFuture.completedFuture(null);
+
+    private final StorageEngine<T> engine;
+    private final FsyncPolicy fsyncPolicy;
+
+    public DirectCommitter(StorageEngine<T> engine, FsyncPolicy fsyncPolicy) {
+        this.engine = engine;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(StorageMutation<T> mutation) {
+        engine.write(List.of(mutation), List.of(), fsyncPolicy != FsyncPolicy.NONE);
+        return COMMITTED;
+    }
+
+    @Override
+    public CompletableFuture<Void> submitAll(List<StorageMutation<T>> mutations) {
+        if (!mutations.isEmpty()) {
+            engine.write(mutations, List.of(), fsyncPolicy != FsyncPolicy.NONE);
+        }
+        return COMMITTED;
+    }
+
+    @Override
+    public void await(CompletableFuture<Void> commit) {
+        // Already persisted by submit
+    }
+
+    @Override
+    public int getPendingChanges() {
+        return 0;
+    }
+}
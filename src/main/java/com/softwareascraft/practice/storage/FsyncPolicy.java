@@ -0,0 +1,13 @@
+package com.softwareascraft.practice.storage;
+
+/**
+ * When committed writes are forced to disk.
+ */
+public enum FsyncPolicy {
+    /** Leave flushing to the operating system */
+    NONE,
+    /** Force once after each group of writes */
+    BATCH,
+    /** Force after every individual mutation */
+    WRITE
+}
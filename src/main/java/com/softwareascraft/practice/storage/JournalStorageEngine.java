@@ -0,0 +1,158 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.softwareascraft.practice.exception.JsonFileException;
+import com.softwareascraft.practice.util.FileCompression;
+import com.softwareascraft.practice.util.JsonFileManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Appends each mutation to a journal instead of rewriting the data file.
+ *
+ * The data file keeps its configured {@link StorageFormat} and acts as the base snapshot. Mutations
+ * are appended to "&lt;name&gt;.journal", one compact record per line. Once the journal holds
+ * the configured number of records it is sealed and folded into a new base snapshot on a
+ * background thread, while new mutations start a fresh journal. Loading replays the base
+ * snapshot, then any sealed journal that was not folded yet, then the active journal. If a
+ * journal ends with a record torn by a crash, loading folds everything into a new base snapshot
+ * and removes the journals, so the next append starts a clean file.
+ */
+public class JournalStorageEngine<T> implements StorageEngine<T> {
+
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String fileName;
+    private final String journalFileName;
+    private final String sealedJournalFileName;
+    private final DataFile<T> dataFile;
+    private final FileCompression compression;
+    private final JavaType recordType;
+    private final Function<T, Long> idExtractor;
+    private final int compactionThreshold;
+    private final Object compactionLock = new Object();
+    private Future<?> compaction;
+    private int journalRecords;
+    private boolean tornJournal;
+
+    public JournalStorageEngine(String fileName, TypeReference<List<T>> typeReference,
+                                Function<T, Long> idExtractor, StorageFormat format,
+                                FileCompression compression, int compactionThreshold) {
+        this.fileName = fileName;
+        this.journalFileName = StorageSettings.collectionKey(fileName) + ".journal";
+        this.sealedJournalFileName = journalFileName + ".sealed";
+        this.dataFile = new DataFile<>(fileName, typeReference, format, compression);
+        this.compression = compression;
+        this.recordType = JsonFileManager.recordType(StorageMutation.class, typeReference);
+        this.idExtractor = idExtractor;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public List<T> load() {
+        synchronized (compactionLock) {
+            tornJournal = false;
+            Map<Long, T> entities = readBase();
+            replay(entities, sealedJournalFileName);
+            journalRecords = replay(entities, journalFileName);
+            if (tornJournal) {
+                // Replaying is idempotent, so a crash before both journals are gone is safe
+                dataFile.replace(entities.values(), true);
+                JsonFileManager.deleteFile(sealedJournalFileName);
+                JsonFileManager.deleteFile(journalFileName);
+                journalRecords = 0;
+            }
+            return new ArrayList<>(entities.values());
+        }
+    }
+
+    @Override
+    public void write(List<StorageMutation<T>> mutations, Collection<T> current, boolean sync) {
+        JsonFileManager.appendToFile(journalFileName, mutations, sync, compression);
+        journalRecords += mutations.size();
+
+        if (journalRecords >= compactionThreshold && (compaction == null || compaction.isDone())) {
+            compaction = scheduleCompaction();
+        }
+    }
+
+    /**
+     * Folds the whole journal into the base snapshot and waits for it to finish.
+     * Must not be called concurrently with {@link #write}.
+     */
+    public void compact() {
+        awaitCompaction();
+        compaction = scheduleCompaction();
+        awaitCompaction();
+    }
+
+    public int getJournalRecords() {
+        return journalRecords;
+    }
+
+    private Future<?> scheduleCompaction() {
+        // A sealed journal left behind by a failed fold must be folded before it is replaced
+        if (!JsonFileManager.fileExists(sealedJournalFileName) && JsonFileManager.fileExists(journalFileName)) {
+            JsonFileManager.moveFile(journalFileName, sealedJournalFileName);
+            journalRecords = 0;
+        }
+        return compactor.submit(this::foldSealedJournal);
+    }
+
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new JsonFileException("Journal compaction failed for " + fileName, e.getCause());
+        }
+    }
+
+    private void foldSealedJournal() {
+        synchronized (compactionLock) {
+            Map<Long, T> entities = readBase();
+            replay(entities, sealedJournalFileName);
+            dataFile.replace(entities.values(), true);
+            JsonFileManager.deleteFile(sealedJournalFileName);
+        }
+    }
+
+    private Map<Long, T> readBase() {
+        Map<Long, T> entities = new LinkedHashMap<>();
+        for (T entity : dataFile.load()) {
+            entities.put(idExtractor.apply(entity), entity);
+        }
+        return entities;
+    }
+
+    private int replay(Map<Long, T> entities, String journal) {
+        List<StorageMutation<T>> records = JsonFileManager.readRecordsFromFile(journal, recordType,
+                () -> tornJournal = true);
+        for (StorageMutation<T> record : records) {
+            if (record.getOperation() == StorageMutation.Operation.DELETE) {
+                entities.remove(record.getId());
+            } else {
+                entities.put(record.getId(), record.getEntity());
+            }
+        }
+        return records.size();
+    }
+}
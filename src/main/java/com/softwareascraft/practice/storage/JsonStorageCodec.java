@@ -0,0 +1,77 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.softwareascraft.practice.exception.JsonFileException;
+import com.softwareascraft.practice.util.JsonFileManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * Stores the collection as a JSON array, either indented for reading by hand or compact.
+ * Reads stream through the array one element at a time.
+ */
+public class JsonStorageCodec implements StorageCodec {
+
+    private final ObjectMapper objectMapper = JsonFileManager.createObjectMapper();
+    private final ObjectWriter writer;
+
+    public JsonStorageCodec(boolean pretty) {
+        ObjectWriter base = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.writer = pretty
+                ? base.with(SerializationFeature.INDENT_OUTPUT)
+                : base.without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public boolean recognizes(byte[] header, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(header[i])) {
+                return header[i] == '[' || header[i] == 'n';
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void write(OutputStream out, Collection<?> entities, JavaType elementType) throws IOException {
+        writer.forType(objectMapper.getTypeFactory().constructCollectionType(Collection.class, elementType))
+                .writeValue(out, entities);
+    }
+
+    @Override
+    public <T> void read(InputStream in, JavaType elementType, Predicate<? super T> visitor) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonFileException("Expected a JSON array but found " + token);
+            }
+
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    // Loading a partial array would let the next rewrite drop the rest for good
+                    throw new JsonFileException("Truncated data file");
+                }
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                T element = objectMapper.readValue(parser, elementType);
+                if (!visitor.test(element)) {
+                    return;
+                }
+            }
+        }
+    }
+}
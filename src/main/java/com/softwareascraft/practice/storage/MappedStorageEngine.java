@@ -0,0 +1,360 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.softwareascraft.practice.exception.JsonFileException;
+import com.softwareascraft.practice.util.JsonFileManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps a collection in a memory-mapped record file, "&lt;name&gt;.records", so single entities
+ * can be read without parsing the rest of the file.
+ *
+ * Layout: a header ("TRNM", version, end of data) followed by slots. Each slot holds its
+ * capacity, a live/dead flag, a CRC-32 of the rest of the slot, the entity id, the record length
+ * and the record as compact JSON, padded to the capacity. An id to offset index is rebuilt from
+ * the slot headers on open.
+ *
+ * An update that fits its slot overwrites it in place; a larger one marks the old slot dead
+ * and appends a new one. Deletes only mark the slot dead. A slot torn by a crash during an
+ * in-place update fails its checksum and is reported when read rather than returned. Once dead
+ * slots take more room than live ones the live slots are copied into a new file, which replaces
+ * the old one. The first open of a collection imports the existing data file. A single mapping
+ * limits the file to 2 GB. Mapped files are neither sharded nor compressed.
+ */
+public class MappedStorageEngine<T> implements RandomAccessStorageEngine<T> {
+
+    private static final byte[] MAGIC = {'T', 'R', 'N', 'M'};
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int END_OFFSET = 8;
+    private static final int SLOT_LIVE = 4;
+    private static final int SLOT_CHECKSUM = 5;
+    private static final int SLOT_ID = 9;
+    private static final int SLOT_LENGTH = 17;
+    private static final int SLOT_HEADER_SIZE = 21;
+    private static final byte LIVE = 1;
+    private static final byte DEAD = 0;
+    private static final int MIN_FILE_SIZE = 1 << 20;
+    private static final int MIN_COMPACTION_BYTES = 1 << 20;
+
+    private static final ObjectMapper objectMapper = JsonFileManager.createObjectMapper()
+            .disable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String fileName;
+    private final String recordFileName;
+    private final TypeReference<List<T>> typeReference;
+    private final JavaType elementType;
+    private final Function<T, Long> idExtractor;
+    private final StorageFormat format;
+    private final Map<Long, Integer> index = new HashMap<>();
+    private Path mappedFile;
+    private MappedByteBuffer buffer;
+    private int end;
+    private long liveBytes;
+    private long deadBytes;
+    private long maxId;
+
+    public MappedStorageEngine(String fileName, TypeReference<List<T>> typeReference,
+                               Function<T, Long> idExtractor, StorageFormat format) {
+        this.fileName = fileName;
+        this.recordFileName = StorageSettings.collectionKey(fileName) + ".records";
+        this.typeReference = typeReference;
+        this.elementType = JsonFileManager.elementType(typeReference);
+        this.idExtractor = idExtractor;
+        this.format = format;
+    }
+
+    @Override
+    public List<T> load() {
+        return scan(entity -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<T> scan(Predicate<? super T> filter, int limit) {
+        open();
+        List<T> matches = new ArrayList<>();
+        int offset = HEADER_SIZE;
+        while (offset < end && matches.size() < limit) {
+            if (buffer.get(offset + SLOT_LIVE) == LIVE) {
+                T entity = readRecord(offset);
+                if (filter.test(entity)) {
+                    matches.add(entity);
+                }
+            }
+            offset += buffer.getInt(offset);
+        }
+        return matches;
+    }
+
+    @Override
+    public Optional<T> find(Long id) {
+        open();
+        Integer offset = index.get(id);
+        return offset == null ? Optional.empty() : Optional.of(readRecord(offset));
+    }
+
+    @Override
+    public boolean contains(Long id) {
+        open();
+        return index.containsKey(id);
+    }
+
+    @Override
+    public long getMaxId() {
+        open();
+        return maxId;
+    }
+
+    @Override
+    public void write(List<StorageMutation<T>> mutations, Collection<T> current, boolean sync) {
+        open();
+        for (StorageMutation<T> mutation : mutations) {
+            if (mutation.getOperation() == StorageMutation.Operation.DELETE) {
+                Integer offset = index.remove(mutation.getId());
+                if (offset != null) {
+                    kill(offset);
+                }
+            } else {
+                put(mutation.getId(), mutation.getEntity());
+            }
+        }
+
+        if (deadBytes > liveBytes && deadBytes > MIN_COMPACTION_BYTES) {
+            compact();
+        }
+        if (sync) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Rewrites the record file without dead slots, copying the live ones byte for byte. The
+     * engine keeps using the old file until the new one has replaced it.
+     */
+    public void compact() {
+        open();
+        Path recordFile = JsonFileManager.dataPath(recordFileName);
+        Path tempFile = JsonFileManager.dataPath(recordFileName + ".tmp");
+
+        long liveSlotBytes = 0;
+        for (int offset : index.values()) {
+            liveSlotBytes += buffer.getInt(offset);
+        }
+        Map<Long, Integer> compactedIndex = new HashMap<>();
+        MappedByteBuffer compacted;
+        int compactedEnd = HEADER_SIZE;
+        try {
+            Files.deleteIfExists(tempFile);
+            compacted = mapFile(tempFile, Math.max(MIN_FILE_SIZE, HEADER_SIZE + liveSlotBytes));
+            for (int offset = HEADER_SIZE; offset < end; offset += buffer.getInt(offset)) {
+                if (buffer.get(offset + SLOT_LIVE) == LIVE) {
+                    int capacity = buffer.getInt(offset);
+                    compacted.put(compactedEnd, buffer, offset, capacity);
+                    compactedIndex.put(buffer.getLong(offset + SLOT_ID), compactedEnd);
+                    compactedEnd += capacity;
+                }
+            }
+            compacted.putLong(END_OFFSET, compactedEnd);
+            compacted.force();
+            Files.move(tempFile, recordFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to compact file: " + recordFileName, e);
+        }
+
+        // The mapping follows the moved file, but growing it must reopen the file by its new name
+        buffer = compacted;
+        mappedFile = recordFile;
+        end = compactedEnd;
+        index.clear();
+        index.putAll(compactedIndex);
+        deadBytes = 0;
+    }
+
+    public long getDeadBytes() {
+        return deadBytes;
+    }
+
+    private void put(Long id, T entity) {
+        byte[] record = serialize(entity);
+        Integer offset = index.get(id);
+
+        if (offset != null && buffer.getInt(offset) - SLOT_HEADER_SIZE >= record.length) {
+            liveBytes += record.length - buffer.getInt(offset + SLOT_LENGTH);
+            buffer.put(offset + SLOT_HEADER_SIZE, record);
+            buffer.putInt(offset + SLOT_LENGTH, record.length);
+            buffer.putInt(offset + SLOT_CHECKSUM, checksum(offset, record.length));
+            return;
+        }
+        if (offset != null) {
+            kill(offset);
+        }
+
+        int capacity = SLOT_HEADER_SIZE + record.length + record.length / 4;
+        int slot = end;
+        ensureCapacity(slot + capacity);
+        buffer.putInt(slot, capacity);
+        buffer.put(slot + SLOT_LIVE, LIVE);
+        buffer.putLong(slot + SLOT_ID, id);
+        buffer.putInt(slot + SLOT_LENGTH, record.length);
+        buffer.put(slot + SLOT_HEADER_SIZE, record);
+        buffer.putInt(slot + SLOT_CHECKSUM, checksum(slot, record.length));
+        end = slot + capacity;
+        buffer.putLong(END_OFFSET, end);
+
+        index.put(id, slot);
+        liveBytes += record.length;
+        maxId = Math.max(maxId, id);
+    }
+
+    private void kill(int offset) {
+        buffer.put(offset + SLOT_LIVE, DEAD);
+        int length = buffer.getInt(offset + SLOT_LENGTH);
+        liveBytes -= length;
+        deadBytes += buffer.getInt(offset);
+    }
+
+    private T readRecord(int offset) {
+        int length = buffer.getInt(offset + SLOT_LENGTH);
+        if (length < 0 || length > buffer.getInt(offset) - SLOT_HEADER_SIZE
+                || buffer.getInt(offset + SLOT_CHECKSUM) != checksum(offset, length)) {
+            throw new JsonFileException("Torn record at offset " + offset + " in " + recordFileName);
+        }
+
+        byte[] record = new byte[length];
+        buffer.get(offset + SLOT_HEADER_SIZE, record);
+        try {
+            return objectMapper.readValue(record, elementType);
+        } catch (IOException e) {
+            throw new JsonFileException("Corrupt record at offset " + offset + " in " + recordFileName, e);
+        }
+    }
+
+    /**
+     * Computes the CRC-32 of a slot's id, record length and record
+     */
+    private int checksum(int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + SLOT_ID, SLOT_HEADER_SIZE - SLOT_ID + length));
+        return (int) crc.getValue();
+    }
+
+    private byte[] serialize(T entity) {
+        try {
+            return objectMapper.writeValueAsBytes(entity);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to serialize record for " + recordFileName, e);
+        }
+    }
+
+    @Override
+    public void open() {
+        if (buffer != null) {
+            return;
+        }
+
+        Path recordFile = JsonFileManager.dataPath(recordFileName);
+        boolean exists = Files.exists(recordFile);
+        try {
+            map(recordFile, exists ? Files.size(recordFile) : MIN_FILE_SIZE);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to open file: " + recordFileName, e);
+        }
+
+        if (!exists) {
+            for (T entity : new DataFile<>(fileName, typeReference, format).load()) {
+                put(idExtractor.apply(entity), entity);
+            }
+            buffer.force();
+            return;
+        }
+        rebuildIndex();
+    }
+
+    private void map(Path recordFile, long size) throws IOException {
+        buffer = mapFile(recordFile, size);
+        mappedFile = recordFile;
+
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC) || buffer.getInt(4) != VERSION) {
+            throw new JsonFileException("Unsupported record file: " + recordFileName);
+        }
+        end = (int) buffer.getLong(END_OFFSET);
+        index.clear();
+        liveBytes = 0;
+        deadBytes = 0;
+        maxId = 0;
+    }
+
+    /**
+     * Maps a record file, writing the header if the file is new
+     */
+    private static MappedByteBuffer mapFile(Path recordFile, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(recordFile.toFile(), "rw")) {
+            boolean created = file.length() == 0;
+            MappedByteBuffer mapped = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (created) {
+                mapped.put(0, MAGIC);
+                mapped.putInt(4, VERSION);
+                mapped.putLong(END_OFFSET, HEADER_SIZE);
+            }
+            return mapped;
+        }
+    }
+
+    private void rebuildIndex() {
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            int capacity = buffer.getInt(offset);
+            long id = buffer.getLong(offset + SLOT_ID);
+            if (buffer.get(offset + SLOT_LIVE) == LIVE) {
+                index.put(id, offset);
+                liveBytes += buffer.getInt(offset + SLOT_LENGTH);
+            } else {
+                deadBytes += capacity;
+            }
+            maxId = Math.max(maxId, id);
+            offset += capacity;
+        }
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long size = Math.max(required, (long) buffer.capacity() * 2);
+        if (size > Integer.MAX_VALUE) {
+            if (required > Integer.MAX_VALUE) {
+                throw new JsonFileException("Record file exceeds 2 GB: " + recordFileName);
+            }
+            size = Integer.MAX_VALUE;
+        }
+
+        buffer.force();
+        try (RandomAccessFile file = new RandomAccessFile(mappedFile.toFile(), "rw")) {
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to grow file: " + recordFileName, e);
+        }
+    }
+}
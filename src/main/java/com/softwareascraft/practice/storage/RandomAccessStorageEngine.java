@@ -0,0 +1,31 @@
+package com.softwareascraft.practice.storage;
+
+import java.util.Optional;
+
+/**
+ * A storage engine that can serve single-entity reads straight from disk. Stores backed by
+ * one keep no resident copy of the collection and persist each mutation as it is submitted.
+ */
+public interface RandomAccessStorageEngine<T> extends StorageEngine<T> {
+
+    /**
+     * Opens the engine, reading whatever it needs to serve lookups. Opening is not safe against
+     * concurrent reads, so stores call it once, before the engine is shared; other methods open
+     * it on first use otherwise.
+     */
+    void open();
+
+    /**
+     * Reads one entity
+     * @param id the id of the entity
+     * @return the entity, or empty if no live entity has the id
+     */
+    Optional<T> find(Long id);
+
+    boolean contains(Long id);
+
+    /**
+     * @return the highest id written to the collection, or 0 if the collection is empty
+     */
+    long getMaxId();
+}
@@ -0,0 +1,28 @@
+package com.softwareascraft.practice.storage;
+
+import com.softwareascraft.practice.model.BaseInventoryItem;
+
+/**
+ * How entities are assigned to shard files.
+ */
+public enum ShardKey {
+    /** Consecutive blocks of ids go to consecutive shards, wrapping around */
+    ID_RANGE,
+    /** Inventory items are grouped by scale; entities without one fall back to id range */
+    SCALE;
+
+    /**
+     * Picks the shard an entity belongs to
+     * @param id the id of the entity
+     * @param entity the entity
+     * @param shardCount the number of shards
+     * @param rangeSize the number of consecutive ids per block for id range routing
+     * @return the shard index, from 0 to shardCount - 1
+     */
+    public int shardOf(Long id, Object entity, int shardCount, long rangeSize) {
+        if (this == SCALE && entity instanceof BaseInventoryItem item && item.getScale() != null) {
+            return item.getScale().ordinal() % shardCount;
+        }
+        return (int) Math.floorMod(Math.floorDiv(id - 1, rangeSize), (long) shardCount);
+    }
+}
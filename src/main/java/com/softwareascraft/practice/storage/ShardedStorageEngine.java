@@ -0,0 +1,183 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.util.FileCompression;
+import com.softwareascraft.practice.util.JsonFileManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a collection across shard files, "&lt;name&gt;.shard-&lt;n&gt;.&lt;ext&gt;", so a
+ * mutation only rewrites the shard that owns the entity. Shards are read in parallel.
+ *
+ * Loading migrates whatever layout is on disk: an unsharded data file, or shard files written
+ * with a different count or key, are redistributed into the configured shards before the
+ * files that are no longer part of the layout are deleted. Data in shard files wins over the
+ * unsharded file, so an interrupted migration is simply repeated on the next load.
+ */
+public class ShardedStorageEngine<T> implements StorageEngine<T> {
+
+    private final String fileName;
+    private final String shardPrefix;
+    private final String shardSuffix;
+    private final TypeReference<List<T>> typeReference;
+    private final Function<T, Long> idExtractor;
+    private final StorageFormat format;
+    private final FileCompression compression;
+    private final ShardKey shardKey;
+    private final long rangeSize;
+    private final List<DataFile<T>> shardFiles = new ArrayList<>();
+    private final List<Map<Long, T>> shards = new ArrayList<>();
+    private final Map<Long, Integer> locations = new HashMap<>();
+
+    public ShardedStorageEngine(String fileName, TypeReference<List<T>> typeReference, Function<T, Long> idExtractor,
+                                StorageFormat format, FileCompression compression,
+                                int shardCount, ShardKey shardKey, long rangeSize) {
+        int extension = fileName.lastIndexOf('.');
+        this.fileName = fileName;
+        this.shardPrefix = StorageSettings.collectionKey(fileName) + ".shard-";
+        this.shardSuffix = extension > 0 ? fileName.substring(extension) : "";
+        this.typeReference = typeReference;
+        this.idExtractor = idExtractor;
+        this.format = format;
+        this.compression = compression;
+        this.shardKey = shardKey;
+        this.rangeSize = rangeSize;
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardFiles.add(new DataFile<>(shardFileName(shard), typeReference, format, compression));
+            shards.add(new LinkedHashMap<>());
+        }
+    }
+
+    @Override
+    public List<T> load() {
+        shards.forEach(Map::clear);
+        locations.clear();
+
+        boolean unsharded = JsonFileManager.fileExists(fileName);
+        boolean migrationNeeded = unsharded;
+        Map<Long, T> entities = new LinkedHashMap<>();
+        if (unsharded) {
+            for (T entity : new DataFile<>(fileName, typeReference, format).load()) {
+                entities.put(idExtractor.apply(entity), entity);
+            }
+        }
+
+        List<String> existingShards = JsonFileManager.listFiles(shardPrefix + "*" + shardSuffix);
+        Map<Long, Integer> sources = new HashMap<>();
+        for (Map.Entry<String, List<T>> shardFile : readInParallel(existingShards).entrySet()) {
+            int source = shardIndex(shardFile.getKey());
+            migrationNeeded |= source < 0 || source >= shardFiles.size();
+            for (T entity : shardFile.getValue()) {
+                Long id = idExtractor.apply(entity);
+                entities.put(id, entity);
+                migrationNeeded |= sources.put(id, source) != null;
+            }
+        }
+
+        for (Map.Entry<Long, T> entry : entities.entrySet()) {
+            int shard = shardOf(entry.getKey(), entry.getValue());
+            shards.get(shard).put(entry.getKey(), entry.getValue());
+            locations.put(entry.getKey(), shard);
+            migrationNeeded |= !Integer.valueOf(shard).equals(sources.get(entry.getKey()));
+        }
+
+        if (migrationNeeded) {
+            migrate(existingShards, unsharded);
+        }
+
+        List<T> loaded = new ArrayList<>(entities.values());
+        loaded.sort(Comparator.comparing(idExtractor));
+        return loaded;
+    }
+
+    @Override
+    public List<T> scan(Predicate<? super T> filter, int limit) {
+        return IntStream.range(0, shardFiles.size())
+                .parallel()
+                .mapToObj(shard -> shardFiles.get(shard).scan(filter, limit))
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(idExtractor))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void write(List<StorageMutation<T>> mutations, Collection<T> current, boolean sync) {
+        Set<Integer> dirty = new HashSet<>();
+        for (StorageMutation<T> mutation : mutations) {
+            Integer previous = locations.remove(mutation.getId());
+            Integer shard = mutation.getOperation() == StorageMutation.Operation.PUT
+                    ? shardOf(mutation.getId(), mutation.getEntity())
+                    : null;
+            if (previous != null && !previous.equals(shard)) {
+                shards.get(previous).remove(mutation.getId());
+                dirty.add(previous);
+            }
+            if (shard != null) {
+                shards.get(shard).put(mutation.getId(), mutation.getEntity());
+                locations.put(mutation.getId(), shard);
+                dirty.add(shard);
+            }
+        }
+
+        dirty.parallelStream().forEach(shard -> shardFiles.get(shard).replace(shards.get(shard).values(), sync));
+    }
+
+    public int getShardCount() {
+        return shardFiles.size();
+    }
+
+    private Map<String, List<T>> readInParallel(List<String> shardFileNames) {
+        return shardFileNames.parallelStream()
+                .collect(Collectors.toMap(name -> name,
+                        name -> new DataFile<>(name, typeReference, format).load(),
+                        (first, second) -> first,
+                        LinkedHashMap::new));
+    }
+
+    private void migrate(List<String> existingShards, boolean unsharded) {
+        IntStream.range(0, shardFiles.size()).parallel()
+                .forEach(shard -> shardFiles.get(shard).replace(shards.get(shard).values(), true));
+
+        for (String existing : existingShards) {
+            int shard = shardIndex(existing);
+            if (shard < 0 || shard >= shardFiles.size()) {
+                JsonFileManager.deleteFile(existing);
+            }
+        }
+        if (unsharded) {
+            JsonFileManager.deleteFile(fileName);
+        }
+    }
+
+    private int shardOf(Long id, T entity) {
+        return shardKey.shardOf(id, entity, shardFiles.size(), rangeSize);
+    }
+
+    private String shardFileName(int shard) {
+        return shardPrefix + shard + shardSuffix;
+    }
+
+    private int shardIndex(String shardFileName) {
+        String index = shardFileName.substring(shardPrefix.length(), shardFileName.length() - shardSuffix.length());
+        try {
+            return Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
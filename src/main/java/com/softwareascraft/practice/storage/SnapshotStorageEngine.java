@@ -0,0 +1,36 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.util.FileCompression;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Rewrites the whole data file for every batch of mutations.
+ */
+public class SnapshotStorageEngine<T> implements StorageEngine<T> {
+
+    private final DataFile<T> dataFile;
+
+    public SnapshotStorageEngine(String fileName, TypeReference<List<T>> typeReference, StorageFormat format,
+                                 FileCompression compression) {
+        this.dataFile = new DataFile<>(fileName, typeReference, format, compression);
+    }
+
+    @Override
+    public List<T> load() {
+        return dataFile.load();
+    }
+
+    @Override
+    public List<T> scan(Predicate<? super T> filter, int limit) {
+        return dataFile.scan(filter, limit);
+    }
+
+    @Override
+    public void write(List<StorageMutation<T>> mutations, Collection<T> current, boolean sync) {
+        dataFile.replace(current, sync);
+    }
+}
@@ -0,0 +1,42 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * Encodes a collection of entities to and from a data file.
+ *
+ * Implementations must write a recognisable start of file, so the format of an existing
+ * file can be detected with {@link #recognizes(byte[], int)} regardless of the configured one.
+ */
+public interface StorageCodec {
+
+    /**
+     * Checks whether a file starting with the given bytes was written by this codec
+     * @param header the first bytes of the file
+     * @param length the number of valid bytes in the header
+     * @return true if this codec can read the file
+     */
+    boolean recognizes(byte[] header, int length);
+
+    /**
+     * Writes every entity
+     * @param out the stream to write to; left open
+     * @param entities the entities in file order
+     * @param elementType the type of each entity
+     */
+    void write(OutputStream out, Collection<?> entities, JavaType elementType) throws IOException;
+
+    /**
+     * Reads entities one at a time and hands each to a visitor
+     * @param in the stream positioned at the start of the file
+     * @param elementType the type of each entity
+     * @param visitor receives each entity in file order; returning false stops the read
+     */
+    <T> void read(InputStream in, JavaType elementType, Predicate<? super T> visitor) throws IOException;
+}
@@ -0,0 +1,45 @@
+package com.softwareascraft.practice.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Persists one collection on behalf of an in-memory store.
+ *
+ * The store owns the authoritative copy of the data: it calls {@link #load()} once and then
+ * hands mutations to {@link #write} after applying them to memory. Calls are made while the
+ * store holds its lock, so engines never see two writes at the same time.
+ */
+public interface StorageEngine<T> {
+
+    /**
+     * Reads every persisted entity
+     * @return the entities in file order
+     */
+    List<T> load();
+
+    /**
+     * Reads the persisted entities that match a filter without building the store.
+     * Used for reads while the store is not resident. Engines that can read their file
+     * incrementally override this so non-matching entities are never kept.
+     * @param filter the condition an entity must meet to be returned
+     * @param limit the number of matches after which the scan stops
+     * @return the matching entities in file order
+     */
+    default List<T> scan(Predicate<? super T> filter, int limit) {
+        return load().stream()
+                .filter(filter)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Persists mutations that have already been applied in memory
+     * @param mutations the changes to persist, in the order they were applied
+     * @param current the full collection after the changes
+     * @param sync whether the written data must be forced to disk before returning
+     */
+    void write(List<StorageMutation<T>> mutations, Collection<T> current, boolean sync);
+}
@@ -0,0 +1,127 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.util.FileCompression;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class StorageEngines {
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    private static final long DEFAULT_COMMIT_WINDOW_MILLIS = 2;
+    private static final int DEFAULT_COMMIT_MAX_BATCH_SIZE = 256;
+    private static final long DEFAULT_SHARD_RANGE_SIZE = 1000;
+    private static final int DEFAULT_COMPRESSION_LEVEL = 6;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    private static final int DEFAULT_MAX_PENDING_CHANGES = 500;
+
+    private StorageEngines() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Creates the storage engine configured for a data file.
+     * The mode is read from "inventory.storage.&lt;collection&gt;.mode", e.g.
+     * inventory.storage.locomotives.mode=journal, and the file format from
+     * "inventory.storage.format" or "inventory.storage.&lt;collection&gt;.format". Snapshot
+     * files are split into "inventory.storage.&lt;collection&gt;.shards" shard files when set above 1.
+     * Mapped files are neither sharded nor compressed: setting either for a mapped collection fails,
+     * and the global compression setting does not apply to them
+     * @param fileName the name of the file (without path)
+     * @param typeReference the type reference for deserialization
+     * @param idExtractor function returning the id of an entity
+     * @return the engine persisting the file
+     */
+    public static <T> StorageEngine<T> create(String fileName, TypeReference<List<T>> typeReference,
+                                              Function<T, Long> idExtractor) {
+        String collection = StorageSettings.collectionKey(fileName);
+        StorageMode mode = StorageSettings.getEnum(collection + ".mode", StorageMode.class, StorageMode.SNAPSHOT);
+        StorageFormat format = StorageSettings.getEnum(collection + ".format", StorageFormat.class,
+                StorageSettings.getEnum("format", StorageFormat.class, StorageFormat.PRETTY_JSON));
+        FileCompression compression = compressionFor(collection);
+
+        if (mode == StorageMode.MAPPED) {
+            if (StorageSettings.getInt(collection + ".shards", 1) > 1
+                    || StorageSettings.getEnum(collection + ".compression", FileCompression.Algorithm.class,
+                            FileCompression.Algorithm.NONE) != FileCompression.Algorithm.NONE) {
+                throw new IllegalArgumentException("Mapped storage cannot be sharded or compressed: " + collection);
+            }
+            return new MappedStorageEngine<>(fileName, typeReference, idExtractor, format);
+        }
+        if (mode == StorageMode.JOURNAL) {
+            int defaultThreshold = StorageSettings.getInt("journal.compaction-threshold", DEFAULT_COMPACTION_THRESHOLD);
+            int threshold = StorageSettings.getInt(collection + ".journal.compaction-threshold", defaultThreshold);
+            return new JournalStorageEngine<>(fileName, typeReference, idExtractor, format, compression, threshold);
+        }
+        int shardCount = StorageSettings.getInt(collection + ".shards", 1);
+        if (shardCount > 1) {
+            ShardKey shardKey = StorageSettings.getEnum(collection + ".shard-by", ShardKey.class, ShardKey.ID_RANGE);
+            long rangeSize = StorageSettings.getLong(collection + ".shard-range-size", DEFAULT_SHARD_RANGE_SIZE);
+            return new ShardedStorageEngine<>(fileName, typeReference, idExtractor, format, compression,
+                    shardCount, shardKey, rangeSize);
+        }
+        return new SnapshotStorageEngine<>(fileName, typeReference, format, compression);
+    }
+
+    /**
+     * Reads the compression for a collection from "inventory.storage.compression" and
+     * "inventory.storage.compression-level", each overridable per collection
+     */
+    private static FileCompression compressionFor(String collection) {
+        FileCompression.Algorithm algorithm = StorageSettings.getEnum(collection + ".compression",
+                FileCompression.Algorithm.class,
+                StorageSettings.getEnum("compression", FileCompression.Algorithm.class, FileCompression.Algorithm.NONE));
+        int level = StorageSettings.getInt(collection + ".compression-level",
+                StorageSettings.getInt("compression-level", DEFAULT_COMPRESSION_LEVEL));
+        return FileCompression.of(algorithm, level);
+    }
+
+    /**
+     * Creates the committer configured for a data file: group commit by default, or
+     * write-behind when "inventory.storage.&lt;collection&gt;.commit.mode=write-behind".
+     * Random-access engines always persist each mutation directly.
+     * Settings are read from "inventory.storage.commit.*" and "inventory.storage.write-behind.*"
+     * and can be overridden per file under "inventory.storage.&lt;collection&gt;."
+     * @param fileName the name of the file (without path)
+     * @param engine the engine that persists the file
+     * @param current supplies the full in-memory collection
+     * @param lock the lock guarding the in-memory collection
+     * @param onFailure run while holding the write lock after a group commit fails to persist
+     * @return the committer for the file
+     */
+    public static <T> Committer<T> createCommitter(String fileName, StorageEngine<T> engine,
+                                                   Supplier<Collection<T>> current, ReadWriteLock lock,
+                                                   Runnable onFailure) {
+        String collection = StorageSettings.collectionKey(fileName);
+        CommitMode mode = StorageSettings.getEnum(collection + ".commit.mode", CommitMode.class,
+                StorageSettings.getEnum("commit.mode", CommitMode.class, CommitMode.GROUP));
+        FsyncPolicy fsyncPolicy = StorageSettings.getEnum(collection + ".commit.fsync", FsyncPolicy.class,
+                StorageSettings.getEnum("commit.fsync", FsyncPolicy.class, FsyncPolicy.BATCH));
+
+        Committer<T> committer;
+        if (engine instanceof RandomAccessStorageEngine) {
+            committer = new DirectCommitter<>(engine, fsyncPolicy);
+        } else if (mode == CommitMode.WRITE_BEHIND) {
+            long flushIntervalMillis = StorageSettings.getLong(collection + ".write-behind.flush-interval-millis",
+                    StorageSettings.getLong("write-behind.flush-interval-millis", DEFAULT_FLUSH_INTERVAL_MILLIS));
+            int maxPendingChanges = StorageSettings.getInt(collection + ".write-behind.max-pending-changes",
+                    StorageSettings.getInt("write-behind.max-pending-changes", DEFAULT_MAX_PENDING_CHANGES));
+            committer = new WriteBehindFlusher<>(collection, engine, current, lock,
+                    fsyncPolicy, flushIntervalMillis, maxPendingChanges);
+        } else {
+            long windowMillis = StorageSettings.getLong(collection + ".commit.window-millis",
+                    StorageSettings.getLong("commit.window-millis", DEFAULT_COMMIT_WINDOW_MILLIS));
+            int maxBatchSize = StorageSettings.getInt(collection + ".commit.max-batch-size",
+                    StorageSettings.getInt("commit.max-batch-size", DEFAULT_COMMIT_MAX_BATCH_SIZE));
+            committer = new CommitPipeline<>(collection, engine, current, lock, onFailure,
+                    fsyncPolicy, windowMillis, maxBatchSize);
+        }
+
+        StorageMetrics.registerCommitter(collection, mode, committer);
+        return committer;
+    }
+}
@@ -0,0 +1,43 @@
+package com.softwareascraft.practice.storage;
+
+import com.softwareascraft.practice.exception.JsonFileException;
+
+/**
+ * On-disk formats for data files. Existing files are read in whatever format they were
+ * written in; the configured format is used for the next write.
+ */
+public enum StorageFormat {
+    /** Indented JSON, easy to read and edit by hand */
+    PRETTY_JSON(new JsonStorageCodec(true)),
+    /** JSON without whitespace */
+    COMPACT_JSON(new JsonStorageCodec(false)),
+    /** Length-prefixed binary records with dictionary-encoded strings and epoch dates */
+    BINARY(new BinaryStorageCodec());
+
+    private final StorageCodec codec;
+
+    StorageFormat(StorageCodec codec) {
+        this.codec = codec;
+    }
+
+    public StorageCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Detects the format of a file from its first bytes
+     * @param header the first bytes of the file
+     * @param length the number of valid bytes in the header
+     * @return the format that wrote the file
+     * @throws JsonFileException if no format recognizes the file
+     */
+    public static StorageFormat detect(byte[] header, int length) {
+        if (BINARY.codec.recognizes(header, length)) {
+            return BINARY;
+        }
+        if (PRETTY_JSON.codec.recognizes(header, length)) {
+            return PRETTY_JSON;
+        }
+        throw new JsonFileException("Unrecognized data file format");
+    }
+}
@@ -0,0 +1,39 @@
+package com.softwareascraft.practice.storage;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.Locale;
+
+/**
+ * Publishes storage metrics to the global Micrometer registry, which Spring Boot exposes
+ * under /actuator/metrics.
+ */
+public class StorageMetrics {
+
+    private StorageMetrics() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Registers the number of changes a committer holds that are not yet on disk
+     * @param collection the collection name, e.g. "locomotives"
+     * @param mode the commit mode of the collection
+     * @param committer the committer to observe
+     */
+    public static void registerCommitter(String collection, CommitMode mode, Committer<?> committer) {
+        Gauge.builder("inventory.storage.pending.changes", committer, Committer::getPendingChanges)
+                .description("Changes applied in memory but not yet persisted")
+                .tag("collection", collection)
+                .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                .register(Metrics.globalRegistry);
+
+        if (committer instanceof WriteBehindFlusher<?> flusher) {
+            FunctionCounter.builder("inventory.storage.failed.flushes", flusher, WriteBehindFlusher::getFailedFlushes)
+                    .description("Background flushes that failed and will be retried")
+                    .tag("collection", collection)
+                    .register(Metrics.globalRegistry);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.softwareascraft.practice.storage;
+
+public enum StorageMode {
+    SNAPSHOT,
+    JOURNAL,
+    MAPPED
+}
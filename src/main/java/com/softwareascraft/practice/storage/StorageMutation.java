@@ -0,0 +1,58 @@
+package com.softwareascraft.practice.storage;
+
+/**
+ * A single change to a collection, as handed to a {@link StorageEngine}.
+ * Also serves as the on-disk journal record.
+ */
+public class StorageMutation<T> {
+
+    public enum Operation {
+        PUT,
+        DELETE
+    }
+
+    private Operation operation;
+    private Long id;
+    private T entity;
+
+    public StorageMutation() {
+    }
+
+    private StorageMutation(Operation operation, Long id, T entity) {
+        this.operation = operation;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public static <T> StorageMutation<T> put(Long id, T entity) {
+        return new StorageMutation<>(Operation.PUT, id, entity);
+    }
+
+    public static <T> StorageMutation<T> delete(Long id) {
+        return new StorageMutation<>(Operation.DELETE, id, null);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public void setEntity(T entity) {
+        this.entity = entity;
+    }
+}
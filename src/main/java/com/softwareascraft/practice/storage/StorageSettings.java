@@ -0,0 +1,77 @@
+package com.softwareascraft.practice.storage;
+
+import com.softwareascraft.practice.exception.JsonFileException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Storage configuration read from application.properties.
+ *
+ * Repositories are created outside the Spring context, so the settings are read straight
+ * from the classpath. A JVM system property with the same key overrides the file.
+ */
+public class StorageSettings {
+
+    private static final String PROPERTIES_FILE = "application.properties";
+    private static final String PREFIX = "inventory.storage.";
+
+    private static final Properties properties = loadProperties();
+
+    private StorageSettings() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    private static Properties loadProperties() {
+        Properties loaded = new Properties();
+        try (InputStream in = StorageSettings.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (in != null) {
+                loaded.load(in);
+            }
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to read " + PROPERTIES_FILE, e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets a storage setting
+     * @param key the key without the "inventory.storage." prefix
+     * @param defaultValue the value to use when the key is not set
+     * @return the configured value
+     */
+    public static String getString(String key, String defaultValue) {
+        String fullKey = PREFIX + key;
+        String value = System.getProperty(fullKey, properties.getProperty(fullKey));
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(getString(key, String.valueOf(defaultValue)));
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return Long.parseLong(getString(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Gets an enum setting, accepting any case and '-' in place of '_'
+     */
+    public static <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Enum.valueOf(type, value.replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the settings key prefix for a data file, e.g. "locomotives" for locomotives.json
+     */
+    public static String collectionKey(String fileName) {
+        int extension = fileName.lastIndexOf('.');
+        return extension > 0 ? fileName.substring(0, extension) : fileName;
+    }
+}
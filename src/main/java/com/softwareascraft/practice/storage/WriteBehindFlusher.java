@@ -0,0 +1,174 @@
+package com.softwareascraft.practice.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind for one collection.
+ *
+ * Submitting a mutation only marks the entity dirty and returns. Repeated changes to the same
+ * entity collapse into its latest state. A background thread persists the dirty set every
+ * flush interval, or sooner once the configured number of entities is dirty. A failed flush
+ * keeps its changes dirty and retries on the next run. Pending changes are drained when the
+ * JVM shuts down.
+ *
+ * Changes that were not flushed yet are lost if the process dies; {@link #getPendingChanges()}
+ * reports how many that would be.
+ */
+public class WriteBehindFlusher<T> implements Committer<T> {
+
+    private static final CompletableFuture<Void> ACCEPTED = CompletableFuture.completedFuture(null);
+
+    private final StorageEngine<T> engine;
+    private final Supplier<Collection<T>> current;
+    private final ReadWriteLock lock;
+    private final Object flushLock = new Object();
+    private final FsyncPolicy fsyncPolicy;
+    private final int maxPendingChanges;
+    private final Map<Long, StorageMutation<T>> dirty = new LinkedHashMap<>();
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+    private int flushing;
+
+    /**
+     * @param name the collection name, used for the flusher thread name
+     * @param engine the engine that persists flushed changes
+     * @param current supplies the full in-memory collection; only read while holding the read lock
+     * @param lock the lock guarding the in-memory collection
+     * @param fsyncPolicy whether each flush is forced to disk
+     * @param flushIntervalMillis how often dirty entities are flushed
+     * @param maxPendingChanges number of dirty entities that triggers an early flush
+     */
+    public WriteBehindFlusher(String name, StorageEngine<T> engine, Supplier<Collection<T>> current, ReadWriteLock lock,
+                              FsyncPolicy fsyncPolicy, long flushIntervalMillis, int maxPendingChanges) {
+        this.engine = engine;
+        this.current = current;
+        this.lock = lock;
+        this.fsyncPolicy = fsyncPolicy;
+        this.maxPendingChanges = maxPendingChanges;
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, name + "-flusher-shutdown"));
+    }
+
+    /**
+     * Marks the mutated entity dirty. Must be called while holding the write lock.
+     * @return an already completed future
+     */
+    @Override
+    public CompletableFuture<Void> submit(StorageMutation<T> mutation) {
+        dirty.remove(mutation.getId());
+        dirty.put(mutation.getId(), mutation);
+        pendingChanges.set(dirty.size() + flushing);
+
+        if (dirty.size() >= maxPendingChanges && !flusher.isShutdown()
+                && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        return ACCEPTED;
+    }
+
+    @Override
+    public void await(CompletableFuture<Void> commit) {
+        // Write-behind never makes writers wait
+    }
+
+    @Override
+    public int getPendingChanges() {
+        return pendingChanges.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * Persists every dirty entity now. The dirty set is taken under the write lock, which is
+     * then downgraded so readers can proceed while the batch is written.
+     * @throws RuntimeException if the engine fails; the changes stay dirty
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<StorageMutation<T>> batch;
+            lock.writeLock().lock();
+            try {
+                flushRequested.set(false);
+                if (dirty.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(dirty.values());
+                dirty.clear();
+                flushing = batch.size();
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            boolean written = false;
+            try {
+                engine.write(batch, current.get(), fsyncPolicy != FsyncPolicy.NONE);
+                written = true;
+            } finally {
+                lock.readLock().unlock();
+                finishFlush(batch, written);
+            }
+        }
+    }
+
+    /**
+     * Stops the background flusher and drains whatever is still dirty
+     */
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void finishFlush(List<StorageMutation<T>> batch, boolean written) {
+        lock.writeLock().lock();
+        try {
+            if (!written) {
+                // Entities changed again since the flush started keep their newer state
+                for (StorageMutation<T> mutation : batch) {
+                    dirty.putIfAbsent(mutation.getId(), mutation);
+                }
+            }
+            flushing = 0;
+            pendingChanges.set(dirty.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.softwareascraft.practice.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.softwareascraft.practice.dto.response.ImportErrorResponse;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
+import com.softwareascraft.practice.exception.InvalidRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads rows of newline-delimited JSON or CSV from a stream, validates each one and hands the
+ * valid rows on a chunk at a time, so an import of any size holds at most one chunk and one
+ * record in memory. Used once per import.
+ *
+ * CSV input starts with a header row naming the request fields. Quoted fields may hold commas,
+ * doubled quotes and line breaks, and empty fields are left unset. Each CSV row is bound
+ * through the same mapper as a JSON row, so both formats accept the same values and reject them
+ * with the same messages.
+ *
+ * A row that cannot be read, bound or validated is counted and skipped, and the first
+ * {@link #MAX_REPORTED_ERRORS} failures are reported with the line they start on. A failure to
+ * persist a chunk ends the import; chunks already handed on stay imported.
+ */
+public class BulkImport<R> {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final ObjectMapper mapper = JsonFileManager.createObjectMapper();
+
+    private final Class<R> rowType;
+    private final ObjectReader reader;
+    private final Consumer<R> validator;
+    private final Consumer<List<R>> sink;
+    private final int chunkSize;
+    private final List<ImportErrorResponse> errors = new ArrayList<>();
+    private List<R> chunk;
+    private int imported;
+    private int failed;
+
+    public BulkImport(Class<R> rowType, Consumer<R> validator, Consumer<List<R>> sink) {
+        this(rowType, validator, sink, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param rowType the request type each row is bound to
+     * @param validator checks a bound row, throwing InvalidRequestException to reject it
+     * @param sink persists a chunk of valid rows
+     * @param chunkSize the number of valid rows handed to the sink at a time
+     */
+    public BulkImport(Class<R> rowType, Consumer<R> validator, Consumer<List<R>> sink, int chunkSize) {
+        this.rowType = rowType;
+        this.reader = mapper.readerFor(rowType).with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.validator = validator;
+        this.sink = sink;
+        this.chunkSize = chunkSize;
+        this.chunk = new ArrayList<>(chunkSize);
+    }
+
+    /**
+     * Imports every row of the input; the input stream is read to the end but not closed
+     * @return the number of rows imported and failed, and the first failures
+     * @throws InvalidRequestException if a CSV header is missing a name or names an unknown field
+     * @throws IOException if the input cannot be read
+     */
+    public ImportResultResponse importFrom(InputStream in, Format format) throws IOException {
+        RecordReader records = new RecordReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        if (format == Format.CSV) {
+            importCsv(records);
+        } else {
+            importNdjson(records);
+        }
+        flush();
+
+        ImportResultResponse response = new ImportResultResponse();
+        response.setImported(imported);
+        response.setFailed(failed);
+        response.setErrors(errors);
+        return response;
+    }
+
+    private void importNdjson(RecordReader records) throws IOException {
+        String line;
+        while ((line = records.nextLine()) != null) {
+            if (records.error != null) {
+                reject(records.recordLine, records.error);
+            } else if (!line.isBlank()) {
+                bind(records.recordLine, line);
+            }
+        }
+    }
+
+    private void importCsv(RecordReader records) throws IOException {
+        List<String> header = records.nextCsvRecord();
+        if (header == null) {
+            return;
+        }
+        if (records.error != null) {
+            throw new InvalidRequestException("Invalid CSV header: " + records.error);
+        }
+        String[] columns = columns(header);
+
+        List<String> fields;
+        while ((fields = records.nextCsvRecord()) != null) {
+            int line = records.recordLine;
+            if (records.error != null) {
+                reject(line, records.error);
+            } else if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            } else if (fields.size() != columns.length) {
+                reject(line, "Expected " + columns.length + " fields but found " + fields.size());
+            } else {
+                ObjectNode row = mapper.createObjectNode();
+                for (int i = 0; i < columns.length; i++) {
+                    if (!fields.get(i).isEmpty()) {
+                        row.put(columns[i], fields.get(i));
+                    }
+                }
+                bind(line, row);
+            }
+        }
+    }
+
+    private String[] columns(List<String> header) {
+        Set<String> known = new HashSet<>();
+        for (BeanPropertyDefinition property : mapper.getDeserializationConfig()
+                .introspect(mapper.constructType(rowType)).findProperties()) {
+            known.add(property.getName());
+        }
+
+        String[] columns = new String[header.size()];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < columns.length; i++) {
+            String column = header.get(i).trim();
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            if (!known.contains(column)) {
+                throw new InvalidRequestException("Unknown CSV column: " + column);
+            }
+            if (!seen.add(column)) {
+                throw new InvalidRequestException("Duplicate CSV column: " + column);
+            }
+            columns[i] = column;
+        }
+        return columns;
+    }
+
+    private void bind(int line, String json) {
+        try {
+            accept(line, reader.readValue(json));
+        } catch (JsonProcessingException e) {
+            reject(line, describe(e));
+        }
+    }
+
+    private void bind(int line, ObjectNode fields) throws IOException {
+        try {
+            accept(line, reader.readValue(fields));
+        } catch (JsonProcessingException e) {
+            reject(line, describe(e));
+        }
+    }
+
+    private void accept(int line, R row) {
+        if (row == null) {
+            reject(line, "Row must be an object");
+            return;
+        }
+
+        try {
+            validator.accept(row);
+        } catch (InvalidRequestException e) {
+            reject(line, e.getMessage());
+            return;
+        }
+
+        chunk.add(row);
+        if (chunk.size() == chunkSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        sink.accept(chunk);
+        imported += chunk.size();
+        chunk = new ArrayList<>(chunkSize);
+    }
+
+    private void reject(int line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            ImportErrorResponse error = new ImportErrorResponse();
+            error.setLine(line);
+            error.setMessage(message);
+            errors.add(error);
+        }
+    }
+
+    /**
+     * Reduces a binding failure to its first line, naming the field it occurred on
+     */
+    private static String describe(JsonProcessingException e) {
+        String message = e.getOriginalMessage();
+        int end = message.indexOf('\n');
+        if (end >= 0) {
+            message = message.substring(0, end);
+        }
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (field != null) {
+                return field + ": " + message;
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Reads one line or CSV record at a time, tracking the line it starts on. A record longer
+     * than {@link #MAX_RECORD_LENGTH} is read to its end but not kept, and reported through
+     * {@link #error}.
+     */
+    private static final class RecordReader {
+        private final Reader in;
+        private final StringBuilder text = new StringBuilder();
+        private int line = 1;
+        private int recordLine;
+        private String error;
+
+        private RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the next line without its terminator, or null at the end of the input
+         */
+        private String nextLine() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+
+            start();
+            while (c != -1 && c != '\n') {
+                append(c);
+                c = in.read();
+            }
+            line++;
+            int length = text.length();
+            if (length > 0 && text.charAt(length - 1) == '\r') {
+                text.setLength(length - 1);
+            }
+            return text.toString();
+        }
+
+        /**
+         * @return the fields of the next record, or null at the end of the input
+         */
+        private List<String> nextCsvRecord() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+
+            start();
+            List<String> fields = new ArrayList<>();
+            int fieldStart = 0;
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        fail("Unterminated quoted field");
+                        break;
+                    }
+                    if (c == '"') {
+                        c = in.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    append(c);
+                } else if (c == -1 || c == '\n') {
+                    line++;
+                    break;
+                } else if (c == ',') {
+                    fields.add(text.substring(fieldStart));
+                    fieldStart = text.length();
+                } else if (c == '"' && text.length() == fieldStart) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    append(c);
+                }
+                c = in.read();
+            }
+            fields.add(text.substring(fieldStart));
+            return fields;
+        }
+
+        private void start() {
+            text.setLength(0);
+            recordLine = line;
+            error = null;
+        }
+
+        private void append(int c) {
+            if (text.length() < MAX_RECORD_LENGTH) {
+                text.append((char) c);
+            } else {
+                fail("Row is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+        }
+
+        private void fail(String message) {
+            if (error == null) {
+                error = message;
+            }
+        }
+    }
+}
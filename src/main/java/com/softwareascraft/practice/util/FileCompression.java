@@ -0,0 +1,160 @@
+package com.softwareascraft.practice.util;
+
+import com.softwareascraft.practice.exception.JsonFileException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Optional compression of data files with the JDK's deflate implementation.
+ *
+ * A compressed file starts with a six byte header: "TRNZ", the algorithm and the compression
+ * level it was written with. Files without the header are read as they are, so compression can
+ * be switched on or off at any time. Gzip streams can be concatenated, which is what appended
+ * files use; deflate (zlib) streams cannot.
+ */
+public final class FileCompression {
+
+    public enum Algorithm {
+        NONE,
+        DEFLATE,
+        GZIP
+    }
+
+    public static final FileCompression NONE = new FileCompression(Algorithm.NONE, 0);
+
+    private static final byte[] MAGIC = {'T', 'R', 'N', 'Z'};
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+    private final Algorithm algorithm;
+    private final int level;
+
+    private FileCompression(Algorithm algorithm, int level) {
+        this.algorithm = algorithm;
+        this.level = level;
+    }
+
+    /**
+     * @param algorithm the compression algorithm
+     * @param level the deflate level, from 1 (fastest) to 9 (smallest)
+     */
+    public static FileCompression of(Algorithm algorithm, int level) {
+        if (algorithm == Algorithm.NONE) {
+            return NONE;
+        }
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9: " + level);
+        }
+        return new FileCompression(algorithm, level);
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the compression to use for a file that is appended to
+     * @return gzip at the same level, or no compression
+     */
+    public FileCompression forAppending() {
+        return algorithm == Algorithm.DEFLATE ? new FileCompression(Algorithm.GZIP, level) : this;
+    }
+
+    /**
+     * Writes the header followed by the compressed content. The target stream is left open.
+     * @param out the stream to write to
+     * @param content writes the uncompressed content
+     */
+    public void write(OutputStream out, JsonFileManager.ContentWriter content) throws IOException {
+        if (algorithm == Algorithm.NONE) {
+            content.writeTo(out);
+            return;
+        }
+        writeHeader(out);
+        writeMember(out, content);
+    }
+
+    /**
+     * Writes compressed content without a header, for appending to a file that already has one.
+     * Only gzip members can follow each other in one file.
+     */
+    void writeMember(OutputStream out, JsonFileManager.ContentWriter content) throws IOException {
+        Deflater deflater = new Deflater(level, algorithm == Algorithm.GZIP);
+        try {
+            DeflaterOutputStream compressed = algorithm == Algorithm.GZIP
+                    ? new LevelGzipOutputStream(out, deflater)
+                    : new DeflaterOutputStream(out, deflater);
+            content.writeTo(compressed);
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(algorithm.ordinal());
+        out.write(level);
+    }
+
+    /**
+     * Reads the compression of a file from its first bytes
+     * @param header the first bytes of the file
+     * @param length the number of valid bytes in the header
+     * @return the compression the file was written with, NONE if it has no header
+     */
+    public static FileCompression detect(byte[] header, int length) {
+        if (length < HEADER_LENGTH || !Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            return NONE;
+        }
+        int algorithm = header[MAGIC.length];
+        if (algorithm <= 0 || algorithm >= Algorithm.values().length) {
+            throw new JsonFileException("Unknown compression algorithm " + algorithm);
+        }
+        return new FileCompression(Algorithm.values()[algorithm], header[MAGIC.length + 1]);
+    }
+
+    /**
+     * Wraps a stream positioned at the start of a file so that it yields the uncompressed content
+     * @param in a stream supporting mark/reset
+     * @return the decompressing stream, or the given stream if the file is not compressed
+     */
+    public static InputStream decompressing(InputStream in) throws IOException {
+        in.mark(HEADER_LENGTH);
+        byte[] header = new byte[HEADER_LENGTH];
+        int length = in.readNBytes(header, 0, HEADER_LENGTH);
+        FileCompression compression = detect(header, length);
+        if (compression.algorithm == Algorithm.NONE) {
+            in.reset();
+            return in;
+        }
+        return compression.algorithm == Algorithm.GZIP ? new GZIPInputStream(in) : new InflaterInputStream(in);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm == Algorithm.NONE ? "none" : algorithm.name().toLowerCase() + "-" + level;
+    }
+
+    /**
+     * GZIPOutputStream with a caller-supplied deflater, so the level can be chosen
+     */
+    private static class LevelGzipOutputStream extends GZIPOutputStream {
+        LevelGzipOutputStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out);
+            def.end();
+            def = deflater;
+        }
+    }
+}
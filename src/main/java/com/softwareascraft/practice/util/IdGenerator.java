@@ -24,6 +24,21 @@ public class IdGenerator {
         return nextId;
     }
 
+    /**
+     * Reserves a block of consecutive IDs for a given entity type in one step
+     * @param entityType the type of entity
+     * @param count the number of IDs to reserve
+     * @return the first ID of the block; the block runs to first + count - 1
+     */
+    public static synchronized long reserveIds(String entityType, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1");
+        }
+        long currentId = idCounters.getOrDefault(entityType, 0L);
+        idCounters.put(entityType, currentId + count);
+        return currentId + 1;
+    }
+
     /**
      * Gets the current maximum ID from a list of entities
      * @param entities list of entities with getId() method
@@ -58,6 +73,15 @@ public class IdGenerator {
         idCounters.put(entityType, maxId);
     }
 
+    /**
+     * Initializes the ID counter from a known maximum ID
+     * @param entityType the type of entity
+     * @param maxId the highest existing ID
+     */
+    public static synchronized void initializeCounter(String entityType, long maxId) {
+        idCounters.put(entityType, maxId);
+    }
+
     /**
      * Resets the ID counter for a given entity type (for testing purposes)
      * @param entityType the type of entity
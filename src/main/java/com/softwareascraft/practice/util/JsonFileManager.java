@@ -1,14 +1,35 @@
 package com.softwareascraft.practice.util;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.softwareascraft.practice.exception.JsonFileException;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class JsonFileManager {
@@ -17,11 +38,18 @@ public class JsonFileManager {
 
     private static final ObjectMapper objectMapper = createObjectMapper();
 
+    private static final ObjectWriter compactWriter = objectMapper.writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+
     private JsonFileManager() {
         throw new UnsupportedOperationException("Utility class");
     }
 
-    private static ObjectMapper createObjectMapper() {
+    /**
+     * Creates a mapper configured for the data files: Java time support and ISO-8601 dates
+     * @return a new, independently configurable mapper
+     */
+    public static ObjectMapper createObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -63,6 +91,251 @@ public class JsonFileManager {
         }
     }
 
+    /**
+     * Writes a file through a temporary file, so readers never see a partial file
+     * @param fileName the name of the file (without path)
+     * @param content writes the new file content
+     * @param sync whether to force the data to disk before the file is replaced
+     */
+    public static void replaceFile(String fileName, ContentWriter content, boolean sync) {
+        ensureDirectoryExists();
+        File file = new File(DATA_DIRECTORY + fileName);
+        File tempFile = new File(DATA_DIRECTORY + fileName + ".tmp");
+
+        try {
+            try (FileOutputStream out = new FileOutputStream(tempFile)) {
+                OutputStream buffered = new BufferedOutputStream(out);
+                content.writeTo(buffered);
+                buffered.flush();
+                if (sync) {
+                    out.getFD().sync();
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to write to file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Reads a file inside the data directory
+     * @param fileName the name of the file (without path)
+     * @param content reads the file content
+     * @return whatever the content reader returns
+     */
+    public static <R> R readFile(String fileName, ContentReader<R> content) {
+        File file = new File(DATA_DIRECTORY + fileName);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return content.readFrom(in);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to read from file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Appends records to a file, one compact JSON document per line. A compressed file gets
+     * one gzip member per append; an existing file keeps the compression it was started with.
+     * @param fileName the name of the file (without path)
+     * @param records the records to append
+     * @param sync whether to force the records to disk before returning
+     * @param compression the compression for a new file
+     */
+    public static void appendToFile(String fileName, List<?> records, boolean sync, FileCompression compression) {
+        ensureDirectoryExists();
+        File file = new File(DATA_DIRECTORY + fileName);
+        ContentWriter lines = target -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+            for (Object record : records) {
+                writer.write(compactWriter.writeValueAsString(record));
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+
+        try {
+            boolean empty = file.length() == 0;
+            FileCompression fileCompression = empty ? compression.forAppending() : readCompression(file);
+            try (FileOutputStream out = new FileOutputStream(file, true)) {
+                OutputStream buffered = new BufferedOutputStream(out);
+                if (fileCompression.getAlgorithm() == FileCompression.Algorithm.NONE) {
+                    lines.writeTo(buffered);
+                } else {
+                    if (empty) {
+                        fileCompression.writeHeader(buffered);
+                    }
+                    fileCompression.writeMember(buffered, lines);
+                }
+                buffered.flush();
+                if (sync) {
+                    out.getFD().sync();
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to append to file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Reads records written by appendToFile. A torn last line or compressed member left by an
+     * interrupted append is skipped; a damaged line anywhere else is an error.
+     * @param fileName the name of the file (without path)
+     * @param recordType the type of each record
+     * @return the records in file order, or an empty list if the file does not exist
+     */
+    public static <R> List<R> readRecordsFromFile(String fileName, JavaType recordType) {
+        return readRecordsFromFile(fileName, recordType, () -> { });
+    }
+
+    /**
+     * Reads records written by appendToFile, reporting a torn tail. The next append would land on
+     * the end of a torn line and damage the record it writes, so the caller must rewrite the
+     * file before appending to it again.
+     * @param fileName the name of the file (without path)
+     * @param recordType the type of each record
+     * @param onTornTail called once if the file ends with a torn line or compressed member
+     * @return the records in file order, or an empty list if the file does not exist
+     */
+    public static <R> List<R> readRecordsFromFile(String fileName, JavaType recordType, Runnable onTornTail) {
+        File file = new File(DATA_DIRECTORY + fileName);
+        List<R> records = new ArrayList<>();
+        if (!file.exists()) {
+            return records;
+        }
+
+        boolean torn;
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(file));
+             InputStream in = FileCompression.decompressing(raw);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            torn = in == raw && !endsWithNewline(file);
+            IOException damaged = null;
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (damaged != null) {
+                        throw damaged;
+                    }
+                    if (!line.isBlank()) {
+                        try {
+                            records.add(objectMapper.readValue(line, recordType));
+                        } catch (IOException e) {
+                            damaged = e;
+                        }
+                    }
+                }
+            } catch (EOFException e) {
+                // A compressed stream that ends early is the end of the file
+                torn = true;
+            }
+            torn |= damaged != null;
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to read from file: " + fileName, e);
+        }
+
+        if (torn) {
+            onTornTail.run();
+        }
+        return records;
+    }
+
+    private static boolean endsWithNewline(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            if (in.length() == 0) {
+                return true;
+            }
+            in.seek(in.length() - 1);
+            return in.read() == '\n';
+        }
+    }
+
+    private static FileCompression readCompression(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] header = in.readNBytes(8);
+            return FileCompression.detect(header, header.length);
+        }
+    }
+
+    /**
+     * Builds a generic record type around the element type of a list type reference,
+     * e.g. StorageMutation&lt;Locomotive&gt; from TypeReference&lt;List&lt;Locomotive&gt;&gt;
+     */
+    public static JavaType recordType(Class<?> recordClass, TypeReference<? extends List<?>> listType) {
+        return objectMapper.getTypeFactory().constructParametricType(recordClass, elementType(listType));
+    }
+
+    /**
+     * Gets the element type of a list type reference, e.g. Locomotive from TypeReference&lt;List&lt;Locomotive&gt;&gt;
+     */
+    public static JavaType elementType(TypeReference<? extends List<?>> listType) {
+        return objectMapper.getTypeFactory().constructType(listType).getContentType();
+    }
+
+    /**
+     * Resolves a file inside the data directory, creating the directory if needed
+     */
+    public static Path dataPath(String fileName) {
+        ensureDirectoryExists();
+        return new File(DATA_DIRECTORY + fileName).toPath();
+    }
+
+    /**
+     * Lists the files in the data directory whose names match a glob, e.g. "locomotives.shard-*.json"
+     * @return the matching file names, sorted
+     */
+    public static List<String> listFiles(String glob) {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataPath(""), glob)) {
+            for (Path file : files) {
+                names.add(file.getFileName().toString());
+            }
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to list files: " + glob, e);
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    public static boolean fileExists(String fileName) {
+        return new File(DATA_DIRECTORY + fileName).exists();
+    }
+
+    /**
+     * Renames a file inside the data directory, replacing the target if it exists
+     */
+    public static void moveFile(String fromFileName, String toFileName) {
+        try {
+            Files.move(new File(DATA_DIRECTORY + fromFileName).toPath(),
+                    new File(DATA_DIRECTORY + toFileName).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to move file: " + fromFileName, e);
+        }
+    }
+
+    public static void deleteFile(String fileName) {
+        try {
+            Files.deleteIfExists(new File(DATA_DIRECTORY + fileName).toPath());
+        } catch (IOException e) {
+            throw new JsonFileException("Failed to delete file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Writes the content of a data file
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads the content of a data file
+     */
+    @FunctionalInterface
+    public interface ContentReader<R> {
+        R readFrom(InputStream in) throws IOException;
+    }
+
     /**
      * Ensures the data directory exists
      */
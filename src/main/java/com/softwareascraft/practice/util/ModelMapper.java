@@ -1,16 +1,27 @@
 package com.softwareascraft.practice.util;
 
 import com.softwareascraft.practice.dto.request.*;
+import com.softwareascraft.practice.dto.response.FuzzyMatchResponse;
 import com.softwareascraft.practice.dto.response.LocomotiveResponse;
 import com.softwareascraft.practice.dto.response.MaintenanceLogResponse;
 import com.softwareascraft.practice.dto.response.RollingStockResponse;
+import com.softwareascraft.practice.dto.response.SearchResultsResponse;
+import com.softwareascraft.practice.dto.response.SuggestionResponse;
+import com.softwareascraft.practice.index.FuzzyIndex;
+import com.softwareascraft.practice.index.PrefixIndex;
+import com.softwareascraft.practice.model.BaseInventoryItem;
 import com.softwareascraft.practice.model.Locomotive;
 import com.softwareascraft.practice.model.MaintenanceLog;
 import com.softwareascraft.practice.model.RollingStock;
+import com.softwareascraft.practice.repository.InventoryQuery;
+import com.softwareascraft.practice.repository.PageResult;
+import com.softwareascraft.practice.repository.QueryResult;
+import com.softwareascraft.practice.repository.SearchResult;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ModelMapper {
@@ -58,6 +69,19 @@ public class ModelMapper {
         locomotive.setLastModifiedDate(LocalDateTime.now());
     }
 
+    /**
+     * Copies a locomotive, so a change can be made to the copy and handed back to the repository
+     * whole, without touching the instance other readers share
+     */
+    public static Locomotive copyLocomotive(Locomotive locomotive) {
+        Locomotive copy = new Locomotive();
+        copyInventoryItem(locomotive, copy);
+        copy.setLocomotiveType(locomotive.getLocomotiveType());
+        copy.setPowerType(locomotive.getPowerType());
+        copy.setRoadNumber(locomotive.getRoadNumber());
+        return copy;
+    }
+
     public static LocomotiveResponse toLocomotiveResponse(Locomotive locomotive) {
         LocomotiveResponse response = new LocomotiveResponse();
         response.setId(locomotive.getId());
@@ -128,6 +152,20 @@ public class ModelMapper {
         rollingStock.setLastModifiedDate(LocalDateTime.now());
     }
 
+    /**
+     * Copies a rolling stock item, so a change can be made to the copy and handed back to the
+     * repository whole, without touching the instance other readers share
+     */
+    public static RollingStock copyRollingStock(RollingStock rollingStock) {
+        RollingStock copy = new RollingStock();
+        copyInventoryItem(rollingStock, copy);
+        copy.setAarType(rollingStock.getAarType());
+        copy.setCarType(rollingStock.getCarType());
+        copy.setRoadNumber(rollingStock.getRoadNumber());
+        copy.setCapacity(rollingStock.getCapacity());
+        return copy;
+    }
+
     public static RollingStockResponse toRollingStockResponse(RollingStock rollingStock) {
         RollingStockResponse response = new RollingStockResponse();
         response.setId(rollingStock.getId());
@@ -189,4 +227,100 @@ public class ModelMapper {
                 .map(ModelMapper::toMaintenanceLogResponse)
                 .collect(Collectors.toList());
     }
+
+    // Query mappings
+
+    public static InventoryQuery toInventoryQuery(InventoryQueryRequest request) {
+        InventoryQuery query = new InventoryQuery();
+        query.setScale(request.getScale());
+        query.setMaintenanceStatus(request.getMaintenanceStatus());
+        query.setAarType(request.getAarType());
+        query.setLocomotiveType(request.getLocomotiveType());
+        query.setPowerType(request.getPowerType());
+        query.setManufacturer(request.getManufacturer());
+        query.setRoadName(request.getRoadName());
+        query.setMinPurchasePrice(request.getMinPurchasePrice());
+        query.setMaxPurchasePrice(request.getMaxPurchasePrice());
+        query.setMinCurrentValue(request.getMinCurrentValue());
+        query.setMaxCurrentValue(request.getMaxCurrentValue());
+        query.setPurchasedFrom(request.getPurchasedFrom());
+        query.setPurchasedTo(request.getPurchasedTo());
+        return query;
+    }
+
+    public static <T, R> SearchResultsResponse<R> toSearchResultsResponse(QueryResult<T> result,
+                                                                           Function<T, R> mapper) {
+        SearchResultsResponse<R> response = new SearchResultsResponse<>();
+        response.setResults(result.getResults().stream()
+                .map(mapper)
+                .collect(Collectors.toList()));
+        response.setTotalResults((long) result.getResults().size());
+        response.setQueryPlan(result.getPlan());
+        return response;
+    }
+
+    public static <T, R> SearchResultsResponse<R> toSearchResultsResponse(SearchResult<T> result,
+                                                                           Function<T, R> mapper,
+                                                                           int limit) {
+        SearchResultsResponse<R> response = new SearchResultsResponse<>();
+        response.setResults(result.getResults().stream()
+                .map(mapper)
+                .collect(Collectors.toList()));
+        response.setTotalResults(result.getTotalHits());
+        response.setPageSize(limit);
+        return response;
+    }
+
+    public static <T, R> SearchResultsResponse<R> toSearchResultsResponse(PageResult<T> page,
+                                                                           Function<T, R> mapper,
+                                                                           int limit) {
+        SearchResultsResponse<R> response = new SearchResultsResponse<>();
+        response.setResults(page.getResults().stream()
+                .map(mapper)
+                .collect(Collectors.toList()));
+        response.setTotalResults(page.getTotalResults());
+        response.setPageSize(limit);
+        response.setNextCursor(page.getNext() == null ? null : page.getNext().encode());
+        return response;
+    }
+
+    public static List<SuggestionResponse> toSuggestionResponseList(List<PrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream()
+                .map(suggestion -> {
+                    SuggestionResponse response = new SuggestionResponse();
+                    response.setValue(suggestion.getValue());
+                    response.setCount(suggestion.getCount());
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    public static List<FuzzyMatchResponse> toFuzzyMatchResponseList(List<FuzzyIndex.Match> matches) {
+        return matches.stream()
+                .map(match -> {
+                    FuzzyMatchResponse response = new FuzzyMatchResponse();
+                    response.setValue(match.getValue());
+                    response.setSimilarity(match.getSimilarity());
+                    response.setCount(match.getCount());
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static void copyInventoryItem(BaseInventoryItem from, BaseInventoryItem to) {
+        to.setId(from.getId());
+        to.setManufacturer(from.getManufacturer());
+        to.setModelNumber(from.getModelNumber());
+        to.setScale(from.getScale());
+        to.setRoadName(from.getRoadName());
+        to.setColor(from.getColor());
+        to.setDescription(from.getDescription());
+        to.setPurchasePrice(from.getPurchasePrice());
+        to.setPurchaseDate(from.getPurchaseDate());
+        to.setCurrentValue(from.getCurrentValue());
+        to.setNotes(from.getNotes());
+        to.setCreatedDate(from.getCreatedDate());
+        to.setLastModifiedDate(from.getLastModifiedDate());
+        to.setMaintenanceStatus(from.getMaintenanceStatus());
+    }
 }
@@ -0,0 +1,62 @@
+package com.softwareascraft.practice.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.softwareascraft.practice.repository.BatchStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes the entities of a {@link BatchStream} as newline-delimited JSON, one compact object per
+ * line, mapping each entity as it is written.
+ *
+ * Only one batch of entities and its mapped form is held at a time. Output is flushed after
+ * every batch, and the next batch is not resolved until the previous one has been written, so a
+ * slow client throttles the export through the blocking output stream instead of letting it
+ * buffer.
+ */
+public class NdjsonExport<T> {
+
+    private static final int BATCH_SIZE = 500;
+    private static final ObjectWriter writer = JsonFileManager.createObjectMapper().writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .withRootValueSeparator("");
+
+    private final BatchStream<T> source;
+    private final Function<T, ?> mapper;
+
+    public NdjsonExport(BatchStream<T> source, Function<T, ?> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Writes every entity of the stream; the output stream is flushed but not closed
+     * @throws IOException if the client goes away or the output cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            source.forEachBatch(BATCH_SIZE, batch -> writeBatch(generator, batch));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeBatch(JsonGenerator generator, List<T> batch) {
+        try {
+            for (T entity : batch) {
+                writer.writeValue(generator, mapper.apply(entity));
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.softwareascraft.practice.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.softwareascraft.practice.dto.request.CreateLocomotiveRequest;
+import com.softwareascraft.practice.dto.request.InventoryQueryRequest;
 import com.softwareascraft.practice.dto.request.UpdateLocomotiveRequest;
+import com.softwareascraft.practice.enums.AARType;
 import com.softwareascraft.practice.enums.LocomotiveType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.PowerType;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.repository.EntityStore;
 import com.softwareascraft.practice.util.IdGenerator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,13 +20,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.File;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -51,6 +59,7 @@ class LocomotiveControllerTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("locomotive");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -162,6 +171,184 @@ class LocomotiveControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testQueryLocomotives() throws Exception {
+        CreateLocomotiveRequest match = createLocomotiveRequest();
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(match)));
+        CreateLocomotiveRequest other = createLocomotiveRequest();
+        other.setScale(Scale.N);
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(other)));
+
+        InventoryQueryRequest query = new InventoryQueryRequest();
+        query.setScale(Scale.HO);
+        query.setManufacturer("athearn");
+        query.setMaxPurchasePrice(new BigDecimal("200.00"));
+
+        mockMvc.perform(post("/api/locomotives/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(query)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalResults").value(1))
+                .andExpect(jsonPath("$.results[0].scale").value("HO"))
+                .andExpect(jsonPath("$.queryPlan[0]").value("index scale = HO (1)"));
+    }
+
+    @Test
+    void testQueryLocomotives_RejectsRollingStockCriteria() throws Exception {
+        InventoryQueryRequest query = new InventoryQueryRequest();
+        query.setAarType(AARType.TA);
+
+        mockMvc.perform(post("/api/locomotives/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(query)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetMostValuableLocomotives() throws Exception {
+        for (String value : new String[]{"150.00", "420.00", "275.50"}) {
+            CreateLocomotiveRequest request = createLocomotiveRequest();
+            request.setCurrentValue(new BigDecimal(value));
+            mockMvc.perform(post("/api/locomotives")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)));
+        }
+
+        mockMvc.perform(get("/api/locomotives/most-valuable").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].currentValue").value(420.00))
+                .andExpect(jsonPath("$[1].currentValue").value(275.50));
+
+        mockMvc.perform(get("/api/locomotives/most-valuable").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetLocomotivesPage_FollowsCursorToLastPage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/locomotives")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createLocomotiveRequest())));
+        }
+
+        String firstPage = mockMvc.perform(get("/api/locomotives/page").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].id").value(1))
+                .andExpect(jsonPath("$.totalResults").value(3))
+                .andExpect(jsonPath("$.pageSize").value(2))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/locomotives/page").param("cursor", cursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/locomotives/page").param("sort", "color"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportLocomotives_StreamsFilteredNdjson() throws Exception {
+        for (Scale scale : new Scale[]{Scale.HO, Scale.N, Scale.HO}) {
+            CreateLocomotiveRequest request = createLocomotiveRequest();
+            request.setScale(scale);
+            mockMvc.perform(post("/api/locomotives")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)));
+        }
+
+        MvcResult export = mockMvc.perform(get("/api/locomotives/export").param("scale", "HO"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(3, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testGetAllLocomotives_NotModifiedUntilCollectionChanges() throws Exception {
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createLocomotiveRequest())));
+
+        String etag = mockMvc.perform(get("/api/locomotives"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/locomotives").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/locomotives/1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createLocomotiveRequest())));
+
+        mockMvc.perform(get("/api/locomotives").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testGetLocomotiveById_NotModifiedUntilDeleted() throws Exception {
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createLocomotiveRequest())));
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createLocomotiveRequest())));
+
+        String etag = mockMvc.perform(get("/api/locomotives/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(delete("/api/locomotives/2"));
+
+        mockMvc.perform(get("/api/locomotives/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/locomotives/1"));
+
+        mockMvc.perform(get("/api/locomotives/1").header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetLocomotiveById_MissingItemIgnoresIfNoneMatch() throws Exception {
+        mockMvc.perform(post("/api/locomotives")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createLocomotiveRequest())));
+        EntityStore.resetStore(TEST_FILE);
+
+        String etag = mockMvc.perform(get("/api/locomotives/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/locomotives/999").header("If-None-Match", etag))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
     private CreateLocomotiveRequest createLocomotiveRequest() {
         CreateLocomotiveRequest request = new CreateLocomotiveRequest();
         request.setManufacturer("Athearn");
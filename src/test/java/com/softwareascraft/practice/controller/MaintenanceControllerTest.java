@@ -9,6 +9,7 @@ import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.PowerType;
 import com.softwareascraft.practice.enums.Scale;
 import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
 import com.softwareascraft.practice.repository.LocomotiveRepository;
 import com.softwareascraft.practice.util.IdGenerator;
 import org.junit.jupiter.api.AfterEach;
@@ -56,6 +57,9 @@ class MaintenanceControllerTest {
         IdGenerator.resetIdCounter("locomotive");
         IdGenerator.resetIdCounter("rolling_stock");
         IdGenerator.resetIdCounter("maintenance_log");
+        EntityStore.resetStore("locomotives.json");
+        EntityStore.resetStore("rolling-stock.json");
+        EntityStore.resetStore("maintenance-logs.json");
     }
 
     @Test
@@ -145,6 +149,60 @@ class MaintenanceControllerTest {
                 .andExpect(jsonPath("$.length()").value(3));
     }
 
+    @Test
+    void testSearchMaintenanceLogs() throws Exception {
+        Locomotive saved = locomotiveRepository.save(createTestLocomotive());
+
+        for (String work : new String[]{"Replaced gearbox", "Cleaned wheels", "Shimmed gearbox"}) {
+            CreateMaintenanceLogRequest request = new CreateMaintenanceLogRequest();
+            request.setInventoryItemId(saved.getId());
+            request.setMaintenanceDate(LocalDate.now());
+            request.setDescription("Service");
+            request.setWorkPerformed(work);
+            request.setPerformedBy("Owner");
+
+            mockMvc.perform(post("/api/maintenance")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)));
+        }
+
+        mockMvc.perform(get("/api/maintenance/search").param("q", "GEARBOX").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalResults").value(2))
+                .andExpect(jsonPath("$.results.length()").value(1));
+
+        mockMvc.perform(get("/api/maintenance/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testApplyMaintenanceLogBatch() throws Exception {
+        Locomotive saved = locomotiveRepository.save(createTestLocomotive());
+        String log = "{\"inventoryItemId\": %d, \"maintenanceDate\": \"2024-03-01\", \"description\": \"%s\"}";
+        String batch = "{\"atomic\": %s, \"operations\": [{\"op\": \"create\", \"data\": " + log + "},"
+                + " {\"op\": \"create\", \"data\": " + log + "}]}";
+
+        mockMvc.perform(post("/api/maintenance/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(batch, "true", saved.getId(), "Lubrication", 999L, "Missing item")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(0))
+                .andExpect(jsonPath("$.results[0].status").value(424))
+                .andExpect(jsonPath("$.results[1].status").value(404));
+
+        mockMvc.perform(post("/api/maintenance/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format(batch, "false", saved.getId(), "Lubrication", saved.getId(), "Wheels")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.results[1].status").value(201))
+                .andExpect(jsonPath("$.results[1].item.description").value("Wheels"));
+
+        mockMvc.perform(get("/api/maintenance/item/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     void testUpdateMaintenanceStatus() throws Exception {
         Locomotive locomotive = createTestLocomotive();
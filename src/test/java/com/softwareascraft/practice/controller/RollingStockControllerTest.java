@@ -7,6 +7,7 @@ import com.softwareascraft.practice.dto.request.UpdateRollingStockRequest;
 import com.softwareascraft.practice.enums.AARType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.repository.EntityStore;
 import com.softwareascraft.practice.util.IdGenerator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -50,6 +51,7 @@ class RollingStockControllerTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("rolling_stock");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -106,6 +108,76 @@ class RollingStockControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void testSuggestRollingStock() throws Exception {
+        for (String manufacturer : new String[]{"Walthers", "Walthers", "Wabtec"}) {
+            CreateRollingStockRequest request = createRollingStockRequest();
+            request.setManufacturer(manufacturer);
+            mockMvc.perform(post("/api/rolling-stock")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)));
+        }
+
+        mockMvc.perform(get("/api/rolling-stock/suggest")
+                        .param("field", "manufacturer")
+                        .param("prefix", "wa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].value").value("Walthers"))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[1].value").value("Wabtec"));
+
+        mockMvc.perform(get("/api/rolling-stock/suggest").param("field", "color"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFuzzyMatchRollingStock() throws Exception {
+        for (String manufacturer : new String[]{"Walthers", "Walthers Inc.", "Kato"}) {
+            CreateRollingStockRequest request = createRollingStockRequest();
+            request.setManufacturer(manufacturer);
+            mockMvc.perform(post("/api/rolling-stock")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)));
+        }
+
+        mockMvc.perform(get("/api/rolling-stock/fuzzy")
+                        .param("field", "manufacturer")
+                        .param("q", "Walters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].value").value("Walthers"))
+                .andExpect(jsonPath("$[1].value").value("Walthers Inc."));
+
+        mockMvc.perform(get("/api/rolling-stock/fuzzy").param("field", "color").param("q", "red"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testImportRollingStock() throws Exception {
+        String csv = "manufacturer,modelNumber,scale,roadName\n"
+                + "Walthers,910-1,HO,Milwaukee Road\n"
+                + "Kato,106-1,N\n"
+                + "Atlas,20-1,N,\"Chicago, Burlington & Quincy\"\n";
+
+        mockMvc.perform(post("/api/rolling-stock/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        mockMvc.perform(post("/api/rolling-stock/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"manufacturer\": \"Kato\", \"modelNumber\": \"106-1\", \"scale\": \"N\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(get("/api/rolling-stock/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.manufacturer").value("Kato"));
+    }
+
     @Test
     void testUpdateRollingStock() throws Exception {
         CreateRollingStockRequest createRequest = createRollingStockRequest();
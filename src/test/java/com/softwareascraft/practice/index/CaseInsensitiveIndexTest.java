@@ -0,0 +1,73 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.Locomotive;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaseInsensitiveIndexTest {
+
+    @Test
+    void testMatching_IgnoresCase() {
+        CaseInsensitiveIndex<Locomotive> index = new CaseInsensitiveIndex<>(Locomotive::getRoadName);
+        index.put(1L, createLocomotive("Union Pacific"));
+        index.put(2L, createLocomotive("UNION PACIFIC"));
+        index.put(3L, createLocomotive("BNSF"));
+
+        BitSet ids = index.matching("union pacific");
+
+        assertEquals(2, ids.cardinality());
+        assertTrue(ids.get(1) && ids.get(2));
+    }
+
+    @Test
+    void testPut_ReindexesChangedValueAndSkipsNull() {
+        CaseInsensitiveIndex<Locomotive> index = new CaseInsensitiveIndex<>(Locomotive::getRoadName);
+        Locomotive locomotive = createLocomotive("Santa Fe");
+        index.put(1L, locomotive);
+
+        locomotive.setRoadName("Conrail");
+        index.put(1L, locomotive);
+        assertEquals(0, index.count("Santa Fe"));
+        assertEquals(1, index.count("conrail"));
+
+        locomotive.setRoadName(null);
+        index.put(1L, locomotive);
+        assertEquals(0, index.count("Conrail"));
+        assertTrue(index.matching(null).isEmpty());
+    }
+
+    @Test
+    void testRemove_UnlinksId() {
+        CaseInsensitiveIndex<Locomotive> index = new CaseInsensitiveIndex<>(Locomotive::getRoadName);
+        index.put(1L, createLocomotive("CSX"));
+
+        index.remove(1L);
+        index.remove(2L);
+
+        assertTrue(index.matching("csx").isEmpty());
+    }
+
+    @Test
+    void testIds_AscendingWhateverTheIndexingOrder() {
+        CaseInsensitiveIndex<Locomotive> index = new CaseInsensitiveIndex<>(Locomotive::getRoadName);
+        for (long id : new long[]{7, 3, 9, 1, 5, 12}) {
+            index.put(id, createLocomotive("Union Pacific"));
+        }
+        index.put(100L, createLocomotive("BNSF"));
+
+        index.remove(9L);
+
+        assertArrayEquals(new long[]{1, 3, 5, 7, 12}, index.ids("union pacific"));
+        assertEquals(5, index.count("UNION PACIFIC"));
+        assertArrayEquals(new long[0], index.ids("Conrail"));
+    }
+
+    private Locomotive createLocomotive(String roadName) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setRoadName(roadName);
+        return locomotive;
+    }
+}
@@ -0,0 +1,56 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.MaintenanceLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateRangeIndexTest {
+
+    @Test
+    void testBetween_AscendingAndDescending() {
+        DateRangeIndex<MaintenanceLog> index = new DateRangeIndex<>(MaintenanceLog::getMaintenanceDate);
+        index.put(1L, createLog(LocalDate.of(2024, 3, 1)));
+        index.put(2L, createLog(LocalDate.of(2024, 1, 1)));
+        index.put(3L, createLog(LocalDate.of(2024, 2, 1)));
+        index.put(4L, createLog(LocalDate.of(2024, 2, 1)));
+        index.put(5L, createLog(LocalDate.of(2025, 1, 1)));
+
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 3, 1);
+
+        assertArrayEquals(new long[]{2L, 3L, 4L, 1L}, index.between(start, end, false));
+        assertArrayEquals(new long[]{1L, 3L, 4L, 2L}, index.between(start, end, true));
+        assertArrayEquals(new long[]{5L}, index.between(LocalDate.of(2024, 3, 2), null, false));
+    }
+
+    @Test
+    void testCount_FollowsPutAndRemove() {
+        DateRangeIndex<MaintenanceLog> index = new DateRangeIndex<>(MaintenanceLog::getMaintenanceDate);
+        MaintenanceLog log = createLog(LocalDate.of(2024, 4, 10));
+        index.put(1L, log);
+        index.put(2L, createLog(LocalDate.of(2024, 5, 10)));
+        index.put(3L, createLog(null));
+
+        LocalDate quarterStart = LocalDate.of(2024, 4, 1);
+        LocalDate quarterEnd = LocalDate.of(2024, 6, 30);
+        assertEquals(2, index.count(quarterStart, quarterEnd));
+
+        log.setMaintenanceDate(LocalDate.of(2024, 7, 1));
+        index.put(1L, log);
+        assertEquals(1, index.count(quarterStart, quarterEnd));
+
+        index.remove(2L);
+        assertEquals(0, index.count(quarterStart, quarterEnd));
+        assertEquals(1, index.count(null, null));
+    }
+
+    private MaintenanceLog createLog(LocalDate date) {
+        MaintenanceLog log = new MaintenanceLog();
+        log.setInventoryItemId(1L);
+        log.setMaintenanceDate(date);
+        return log;
+    }
+}
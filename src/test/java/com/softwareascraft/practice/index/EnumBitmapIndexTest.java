@@ -0,0 +1,63 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.model.Locomotive;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumBitmapIndexTest {
+
+    @Test
+    void testPut_MovesIdBetweenBitmaps() {
+        EnumBitmapIndex<Locomotive, Scale> index = new EnumBitmapIndex<>(Scale.class, Locomotive::getScale);
+        Locomotive locomotive = createLocomotive(Scale.HO, MaintenanceStatus.OPERATIONAL);
+        index.put(1L, locomotive);
+
+        locomotive.setScale(Scale.N);
+        index.put(1L, locomotive);
+
+        assertEquals(0, index.count(Scale.HO));
+        assertTrue(index.matching(Scale.N).get(1));
+    }
+
+    @Test
+    void testMatching_NullSelectsEntitiesWithoutValue() {
+        EnumBitmapIndex<Locomotive, Scale> index = new EnumBitmapIndex<>(Scale.class, Locomotive::getScale);
+        index.put(1L, createLocomotive(null, MaintenanceStatus.OPERATIONAL));
+        index.put(2L, createLocomotive(Scale.HO, MaintenanceStatus.OPERATIONAL));
+
+        assertEquals(BitSet.valueOf(new long[]{0b10}), index.matching(null));
+    }
+
+    @Test
+    void testMatching_IntersectsAcrossIndexes() {
+        EnumBitmapIndex<Locomotive, Scale> scales = new EnumBitmapIndex<>(Scale.class, Locomotive::getScale);
+        EnumBitmapIndex<Locomotive, MaintenanceStatus> statuses =
+                new EnumBitmapIndex<>(MaintenanceStatus.class, Locomotive::getMaintenanceStatus);
+        for (long id = 1; id <= 100; id++) {
+            Locomotive locomotive = createLocomotive(id % 2 == 0 ? Scale.HO : Scale.N,
+                    id % 5 == 0 ? MaintenanceStatus.NEEDS_MAINTENANCE : MaintenanceStatus.OPERATIONAL);
+            scales.put(id, locomotive);
+            statuses.put(id, locomotive);
+        }
+        scales.remove(10L);
+
+        BitSet ids = scales.matching(Scale.HO);
+        ids.and(statuses.matching(MaintenanceStatus.NEEDS_MAINTENANCE));
+
+        assertEquals(9, ids.cardinality());
+        assertFalse(ids.get(10));
+        assertEquals(50, scales.count(Scale.HO) + 1);
+    }
+
+    private Locomotive createLocomotive(Scale scale, MaintenanceStatus status) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setScale(scale);
+        locomotive.setMaintenanceStatus(status);
+        return locomotive;
+    }
+}
@@ -0,0 +1,71 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.Locomotive;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyIndexTest {
+
+    @Test
+    void testMatch_RanksVariantsBySimilarity() {
+        FuzzyIndex<Locomotive> index = new FuzzyIndex<>(Locomotive::getManufacturer);
+        index.put(1L, createLocomotive("Athearn"));
+        index.put(2L, createLocomotive("athearn inc"));
+        index.put(3L, createLocomotive("Athern"));
+        index.put(4L, createLocomotive("ATHEARN"));
+        index.put(5L, createLocomotive("Kato"));
+
+        List<FuzzyIndex.Match> matches = index.match("Athearn", 10);
+
+        assertEquals(List.of("Athearn", "athearn inc", "Athern"),
+                matches.stream().map(FuzzyIndex.Match::getValue).toList());
+        assertEquals(1.0, matches.get(0).getSimilarity());
+        assertEquals(2, matches.get(0).getCount());
+        assertEquals(0.5, matches.get(2).getSimilarity());
+    }
+
+    @Test
+    void testMatch_FollowsPutAndRemove() {
+        FuzzyIndex<Locomotive> index = new FuzzyIndex<>(Locomotive::getManufacturer);
+        Locomotive locomotive = createLocomotive("Walthers");
+        index.put(1L, locomotive);
+        index.put(2L, createLocomotive("Bachmann"));
+
+        locomotive.setManufacturer("Rapido Trains");
+        index.put(1L, locomotive);
+        assertTrue(index.match("walthers", 5).isEmpty());
+        assertEquals("Rapido Trains", index.match("rapido", 5).get(0).getValue());
+
+        index.remove(2L);
+        assertTrue(index.match("bachman", 5).isEmpty());
+    }
+
+    @Test
+    void testMatch_RepeatedAcrossIndexesStartsFromZero() {
+        FuzzyIndex<Locomotive> manufacturers = new FuzzyIndex<>(Locomotive::getManufacturer);
+        manufacturers.put(1L, createLocomotive("Athearn"));
+        manufacturers.put(2L, createLocomotive("Athern"));
+        FuzzyIndex<Locomotive> roadNames = new FuzzyIndex<>(Locomotive::getManufacturer);
+        roadNames.put(1L, createLocomotive("Atlantic Coast Line"));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0.5, manufacturers.match("Athearn", 5).get(1).getSimilarity());
+            assertTrue(roadNames.match("Athearn", 5).isEmpty());
+        }
+    }
+
+    @Test
+    void testNormalize_KeepsOnlyWords() {
+        assertEquals("athearn inc", FuzzyIndex.normalize(" Athearn, Inc. "));
+        assertNull(FuzzyIndex.normalize("--"));
+    }
+
+    private Locomotive createLocomotive(String manufacturer) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setManufacturer(manufacturer);
+        return locomotive;
+    }
+}
@@ -0,0 +1,61 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.MaintenanceLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupedDateIndexTest {
+
+    @Test
+    void testLatest_NewestFirstWithSameDayInIdOrder() {
+        GroupedDateIndex<MaintenanceLog> index = createIndex();
+        index.put(1L, createLog(7L, LocalDate.of(2024, 1, 1)));
+        index.put(2L, createLog(7L, LocalDate.of(2024, 5, 1)));
+        index.put(3L, createLog(7L, LocalDate.of(2024, 5, 1)));
+        index.put(4L, createLog(8L, LocalDate.of(2025, 1, 1)));
+
+        assertArrayEquals(new long[]{2L, 3L, 1L}, index.latest(7L, 10));
+        assertArrayEquals(new long[]{2L}, index.latest(7L, 1));
+        assertEquals(0, index.latest(9L, 5).length);
+    }
+
+    @Test
+    void testPut_MovesEntryBetweenGroups() {
+        GroupedDateIndex<MaintenanceLog> index = createIndex();
+        MaintenanceLog log = createLog(7L, LocalDate.of(2024, 1, 1));
+        index.put(1L, log);
+
+        log.setInventoryItemId(8L);
+        index.put(1L, log);
+
+        assertEquals(0, index.count(7L));
+        assertTrue(index.matching(8L).get(1));
+    }
+
+    @Test
+    void testRemove_UndatedEntriesSortOldest() {
+        GroupedDateIndex<MaintenanceLog> index = createIndex();
+        index.put(1L, createLog(7L, null));
+        index.put(2L, createLog(7L, LocalDate.of(1900, 1, 1)));
+        index.put(3L, createLog(7L, LocalDate.of(2024, 1, 1)));
+
+        assertArrayEquals(new long[]{3L, 2L, 1L}, index.latest(7L, 3));
+
+        index.remove(3L);
+        assertArrayEquals(new long[]{2L, 1L}, index.latest(7L, 3));
+    }
+
+    private GroupedDateIndex<MaintenanceLog> createIndex() {
+        return new GroupedDateIndex<>(MaintenanceLog::getInventoryItemId, MaintenanceLog::getMaintenanceDate);
+    }
+
+    private MaintenanceLog createLog(Long itemId, LocalDate date) {
+        MaintenanceLog log = new MaintenanceLog();
+        log.setInventoryItemId(itemId);
+        log.setMaintenanceDate(date);
+        return log;
+    }
+}
@@ -0,0 +1,41 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.Locomotive;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdIndexTest {
+
+    @Test
+    void testAfter_ResumesInBothDirections() {
+        IdIndex<Locomotive> index = new IdIndex<>();
+        for (long id = 1; id <= 6; id++) {
+            index.put(id, new Locomotive());
+        }
+        index.remove(4L);
+
+        assertArrayEquals(new long[]{1L, 2L}, index.after(Long.MIN_VALUE, Long.MIN_VALUE, 2, false));
+        assertArrayEquals(new long[]{3L, 5L, 6L}, index.after(2L, 2L, 10, false));
+        assertArrayEquals(new long[]{6L, 5L, 3L}, index.after(Long.MAX_VALUE, Long.MAX_VALUE, 3, true));
+        assertArrayEquals(new long[]{2L, 1L}, index.after(3L, 3L, 3, true));
+        assertEquals(0, index.after(1L, 1L, 3, true).length);
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void testSize_CountsReindexedAndMissingIdsOnce() {
+        IdIndex<Locomotive> index = new IdIndex<>();
+        index.put(1L, new Locomotive());
+        index.put(1L, new Locomotive());
+        index.put(2L, new Locomotive());
+
+        index.remove(2L);
+        index.remove(2L);
+        index.remove(3L);
+        assertEquals(1, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+    }
+}
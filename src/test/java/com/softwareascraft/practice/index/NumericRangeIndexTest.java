@@ -0,0 +1,68 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.RollingStock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericRangeIndexTest {
+
+    @Test
+    void testBetween_AscendingAndDescending() {
+        NumericRangeIndex<RollingStock> index = new NumericRangeIndex<>(RollingStock::getCurrentValue, 2);
+        index.put(1L, createRollingStock("45.00"));
+        index.put(2L, createRollingStock("12.50"));
+        index.put(3L, createRollingStock("30.00"));
+        index.put(4L, createRollingStock("30.0"));
+        index.put(5L, createRollingStock("99.99"));
+        index.put(6L, createRollingStock(null));
+
+        BigDecimal min = new BigDecimal("12.50");
+        BigDecimal max = new BigDecimal("45");
+
+        assertArrayEquals(new long[]{2L, 3L, 4L, 1L}, index.between(min, max, false));
+        assertArrayEquals(new long[]{1L, 3L, 4L, 2L}, index.between(min, max, true));
+        assertArrayEquals(new long[]{5L}, index.between(new BigDecimal("45.01"), null, false));
+        assertEquals(0, index.between(max, min, false).length);
+    }
+
+    @Test
+    void testBetween_ComparesExactValueAtBounds() {
+        NumericRangeIndex<RollingStock> index = new NumericRangeIndex<>(RollingStock::getCurrentValue, 2);
+        index.put(1L, createRollingStock("10.004"));
+        index.put(2L, createRollingStock("10.006"));
+        index.put(3L, createRollingStock("1E+30"));
+
+        assertArrayEquals(new long[]{2L}, index.between(new BigDecimal("10.005"), new BigDecimal("10.009"), false));
+        assertEquals(1, index.count(null, new BigDecimal("10.005")));
+        assertArrayEquals(new long[]{3L}, index.between(new BigDecimal("1E+29"), null, false));
+        assertEquals(2, index.matching(null, new BigDecimal("10.01")).cardinality());
+    }
+
+    @Test
+    void testHighest_FollowsPutAndRemove() {
+        NumericRangeIndex<RollingStock> index = new NumericRangeIndex<>(RollingStock::getCurrentValue, 2);
+        RollingStock boxcar = createRollingStock("20.00");
+        index.put(1L, boxcar);
+        index.put(2L, createRollingStock("35.00"));
+        index.put(3L, createRollingStock("50.00"));
+
+        assertArrayEquals(new long[]{3L, 2L}, index.highest(2));
+
+        boxcar.setCurrentValue(new BigDecimal("75.00"));
+        index.put(1L, boxcar);
+        assertArrayEquals(new long[]{1L, 3L}, index.highest(2));
+
+        index.remove(3L);
+        assertArrayEquals(new long[]{1L, 2L}, index.highest(5));
+        assertEquals(0, index.count(new BigDecimal("40.00"), new BigDecimal("60.00")));
+    }
+
+    private RollingStock createRollingStock(String value) {
+        RollingStock rollingStock = new RollingStock();
+        rollingStock.setCurrentValue(value == null ? null : new BigDecimal(value));
+        return rollingStock;
+    }
+}
@@ -0,0 +1,73 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.Locomotive;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    @Test
+    void testSuggest_RanksByFrequencyThenAlphabetically() {
+        PrefixIndex<Locomotive> index = new PrefixIndex<>(Locomotive::getManufacturer);
+        long id = 1;
+        for (String manufacturer : new String[]{"Atlas", "Athearn", "athearn", "Accurail", "Atlas", "Athearn", "Bachmann"}) {
+            index.put(id++, createLocomotive(manufacturer));
+        }
+
+        List<PrefixIndex.Suggestion> suggestions = index.suggest("A", 10);
+
+        assertEquals(List.of("Athearn", "Atlas", "Accurail"), values(suggestions));
+        assertEquals(3, suggestions.get(0).getCount());
+        assertEquals(List.of("Athearn", "Atlas"), values(index.suggest("at", 2)));
+        assertTrue(index.suggest("Z", 5).isEmpty());
+    }
+
+    @Test
+    void testSuggest_PrefixThatIsItselfAValue() {
+        PrefixIndex<Locomotive> index = new PrefixIndex<>(Locomotive::getModelNumber);
+        index.put(1L, createModel("RTR-1"));
+        index.put(2L, createModel("RTR-10"));
+        index.put(3L, createModel("RTR-11"));
+
+        assertEquals(List.of("RTR-1", "RTR-10", "RTR-11"), values(index.suggest("rtr-1", 5)));
+    }
+
+    @Test
+    void testPutAndRemove_AdjustCountsAndPrune() {
+        PrefixIndex<Locomotive> index = new PrefixIndex<>(Locomotive::getManufacturer);
+        Locomotive first = createLocomotive("Kato");
+        index.put(1L, first);
+        index.put(2L, createLocomotive("Kato"));
+        index.put(3L, createLocomotive("Kadee"));
+
+        first.setManufacturer("Kadee");
+        index.put(1L, first);
+        assertEquals(List.of("Kadee", "Kato"), values(index.suggest("ka", 5)));
+
+        index.remove(2L);
+        assertEquals(List.of("Kadee"), values(index.suggest("ka", 5)));
+        index.remove(1L);
+        index.remove(3L);
+        assertTrue(index.suggest("", 5).isEmpty());
+    }
+
+    private List<String> values(List<PrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(PrefixIndex.Suggestion::getValue).collect(Collectors.toList());
+    }
+
+    private Locomotive createLocomotive(String manufacturer) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setManufacturer(manufacturer);
+        return locomotive;
+    }
+
+    private Locomotive createModel(String modelNumber) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setModelNumber(modelNumber);
+        return locomotive;
+    }
+}
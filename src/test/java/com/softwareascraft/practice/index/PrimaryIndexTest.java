@@ -0,0 +1,79 @@
+package com.softwareascraft.practice.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimaryIndexTest {
+
+    @Test
+    void testPut_GetReturnsEntity() {
+        PrimaryIndex<String> index = new PrimaryIndex<>();
+
+        index.put(1L, "one");
+        index.put(2L, "two");
+
+        assertEquals("one", index.get(1L));
+        assertEquals("two", index.get(2L));
+        assertNull(index.get(3L));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testPut_ExistingIdKeepsPosition() {
+        PrimaryIndex<String> index = new PrimaryIndex<>();
+        index.put(1L, "one");
+        index.put(2L, "two");
+
+        assertEquals("one", index.put(1L, "uno"));
+
+        assertEquals(List.of("uno", "two"), new ArrayList<>(index.values()));
+    }
+
+    @Test
+    void testRemove_KeepsRemainingOrderAndLookups() {
+        PrimaryIndex<String> index = new PrimaryIndex<>();
+        for (long id = 1; id <= 100; id++) {
+            index.put(id, "item-" + id);
+        }
+
+        for (long id = 1; id <= 100; id += 2) {
+            assertEquals("item-" + id, index.remove(id));
+        }
+
+        assertEquals(50, index.size());
+        assertNull(index.remove(1L));
+        assertFalse(index.containsKey(99L));
+        assertEquals("item-100", index.get(100L));
+        assertEquals("item-2", index.values().iterator().next());
+        assertEquals(100L, index.maxId());
+    }
+
+    @Test
+    void testRandomOperations_MatchHashMap() {
+        PrimaryIndex<Long> index = new PrimaryIndex<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            long id = random.nextInt(2000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), index.remove(id));
+            } else {
+                assertEquals(expected.put(id, (long) i), index.put(id, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), index.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), new ArrayList<>(index.values()).size());
+    }
+}
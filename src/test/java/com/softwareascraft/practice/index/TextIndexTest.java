@@ -0,0 +1,71 @@
+package com.softwareascraft.practice.index;
+
+import com.softwareascraft.practice.model.MaintenanceLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+
+    @Test
+    void testTokenize_LowerCasesAndDropsPunctuationAndSingleCharacters() {
+        assertEquals(List.of("replaced", "gearbox", "on", "sd70m", "4141"),
+                TextIndex.tokenize("Replaced GEARBOX on SD70M #4141, a"));
+    }
+
+    @Test
+    void testSearch_RanksDenserMatchesFirst() {
+        TextIndex<MaintenanceLog> index = createIndex();
+        index.put(1L, createLog("Cleaned wheels and track pickups", null));
+        index.put(2L, createLog("Gearbox noisy", "Replaced gearbox"));
+        index.put(3L, createLog("Lubricated gearbox, cleaned wheels, checked couplers and trucks", null));
+
+        TextIndex.SearchHits hits = index.search("gearbox", 10);
+
+        assertEquals(2, hits.getTotalHits());
+        assertArrayEquals(new long[]{2L, 3L}, hits.getIds());
+        assertTrue(hits.getScores()[0] > hits.getScores()[1]);
+    }
+
+    @Test
+    void testSearch_LimitsToTopK() {
+        TextIndex<MaintenanceLog> index = createIndex();
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, createLog("Cleaned wheels", id % 10 == 0 ? "wheels wheels" : null));
+        }
+
+        TextIndex.SearchHits hits = index.search("WHEELS", 5);
+
+        assertEquals(50, hits.getTotalHits());
+        assertArrayEquals(new long[]{10L, 20L, 30L, 40L, 50L}, hits.getIds());
+    }
+
+    @Test
+    void testPut_ReplacesEarlierTermsAndRemoveUnlinks() {
+        TextIndex<MaintenanceLog> index = createIndex();
+        MaintenanceLog log = createLog("Replaced motor", null);
+        index.put(1L, log);
+        index.put(2L, createLog("Replaced decoder", null));
+
+        log.setDescription("Tuned decoder");
+        index.put(1L, log);
+        assertEquals(0, index.search("motor", 10).getTotalHits());
+        assertEquals(2, index.search("decoder", 10).getTotalHits());
+
+        index.remove(2L);
+        assertArrayEquals(new long[]{1L}, index.search("decoder replaced", 10).getIds());
+    }
+
+    private TextIndex<MaintenanceLog> createIndex() {
+        return new TextIndex<>(MaintenanceLog::getDescription, MaintenanceLog::getWorkPerformed);
+    }
+
+    private MaintenanceLog createLog(String description, String workPerformed) {
+        MaintenanceLog log = new MaintenanceLog();
+        log.setDescription(description);
+        log.setWorkPerformed(workPerformed);
+        return log;
+    }
+}
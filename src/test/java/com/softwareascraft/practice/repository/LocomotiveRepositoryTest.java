@@ -4,6 +4,7 @@ import com.softwareascraft.practice.enums.LocomotiveType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.PowerType;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
 import com.softwareascraft.practice.model.Locomotive;
 import com.softwareascraft.practice.util.IdGenerator;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +42,7 @@ class LocomotiveRepositoryTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("locomotive");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -72,6 +75,36 @@ class LocomotiveRepositoryTest {
         assertFalse(found.isPresent());
     }
 
+    @Test
+    void testFindById_ServedFromMemory() {
+        Locomotive saved = repository.save(createTestLocomotive());
+        new File(DATA_DIR + TEST_FILE).delete();
+
+        Optional<Locomotive> found = repository.findById(saved.getId());
+
+        assertTrue(found.isPresent());
+        assertEquals("Athearn", found.get().getManufacturer());
+    }
+
+    @Test
+    void testFindById_SharedAcrossRepositories() {
+        Locomotive saved = repository.save(createTestLocomotive());
+
+        Optional<Locomotive> found = new LocomotiveRepository().findById(saved.getId());
+
+        assertTrue(found.isPresent());
+    }
+
+    @Test
+    void testSave_WritesThroughToFile() {
+        repository.save(createTestLocomotive());
+        EntityStore.resetStore(TEST_FILE);
+
+        List<Locomotive> reloaded = new LocomotiveRepository().findAll();
+
+        assertEquals(1, reloaded.size());
+    }
+
     @Test
     void testFindAll() {
         repository.save(createTestLocomotive());
@@ -121,6 +154,29 @@ class LocomotiveRepositoryTest {
                 repository.deleteById(999L));
     }
 
+    @Test
+    void testGetVersion_AdvancesOnlyForChangedItemsAndIsNullOnceGone() {
+        Locomotive first = repository.save(createTestLocomotive());
+        Locomotive second = repository.save(createTestLocomotive());
+        long collectionVersion = repository.getVersion();
+        long firstVersion = repository.getVersion(first.getId());
+        long secondVersion = repository.getVersion(second.getId());
+
+        first.setRoadName("Updated Road");
+        repository.update(first.getId(), first);
+
+        assertTrue(repository.getVersion() > collectionVersion);
+        assertTrue(repository.getVersion(first.getId()) > firstVersion);
+        assertEquals(secondVersion, repository.getVersion(second.getId()));
+
+        collectionVersion = repository.getVersion();
+        repository.deleteById(second.getId());
+
+        assertTrue(repository.getVersion() > collectionVersion);
+        assertNull(repository.getVersion(second.getId()));
+        assertNull(repository.getVersion(999L));
+    }
+
     @Test
     void testFindByManufacturer() {
         Locomotive loco1 = createTestLocomotive();
@@ -137,6 +193,27 @@ class LocomotiveRepositoryTest {
         assertEquals("Athearn", result.get(0).getManufacturer());
     }
 
+    @Test
+    void testFindByManufacturer_IgnoresCaseAndFollowsUpdates() {
+        Locomotive saved = repository.save(createTestLocomotive());
+        saved.setManufacturer("Athearn");
+        repository.update(saved.getId(), saved);
+
+        assertEquals(1, repository.findByManufacturer("ATHEARN").size());
+
+        saved.setManufacturer("Kato");
+        repository.update(saved.getId(), saved);
+        Locomotive other = repository.save(createTestLocomotive());
+        other.setManufacturer("kato");
+        repository.update(other.getId(), other);
+        repository.deleteById(saved.getId());
+
+        assertTrue(repository.findByManufacturer("athearn").isEmpty());
+        List<Locomotive> result = repository.findByManufacturer("Kato");
+        assertEquals(1, result.size());
+        assertEquals(other.getId(), result.get(0).getId());
+    }
+
     @Test
     void testFindByScale() {
         Locomotive loco1 = createTestLocomotive();
@@ -169,6 +246,45 @@ class LocomotiveRepositoryTest {
         assertEquals(MaintenanceStatus.OPERATIONAL, result.get(0).getMaintenanceStatus());
     }
 
+    @Test
+    void testFindPage_WalksEveryItemOnceAcrossPages() {
+        for (int i = 0; i < 7; i++) {
+            repository.save(createTestLocomotive());
+        }
+        repository.deleteById(3L);
+
+        List<Long> seen = new ArrayList<>();
+        PageResult<Locomotive> page = repository.findPage(null, null, null, 2);
+        seen.addAll(page.getResults().stream().map(Locomotive::getId).toList());
+        while (page.getNext() != null) {
+            page = repository.findPage(null, null, page.getNext().encode(), 2);
+            seen.addAll(page.getResults().stream().map(Locomotive::getId).toList());
+        }
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L, 7L), seen);
+        assertEquals(6, page.getTotalResults());
+    }
+
+    @Test
+    void testFindPage_OrdersBySortKeyAndRejectsMismatchedCursor() {
+        for (String value : new String[]{"150.00", "90.00", "150.00", "210.00"}) {
+            Locomotive locomotive = createTestLocomotive();
+            locomotive.setCurrentValue(new BigDecimal(value));
+            repository.save(locomotive);
+        }
+
+        PageResult<Locomotive> first = repository.findPage("currentValue", true, null, 3);
+        assertEquals(List.of(4L, 3L, 1L), first.getResults().stream().map(Locomotive::getId).toList());
+
+        String cursor = first.getNext().encode();
+        PageResult<Locomotive> second = repository.findPage(null, null, cursor, 3);
+        assertEquals(List.of(2L), second.getResults().stream().map(Locomotive::getId).toList());
+        assertNull(second.getNext());
+
+        assertThrows(InvalidRequestException.class, () -> repository.findPage("id", null, cursor, 3));
+        assertThrows(InvalidRequestException.class, () -> repository.findPage(null, null, "not-a-cursor", 3));
+    }
+
     private Locomotive createTestLocomotive() {
         Locomotive locomotive = new Locomotive();
         locomotive.setManufacturer("Athearn");
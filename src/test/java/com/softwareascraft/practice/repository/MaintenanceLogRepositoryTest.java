@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,7 @@ class MaintenanceLogRepositoryTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("maintenance_log");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -142,6 +144,45 @@ class MaintenanceLogRepositoryTest {
         assertEquals(LocalDate.of(2024, 1, 1), result.get(1).getMaintenanceDate());
     }
 
+    @Test
+    void testFindLatestByInventoryItemId_FollowsDateChanges() {
+        for (int month = 1; month <= 6; month++) {
+            MaintenanceLog log = createTestMaintenanceLog(1L);
+            log.setMaintenanceDate(LocalDate.of(2024, month, 1));
+            repository.save(log);
+        }
+        repository.save(createTestMaintenanceLog(2L));
+
+        MaintenanceLog oldest = repository.findLatestByInventoryItemId(1L, 6).get(5);
+        oldest.setMaintenanceDate(LocalDate.of(2024, 12, 1));
+        repository.update(oldest.getId(), oldest);
+
+        List<MaintenanceLog> result = repository.findLatestByInventoryItemId(1L, 2);
+
+        assertEquals(2, result.size());
+        assertEquals(LocalDate.of(2024, 12, 1), result.get(0).getMaintenanceDate());
+        assertEquals(LocalDate.of(2024, 6, 1), result.get(1).getMaintenanceDate());
+    }
+
+    @Test
+    void testSearch_MatchesWorkPerformedAndFollowsDeletes() {
+        MaintenanceLog gearbox = createTestMaintenanceLog(1L);
+        gearbox.setWorkPerformed("Replaced worn gearbox");
+        repository.save(gearbox);
+        MaintenanceLog other = createTestMaintenanceLog(2L);
+        other.setNotes("Gearbox sounds fine");
+        repository.save(other);
+        repository.save(createTestMaintenanceLog(3L));
+
+        SearchResult<MaintenanceLog> result = repository.search("gearbox", 10);
+        assertEquals(2, result.getTotalHits());
+
+        repository.deleteById(other.getId());
+        result = repository.search("gearbox", 10);
+        assertEquals(1, result.getResults().size());
+        assertEquals(gearbox.getId(), result.getResults().get(0).getId());
+    }
+
     @Test
     void testFindByMaintenanceDateBetween() {
         MaintenanceLog log1 = createTestMaintenanceLog(1L);
@@ -164,6 +205,48 @@ class MaintenanceLogRepositoryTest {
         assertEquals(2, result.size());
     }
 
+    @Test
+    void testFindByMaintenanceDateBetweenDesc_AndCount() {
+        for (int month = 1; month <= 4; month++) {
+            MaintenanceLog log = createTestMaintenanceLog(1L);
+            log.setMaintenanceDate(LocalDate.of(2024, month, 15));
+            repository.save(log);
+        }
+        MaintenanceLog moved = repository.findByMaintenanceDateBetween(LocalDate.of(2024, 4, 1), null).get(0);
+        moved.setMaintenanceDate(LocalDate.of(2023, 12, 31));
+        repository.update(moved.getId(), moved);
+
+        List<MaintenanceLog> result = repository.findByMaintenanceDateBetweenOrderByMaintenanceDateDesc(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+
+        assertEquals(3, result.size());
+        assertEquals(LocalDate.of(2024, 3, 15), result.get(0).getMaintenanceDate());
+        assertEquals(LocalDate.of(2024, 1, 15), result.get(2).getMaintenanceDate());
+        assertEquals(4, repository.countByMaintenanceDateBetween(LocalDate.of(2023, 12, 1), LocalDate.of(2024, 12, 31)));
+        assertEquals(0, repository.countByMaintenanceDateBetween(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void testStream_ResolvesFilteredLogsInBatches() {
+        for (int month = 1; month <= 6; month++) {
+            MaintenanceLog log = createTestMaintenanceLog(month % 2 == 0 ? 2L : 1L);
+            log.setMaintenanceDate(LocalDate.of(2024, month, 1));
+            repository.save(log);
+        }
+
+        BatchStream<MaintenanceLog> stream = repository.stream(null, LocalDate.of(2024, 2, 1), null);
+        repository.deleteById(4L);
+        List<List<Long>> batches = new ArrayList<>();
+        stream.forEachBatch(2, batch -> batches.add(batch.stream().map(MaintenanceLog::getId).toList()));
+
+        assertEquals(List.of(List.of(2L, 3L), List.of(5L), List.of(6L)), batches);
+
+        List<Long> itemTwo = new ArrayList<>();
+        repository.stream(2L, null, LocalDate.of(2024, 5, 1))
+                .forEachBatch(10, batch -> batch.forEach(log -> itemTwo.add(log.getId())));
+        assertEquals(List.of(2L), itemTwo);
+    }
+
     private MaintenanceLog createTestMaintenanceLog(Long inventoryItemId) {
         MaintenanceLog log = new MaintenanceLog();
         log.setInventoryItemId(inventoryItemId);
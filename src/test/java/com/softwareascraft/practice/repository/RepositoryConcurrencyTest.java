@@ -0,0 +1,107 @@
+package com.softwareascraft.practice.repository;
+
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.util.IdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryConcurrencyTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final String TEST_FILE = "locomotives.json";
+    private static final int WRITERS = 32;
+    private static final int SAVES_PER_WRITER = 25;
+    private static final int UPDATES_PER_WRITER = 25;
+
+    private LocomotiveRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        IdGenerator.resetIdCounter("locomotive");
+        repository = new LocomotiveRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        File dataFile = new File(DATA_DIR + TEST_FILE);
+        if (dataFile.exists()) {
+            dataFile.delete();
+        }
+        IdGenerator.resetIdCounter("locomotive");
+        EntityStore.resetStore(TEST_FILE);
+    }
+
+    @Test
+    void testParallelWriters_NoLostUpdates() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 4);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Long> ownIds = new ConcurrentLinkedQueue<>();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                Locomotive own = repository.save(createTestLocomotive("own"));
+                ownIds.add(own.getId());
+                for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                    repository.save(createTestLocomotive("bulk"));
+                }
+                for (int i = 1; i <= UPDATES_PER_WRITER; i++) {
+                    Locomotive update = createTestLocomotive("own");
+                    update.setNotes("update-" + i);
+                    repository.update(own.getId(), update);
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    repository.findByScale(Scale.HO);
+                    repository.findAll();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int expected = WRITERS * (1 + SAVES_PER_WRITER);
+        assertEquals(expected, repository.findAll().size());
+
+        EntityStore.resetStore(TEST_FILE);
+        LocomotiveRepository reloaded = new LocomotiveRepository();
+        assertEquals(expected, reloaded.findAll().size());
+        for (Long id : ownIds) {
+            assertEquals("update-" + UPDATES_PER_WRITER, reloaded.findById(id).orElseThrow().getNotes());
+        }
+    }
+
+    private Locomotive createTestLocomotive(String manufacturer) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setManufacturer(manufacturer);
+        locomotive.setModelNumber("RTR-87901");
+        locomotive.setScale(Scale.HO);
+        locomotive.setRoadName("Union Pacific");
+        return locomotive;
+    }
+}
@@ -37,6 +37,7 @@ class RollingStockRepositoryTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("rolling_stock");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -133,6 +134,104 @@ class RollingStockRepositoryTest {
         assertEquals(AARType.XM, result.get(0).getAarType());
     }
 
+    @Test
+    void testFindByScaleAndAarTypeAndMaintenanceStatus() {
+        RollingStock match = createTestRollingStock();
+        match.setAarType(AARType.TA);
+        match.setMaintenanceStatus(MaintenanceStatus.NEEDS_MAINTENANCE);
+        repository.save(match);
+
+        RollingStock operational = createTestRollingStock();
+        operational.setAarType(AARType.TA);
+        repository.save(operational);
+
+        RollingStock nScale = createTestRollingStock();
+        nScale.setScale(Scale.N);
+        nScale.setAarType(AARType.TA);
+        nScale.setMaintenanceStatus(MaintenanceStatus.NEEDS_MAINTENANCE);
+        repository.save(nScale);
+
+        List<RollingStock> result = repository.findByScaleAndAarTypeAndMaintenanceStatus(
+                Scale.HO, AARType.TA, MaintenanceStatus.NEEDS_MAINTENANCE);
+
+        assertEquals(1, result.size());
+        assertEquals(match.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void testQuery_StartsFromMostSelectiveIndexAndIntersectsInOrder() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(createTestRollingStock());
+        }
+        RollingStock tankCar = createTestRollingStock();
+        tankCar.setAarType(AARType.TA);
+        tankCar.setPurchasePrice(new BigDecimal("20.00"));
+        repository.save(tankCar);
+        RollingStock pricey = createTestRollingStock();
+        pricey.setAarType(AARType.TA);
+        pricey.setPurchasePrice(new BigDecimal("80.00"));
+        repository.save(pricey);
+
+        InventoryQuery query = new InventoryQuery();
+        query.setScale(Scale.HO);
+        query.setAarType(AARType.TA);
+        query.setMaxPurchasePrice(new BigDecimal("50.00"));
+        QueryResult<RollingStock> result = repository.query(query);
+
+        assertEquals(List.of(tankCar.getId()), result.getResults().stream().map(RollingStock::getId).toList());
+        assertEquals("index aarType = TA (2)", result.getPlan().get(0));
+        assertEquals("intersect purchasePrice between null and 50.00 (estimate 6, 1 left)", result.getPlan().get(1));
+        assertTrue(result.getPlan().get(2).startsWith("intersect scale = HO"));
+    }
+
+    @Test
+    void testQuery_ScansWithoutIndexedCriteria() {
+        repository.save(createTestRollingStock());
+
+        QueryResult<RollingStock> result = repository.query(new InventoryQuery());
+
+        assertEquals(1, result.getResults().size());
+        assertEquals("scan all", result.getPlan().get(0));
+    }
+
+    @Test
+    void testFindMostValuable_FollowsCurrentValueUpdates() {
+        RollingStock boxcar = createTestRollingStock();
+        boxcar.setCurrentValue(new BigDecimal("40.00"));
+        repository.save(boxcar);
+        RollingStock tankCar = createTestRollingStock();
+        tankCar.setCurrentValue(new BigDecimal("55.50"));
+        repository.save(tankCar);
+        RollingStock hopper = createTestRollingStock();
+        hopper.setCurrentValue(new BigDecimal("12.25"));
+        repository.save(hopper);
+
+        assertEquals(List.of(tankCar.getId(), boxcar.getId()),
+                repository.findMostValuable(2).stream().map(RollingStock::getId).toList());
+
+        RollingStock existing = repository.findById(hopper.getId()).orElseThrow();
+        existing.setCurrentValue(new BigDecimal("99.99"));
+        repository.update(existing.getId(), existing);
+
+        assertEquals(List.of(hopper.getId(), tankCar.getId()),
+                repository.findMostValuable(2).stream().map(RollingStock::getId).toList());
+        assertEquals(List.of(boxcar.getId(), tankCar.getId()),
+                repository.findByCurrentValueBetween(new BigDecimal("40.00"), new BigDecimal("60.00"))
+                        .stream().map(RollingStock::getId).toList());
+    }
+
+    @Test
+    void testFindByMaintenanceStatus_FollowsInPlaceUpdate() {
+        RollingStock saved = repository.save(createTestRollingStock());
+
+        RollingStock existing = repository.findById(saved.getId()).orElseThrow();
+        existing.setMaintenanceStatus(MaintenanceStatus.IN_MAINTENANCE);
+        repository.update(existing.getId(), existing);
+
+        assertTrue(repository.findByMaintenanceStatus(MaintenanceStatus.OPERATIONAL).isEmpty());
+        assertEquals(1, repository.findByMaintenanceStatus(MaintenanceStatus.IN_MAINTENANCE).size());
+    }
+
     private RollingStock createTestRollingStock() {
         RollingStock rollingStock = new RollingStock();
         rollingStock.setManufacturer("Walthers");
@@ -1,13 +1,19 @@
 package com.softwareascraft.practice.service;
 
+import com.softwareascraft.practice.dto.request.BatchOperationRequest;
+import com.softwareascraft.practice.dto.request.BatchRequest;
 import com.softwareascraft.practice.dto.request.CreateLocomotiveRequest;
 import com.softwareascraft.practice.dto.request.UpdateLocomotiveRequest;
+import com.softwareascraft.practice.dto.response.BatchOperationResultResponse;
+import com.softwareascraft.practice.dto.response.BatchResultResponse;
 import com.softwareascraft.practice.dto.response.LocomotiveResponse;
 import com.softwareascraft.practice.enums.LocomotiveType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.PowerType;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
+import com.softwareascraft.practice.repository.EntityStore;
 import com.softwareascraft.practice.util.IdGenerator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +45,7 @@ class LocomotiveServiceTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("locomotive");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -130,6 +137,53 @@ class LocomotiveServiceTest {
                 service.getLocomotiveById(created.getId()));
     }
 
+    @Test
+    void testApplyLocomotiveBatch_ReportsEachOperation() {
+        LocomotiveResponse existing = service.createLocomotive(createLocomotiveRequest());
+        LocomotiveResponse doomed = service.createLocomotive(createLocomotiveRequest());
+
+        CreateLocomotiveRequest renamed = createLocomotiveRequest();
+        renamed.setRoadName("Southern Pacific");
+        BatchRequest<CreateLocomotiveRequest> request = batch(false,
+                operation("create", null, createLocomotiveRequest()),
+                operation("update", existing.getId(), renamed),
+                operation("delete", doomed.getId(), null),
+                operation("delete", 99L, null),
+                operation("update", doomed.getId(), renamed));
+
+        BatchResultResponse<LocomotiveResponse> result = service.applyLocomotiveBatch(request);
+
+        assertEquals(3, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(201, 200, 204, 404, 404),
+                result.getResults().stream().map(BatchOperationResultResponse::getStatus).toList());
+        assertEquals(3L, result.getResults().get(0).getItem().getId());
+        assertEquals("Southern Pacific", service.getLocomotiveById(existing.getId()).getRoadName());
+        assertEquals(existing.getCreatedDate(), service.getLocomotiveById(existing.getId()).getCreatedDate());
+        assertThrows(ResourceNotFoundException.class, () -> service.getLocomotiveById(doomed.getId()));
+    }
+
+    @Test
+    void testApplyLocomotiveBatch_AtomicAppliesNothingOnFailure() {
+        LocomotiveResponse existing = service.createLocomotive(createLocomotiveRequest());
+
+        CreateLocomotiveRequest renamed = createLocomotiveRequest();
+        renamed.setRoadName("Southern Pacific");
+        BatchRequest<CreateLocomotiveRequest> request = batch(true,
+                operation("update", existing.getId(), renamed),
+                operation("create", null, createLocomotiveRequest()),
+                operation("delete", 99L, null));
+
+        BatchResultResponse<LocomotiveResponse> result = service.applyLocomotiveBatch(request);
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals(List.of(424, 424, 404),
+                result.getResults().stream().map(BatchOperationResultResponse::getStatus).toList());
+        assertEquals("Union Pacific", service.getLocomotiveById(existing.getId()).getRoadName());
+        assertEquals(1, service.getAllLocomotives().size());
+        assertThrows(InvalidRequestException.class, () -> service.applyLocomotiveBatch(batch(false)));
+    }
+
     @Test
     void testGetLocomotivesByManufacturer() {
         CreateLocomotiveRequest request1 = createLocomotiveRequest();
@@ -164,4 +218,21 @@ class LocomotiveServiceTest {
         request.setRoadNumber("4141");
         return request;
     }
+
+    @SafeVarargs
+    private BatchRequest<CreateLocomotiveRequest> batch(boolean atomic,
+                                                        BatchOperationRequest<CreateLocomotiveRequest>... operations) {
+        BatchRequest<CreateLocomotiveRequest> request = new BatchRequest<>();
+        request.setAtomic(atomic);
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private BatchOperationRequest<CreateLocomotiveRequest> operation(String op, Long id, CreateLocomotiveRequest data) {
+        BatchOperationRequest<CreateLocomotiveRequest> operation = new BatchOperationRequest<>();
+        operation.setOp(op);
+        operation.setId(id);
+        operation.setData(data);
+        return operation;
+    }
 }
@@ -8,6 +8,7 @@ import com.softwareascraft.practice.enums.PowerType;
 import com.softwareascraft.practice.enums.Scale;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
 import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.repository.EntityStore;
 import com.softwareascraft.practice.repository.LocomotiveRepository;
 import com.softwareascraft.practice.util.IdGenerator;
 import org.junit.jupiter.api.AfterEach;
@@ -46,6 +47,9 @@ class MaintenanceServiceTest {
         IdGenerator.resetIdCounter("locomotive");
         IdGenerator.resetIdCounter("rolling_stock");
         IdGenerator.resetIdCounter("maintenance_log");
+        EntityStore.resetStore("locomotives.json");
+        EntityStore.resetStore("rolling-stock.json");
+        EntityStore.resetStore("maintenance-logs.json");
     }
 
     @Test
@@ -2,18 +2,26 @@ package com.softwareascraft.practice.service;
 
 import com.softwareascraft.practice.dto.request.CreateRollingStockRequest;
 import com.softwareascraft.practice.dto.request.UpdateRollingStockRequest;
+import com.softwareascraft.practice.dto.response.ImportErrorResponse;
+import com.softwareascraft.practice.dto.response.ImportResultResponse;
 import com.softwareascraft.practice.dto.response.RollingStockResponse;
 import com.softwareascraft.practice.enums.AARType;
 import com.softwareascraft.practice.enums.MaintenanceStatus;
 import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.InvalidRequestException;
 import com.softwareascraft.practice.exception.ResourceNotFoundException;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.util.BulkImport;
 import com.softwareascraft.practice.util.IdGenerator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -38,6 +46,7 @@ class RollingStockServiceTest {
             dataFile.delete();
         }
         IdGenerator.resetIdCounter("rolling_stock");
+        EntityStore.resetStore(TEST_FILE);
     }
 
     @Test
@@ -53,6 +62,59 @@ class RollingStockServiceTest {
         assertEquals(AARType.RB, response.getAarType());
     }
 
+    @Test
+    void testImportRollingStock_NdjsonSkipsAndReportsInvalidRows() throws IOException {
+        String ndjson = """
+                {"manufacturer": "Walthers", "modelNumber": "910-1", "scale": "HO", "aarType": "XM"}
+                {"manufacturer": "Atlas", "modelNumber": "20-1", "scale": "Q"}
+
+                {"manufacturer": "Athearn", "scale": "HO"}
+                not json
+                {"manufacturer": "Kadee", "modelNumber": "K-1", "scale": "N", "purchasePrice": 42.50}
+                """;
+
+        ImportResultResponse result = service.importRollingStock(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), BulkImport.Format.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2, 4, 5), result.getErrors().stream().map(ImportErrorResponse::getLine).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("scale: "));
+        assertEquals("modelNumber is required", result.getErrors().get(1).getMessage());
+
+        List<RollingStockResponse> all = service.getAllRollingStock();
+        assertEquals(List.of(1L, 2L), all.stream().map(RollingStockResponse::getId).toList());
+        assertEquals(new BigDecimal("42.50"), all.get(1).getPurchasePrice());
+    }
+
+    @Test
+    void testImportRollingStock_CsvReadsQuotedFields() throws IOException {
+        String csv = "manufacturer,modelNumber,scale,description,purchasePrice\r\n"
+                + "Walthers,910-1,HO,\"40' boxcar, \"\"Route of the Hiawatha\"\"\nweathered\",25.00\r\n"
+                + "Atlas,20-1,N,,-1\r\n"
+                + "Kadee,K-1,HO,,\r\n";
+
+        ImportResultResponse result = service.importRollingStock(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkImport.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertEquals("purchasePrice must not be negative", result.getErrors().get(0).getMessage());
+
+        RollingStockResponse boxcar = service.getRollingStockById(1L);
+        assertEquals("40' boxcar, \"Route of the Hiawatha\"\nweathered", boxcar.getDescription());
+        assertNull(service.getRollingStockById(2L).getPurchasePrice());
+    }
+
+    @Test
+    void testImportRollingStock_RejectsUnknownCsvColumn() {
+        String csv = "manufacturer,modelNumber,gauge\nWalthers,910-1,HO\n";
+
+        assertThrows(InvalidRequestException.class, () -> service.importRollingStock(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkImport.Format.CSV));
+    }
+
     @Test
     void testGetRollingStockById() {
         CreateRollingStockRequest request = createRollingStockRequest();
@@ -0,0 +1,157 @@
+package com.softwareascraft.practice.service;
+
+import com.softwareascraft.practice.dto.request.CreateLocomotiveRequest;
+import com.softwareascraft.practice.dto.request.UpdateLocomotiveRequest;
+import com.softwareascraft.practice.dto.response.LocomotiveResponse;
+import com.softwareascraft.practice.enums.LocomotiveType;
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.PowerType;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.repository.EntityStore;
+import com.softwareascraft.practice.util.IdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceConcurrencyTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int UPDATES_PER_WRITER = 200;
+    private static final int READS_PER_READER = 2000;
+
+    private LocomotiveService locomotiveService;
+    private MaintenanceService maintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        IdGenerator.resetIdCounter("locomotive");
+        IdGenerator.resetIdCounter("rolling_stock");
+        IdGenerator.resetIdCounter("maintenance_log");
+        locomotiveService = new LocomotiveService();
+        maintenanceService = new MaintenanceService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteFileIfExists(DATA_DIR + "locomotives.json");
+        deleteFileIfExists(DATA_DIR + "rolling-stock.json");
+        deleteFileIfExists(DATA_DIR + "maintenance-logs.json");
+
+        IdGenerator.resetIdCounter("locomotive");
+        IdGenerator.resetIdCounter("rolling_stock");
+        IdGenerator.resetIdCounter("maintenance_log");
+        EntityStore.resetStore("locomotives.json");
+        EntityStore.resetStore("rolling-stock.json");
+        EntityStore.resetStore("maintenance-logs.json");
+    }
+
+    @Test
+    void testUpdatesAlongsideReaders_NoReaderSeesAMixOfOldAndNewFields() throws Exception {
+        Long id = locomotiveService.createLocomotive(createLocomotiveRequest()).getId();
+        locomotiveService.updateLocomotive(id, updateRequest("A"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> torn = new ConcurrentLinkedQueue<>();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                    locomotiveService.updateLocomotive(id, updateRequest(i % 2 == 0 ? "A" : "B"));
+                }
+                return null;
+            }));
+        }
+        tasks.add(pool.submit(() -> {
+            start.await();
+            for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                maintenanceService.updateMaintenanceStatus(id,
+                        i % 2 == 0 ? MaintenanceStatus.NEEDS_MAINTENANCE : MaintenanceStatus.OPERATIONAL);
+            }
+            return null;
+        }));
+        for (int r = 0; r < READERS; r++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < READS_PER_READER; i++) {
+                    LocomotiveResponse response = locomotiveService.getLocomotiveById(id);
+                    if (!isConsistent(response)) {
+                        torn.add(response.getManufacturer() + "/" + response.getModelNumber() + "/"
+                                + response.getRoadName() + "/" + response.getColor() + "/"
+                                + response.getNotes() + "/" + response.getRoadNumber());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(torn.isEmpty(), "Readers saw half-applied updates: " + torn);
+        assertTrue(isConsistent(locomotiveService.getLocomotiveById(id)));
+    }
+
+    private boolean isConsistent(LocomotiveResponse response) {
+        String tag = response.getManufacturer();
+        return tag.equals(response.getModelNumber())
+                && tag.equals(response.getRoadName())
+                && tag.equals(response.getColor())
+                && tag.equals(response.getNotes())
+                && tag.equals(response.getRoadNumber());
+    }
+
+    private UpdateLocomotiveRequest updateRequest(String tag) {
+        UpdateLocomotiveRequest request = new UpdateLocomotiveRequest();
+        request.setManufacturer(tag);
+        request.setModelNumber(tag);
+        request.setScale(Scale.HO);
+        request.setRoadName(tag);
+        request.setColor(tag);
+        request.setNotes(tag);
+        request.setMaintenanceStatus(MaintenanceStatus.OPERATIONAL);
+        request.setLocomotiveType(LocomotiveType.DIESEL);
+        request.setPowerType(PowerType.DCC_SOUND);
+        request.setRoadNumber(tag);
+        return request;
+    }
+
+    private CreateLocomotiveRequest createLocomotiveRequest() {
+        CreateLocomotiveRequest request = new CreateLocomotiveRequest();
+        request.setManufacturer("Athearn");
+        request.setModelNumber("RTR-87901");
+        request.setScale(Scale.HO);
+        request.setRoadName("Union Pacific");
+        request.setMaintenanceStatus(MaintenanceStatus.OPERATIONAL);
+        request.setLocomotiveType(LocomotiveType.DIESEL);
+        request.setPowerType(PowerType.DCC_SOUND);
+        request.setRoadNumber("4141");
+        return request;
+    }
+
+    private void deleteFileIfExists(String path) {
+        File file = new File(path);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.softwareascraft.practice.storage;
+
+import com.softwareascraft.practice.exception.JsonFileException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitPipelineTest {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Test
+    void testSubmit_CompletesOnceWritten() {
+        RecordingEngine engine = new RecordingEngine();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.BATCH, 0, () -> { });
+
+        pipeline.await(pipeline.submit(StorageMutation.put(1L, "one")));
+
+        assertEquals(1, engine.mutations.size());
+        assertEquals(1, engine.syncedWrites.get());
+    }
+
+    @Test
+    void testSubmit_GroupsMutationsArrivingWithinWindow() {
+        RecordingEngine engine = new RecordingEngine();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.BATCH, 200, () -> { });
+
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            commits.add(pipeline.submit(StorageMutation.put(id, "item-" + id)));
+        }
+        commits.forEach(pipeline::await);
+
+        assertEquals(10, engine.mutations.size());
+        assertEquals(1, engine.writes.get());
+    }
+
+    @Test
+    void testSubmitAll_WritesMutationsInOneBatchBeyondMaxBatchSize() {
+        RecordingEngine engine = new RecordingEngine();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.BATCH, 0, () -> { });
+
+        List<StorageMutation<String>> mutations = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            mutations.add(StorageMutation.put(id, "item-" + id));
+        }
+        pipeline.await(pipeline.submitAll(mutations));
+
+        assertEquals(1000, engine.mutations.size());
+        assertEquals(1, engine.writes.get());
+        assertEquals(0, pipeline.getPendingChanges());
+    }
+
+    @Test
+    void testSubmit_WritePolicyForcesEveryMutation() {
+        RecordingEngine engine = new RecordingEngine();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.WRITE, 200, () -> { });
+
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            commits.add(pipeline.submit(StorageMutation.put(id, "item-" + id)));
+        }
+        commits.forEach(pipeline::await);
+
+        assertEquals(5, engine.syncedWrites.get());
+    }
+
+    @Test
+    void testSubmit_NonePolicyNeverForces() {
+        RecordingEngine engine = new RecordingEngine();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.NONE, 0, () -> { });
+
+        pipeline.await(pipeline.submit(StorageMutation.put(1L, "one")));
+
+        assertEquals(1, engine.writes.get());
+        assertEquals(0, engine.syncedWrites.get());
+    }
+
+    @Test
+    void testSubmit_FailedBatchFailsCallersAndRunsRecovery() {
+        RecordingEngine engine = new RecordingEngine();
+        engine.failing = true;
+        AtomicBoolean recovered = new AtomicBoolean();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.BATCH, 0, () -> recovered.set(true));
+
+        CompletableFuture<Void> commit = pipeline.submit(StorageMutation.put(1L, "one"));
+
+        assertThrows(JsonFileException.class, () -> pipeline.await(commit));
+        assertTrue(recovered.get());
+    }
+
+    @Test
+    void testSubmit_ConcurrentWritersAllCommitted() throws InterruptedException {
+        RecordingEngine engine = new RecordingEngine();
+        CommitPipeline<String> pipeline = createPipeline(engine, FsyncPolicy.BATCH, 2, () -> { });
+        int writers = 16;
+        CountDownLatch done = new CountDownLatch(writers);
+
+        for (int w = 0; w < writers; w++) {
+            long base = w * 100L;
+            new Thread(() -> {
+                for (long i = 0; i < 20; i++) {
+                    pipeline.await(pipeline.submit(StorageMutation.put(base + i, "item")));
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        assertEquals(writers * 20, engine.mutations.size());
+        assertTrue(engine.writes.get() <= writers * 20);
+    }
+
+    private CommitPipeline<String> createPipeline(RecordingEngine engine, FsyncPolicy policy,
+                                                  long windowMillis, Runnable onFailure) {
+        return new CommitPipeline<>("test", engine, Collections::emptyList, lock, onFailure,
+                policy, windowMillis, 256);
+    }
+
+    private static class RecordingEngine implements StorageEngine<String> {
+        private final List<StorageMutation<String>> mutations = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger writes = new AtomicInteger();
+        private final AtomicInteger syncedWrites = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public List<String> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void write(List<StorageMutation<String>> batch, Collection<String> current, boolean sync) {
+            if (failing) {
+                throw new JsonFileException("Disk full");
+            }
+            mutations.addAll(batch);
+            writes.incrementAndGet();
+            if (sync) {
+                syncedWrites.incrementAndGet();
+            }
+        }
+    }
+}
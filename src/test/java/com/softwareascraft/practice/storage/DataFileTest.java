@@ -0,0 +1,139 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.JsonFileException;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.util.FileCompression;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataFileTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final String TEST_FILE = "datafile-test-locomotives.json";
+    private static final TypeReference<List<Locomotive>> LIST_TYPE = new TypeReference<>() {};
+
+    @AfterEach
+    void tearDown() {
+        File file = new File(DATA_DIR + TEST_FILE);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    @Test
+    void testBinary_RoundTripsEveryField() {
+        DataFile<Locomotive> dataFile = new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.BINARY);
+        Locomotive original = createTestLocomotive(1L);
+        original.setCreatedDate(LocalDateTime.of(2024, 3, 1, 14, 30, 15, 123_456_789));
+        original.setNotes(null);
+
+        dataFile.replace(List.of(original), false);
+        Locomotive loaded = dataFile.load().get(0);
+
+        assertEquals(1L, loaded.getId());
+        assertEquals("Athearn", loaded.getManufacturer());
+        assertEquals(Scale.HO, loaded.getScale());
+        assertEquals(MaintenanceStatus.OPERATIONAL, loaded.getMaintenanceStatus());
+        assertEquals(new BigDecimal("189.90"), loaded.getPurchasePrice());
+        assertEquals(LocalDate.of(2024, 1, 15), loaded.getPurchaseDate());
+        assertEquals(original.getCreatedDate(), loaded.getCreatedDate());
+        assertNull(loaded.getNotes());
+    }
+
+    @Test
+    void testLoad_DetectsFormatOfExistingFile() {
+        new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.PRETTY_JSON).replace(List.of(createTestLocomotive(1L)), false);
+
+        DataFile<Locomotive> binary = new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.BINARY);
+        List<Locomotive> fromJson = binary.load();
+        binary.replace(fromJson, false);
+
+        assertEquals(1, fromJson.size());
+        assertEquals(1, new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.COMPACT_JSON).load().size());
+    }
+
+    @Test
+    void testLoad_RejectsTruncatedJson() throws IOException {
+        new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.COMPACT_JSON)
+                .replace(List.of(createTestLocomotive(1L), createTestLocomotive(2L)), false);
+        File file = new File(DATA_DIR + TEST_FILE);
+        String content = Files.readString(file.toPath());
+        Files.writeString(file.toPath(), content.substring(0, content.indexOf("},{") + 2));
+
+        DataFile<Locomotive> dataFile = new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.COMPACT_JSON);
+
+        assertThrows(JsonFileException.class, dataFile::load);
+    }
+
+    @Test
+    void testBinary_SmallerThanPrettyJson() throws IOException {
+        List<Locomotive> locomotives = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            locomotives.add(createTestLocomotive(id));
+        }
+
+        new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.PRETTY_JSON).replace(locomotives, false);
+        long prettySize = Files.size(new File(DATA_DIR + TEST_FILE).toPath());
+        new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.BINARY).replace(locomotives, false);
+        long binarySize = Files.size(new File(DATA_DIR + TEST_FILE).toPath());
+
+        assertTrue(binarySize * 3 < prettySize, "binary " + binarySize + " vs pretty " + prettySize);
+    }
+
+    @Test
+    void testScan_StopsAtLimitInBinary() {
+        DataFile<Locomotive> dataFile = new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.BINARY);
+        dataFile.replace(List.of(createTestLocomotive(1L), createTestLocomotive(2L), createTestLocomotive(3L)), false);
+
+        List<Locomotive> matches = dataFile.scan(l -> l.getId() > 1, 1);
+
+        assertEquals(1, matches.size());
+        assertEquals(2L, matches.get(0).getId());
+    }
+
+    @Test
+    void testCompression_RecordsLevelAndReadsBack() throws IOException {
+        List<Locomotive> locomotives = List.of(createTestLocomotive(1L), createTestLocomotive(2L));
+
+        for (FileCompression.Algorithm algorithm : List.of(FileCompression.Algorithm.DEFLATE, FileCompression.Algorithm.GZIP)) {
+            new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.COMPACT_JSON, FileCompression.of(algorithm, 9))
+                    .replace(locomotives, false);
+
+            byte[] header = Files.readAllBytes(new File(DATA_DIR + TEST_FILE).toPath());
+            FileCompression detected = FileCompression.detect(header, header.length);
+            assertEquals(algorithm, detected.getAlgorithm());
+            assertEquals(9, detected.getLevel());
+            assertEquals(2, new DataFile<>(TEST_FILE, LIST_TYPE, StorageFormat.PRETTY_JSON).load().size());
+        }
+    }
+
+    private Locomotive createTestLocomotive(Long id) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setId(id);
+        locomotive.setManufacturer("Athearn");
+        locomotive.setModelNumber("RTR-87901");
+        locomotive.setScale(Scale.HO);
+        locomotive.setRoadName("Union Pacific");
+        locomotive.setColor("Yellow/Gray");
+        locomotive.setDescription("SD70M Locomotive");
+        locomotive.setPurchasePrice(new BigDecimal("189.90"));
+        locomotive.setPurchaseDate(LocalDate.of(2024, 1, 15));
+        locomotive.setNotes("DCC Ready");
+        locomotive.setMaintenanceStatus(MaintenanceStatus.OPERATIONAL);
+        return locomotive;
+    }
+}
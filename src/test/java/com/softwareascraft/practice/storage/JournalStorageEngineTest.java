@@ -0,0 +1,175 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.enums.MaintenanceStatus;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.util.FileCompression;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalStorageEngineTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final String TEST_FILE = "journal-test-locomotives.json";
+    private static final String JOURNAL_FILE = "journal-test-locomotives.journal";
+
+    private JournalStorageEngine<Locomotive> engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = createEngine(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteFileIfExists(DATA_DIR + TEST_FILE);
+        deleteFileIfExists(DATA_DIR + JOURNAL_FILE);
+        deleteFileIfExists(DATA_DIR + JOURNAL_FILE + ".sealed");
+    }
+
+    @Test
+    void testWrite_AppendsWithoutRewritingBaseFile() {
+        engine.load();
+        List<Locomotive> current = new ArrayList<>();
+
+        current.add(createTestLocomotive(1L, "Athearn"));
+        engine.write(List.of(StorageMutation.put(1L, current.get(0))), current, true);
+
+        assertTrue(JsonFileManager.readFromFile(TEST_FILE, new TypeReference<List<Locomotive>>() {}).isEmpty());
+        assertEquals(1, engine.getJournalRecords());
+    }
+
+    @Test
+    void testLoad_ReplaysJournal() {
+        engine.load();
+        List<Locomotive> current = new ArrayList<>();
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn"))), current, false);
+        engine.write(List.of(StorageMutation.put(2L, createTestLocomotive(2L, "Walthers"))), current, false);
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, "Kato"))), current, false);
+        engine.write(List.of(StorageMutation.delete(2L)), current, false);
+
+        List<Locomotive> loaded = createEngine(1000).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals("Kato", loaded.get(0).getManufacturer());
+        assertEquals(Scale.HO, loaded.get(0).getScale());
+    }
+
+    @Test
+    void testCompact_FoldsJournalIntoBaseFile() {
+        engine.load();
+        List<Locomotive> current = new ArrayList<>();
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn"))), current, false);
+        engine.write(List.of(StorageMutation.put(2L, createTestLocomotive(2L, "Walthers"))), current, false);
+
+        engine.compact();
+
+        List<Locomotive> base = JsonFileManager.readFromFile(TEST_FILE, new TypeReference<List<Locomotive>>() {});
+        assertEquals(2, base.size());
+        assertFalse(new File(DATA_DIR + JOURNAL_FILE).exists());
+        assertEquals(2, createEngine(1000).load().size());
+    }
+
+    @Test
+    void testWrite_CompactsInBackgroundAtThreshold() {
+        engine = createEngine(3);
+        engine.load();
+        List<Locomotive> current = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            engine.write(List.of(StorageMutation.put(id, createTestLocomotive(id, "Athearn"))), current, false);
+        }
+
+        engine.compact();
+
+        assertEquals(5, createEngine(3).load().size());
+        assertEquals(5, JsonFileManager.readFromFile(TEST_FILE, new TypeReference<List<Locomotive>>() {}).size());
+    }
+
+    @Test
+    void testLoad_IgnoresTornLastRecord() throws IOException {
+        engine.load();
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn"))), new ArrayList<>(), false);
+        try (FileWriter writer = new FileWriter(DATA_DIR + JOURNAL_FILE, true)) {
+            writer.write("{\"operation\":\"PUT\",\"id\":2,\"enti");
+        }
+
+        List<Locomotive> loaded = createEngine(1000).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals(1L, loaded.get(0).getId());
+    }
+
+    @Test
+    void testLoad_RewritesTornJournalBeforeNextAppend() throws IOException {
+        engine.load();
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn"))), new ArrayList<>(), false);
+        try (FileWriter writer = new FileWriter(DATA_DIR + JOURNAL_FILE, true)) {
+            writer.write("{\"operation\":\"PUT\",\"id\":2,\"enti");
+        }
+
+        engine = createEngine(1000);
+        assertEquals(1, engine.load().size());
+        engine.write(List.of(StorageMutation.put(3L, createTestLocomotive(3L, "Kato"))), new ArrayList<>(), false);
+
+        List<Locomotive> loaded = createEngine(1000).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("Kato", loaded.get(1).getManufacturer());
+    }
+
+    @Test
+    void testLoad_ReplaysCompressedJournalAndIgnoresTornMember() throws IOException {
+        FileCompression gzip = FileCompression.of(FileCompression.Algorithm.GZIP, 6);
+        engine = createEngine(1000, gzip);
+        engine.load();
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn"))), new ArrayList<>(), false);
+        engine.write(List.of(StorageMutation.put(2L, createTestLocomotive(2L, "Kato"))), new ArrayList<>(), false);
+        try (FileOutputStream out = new FileOutputStream(DATA_DIR + JOURNAL_FILE, true)) {
+            out.write(new byte[]{0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0, 0x4b});
+        }
+
+        List<Locomotive> loaded = createEngine(1000, gzip).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("Kato", loaded.get(1).getManufacturer());
+    }
+
+    private JournalStorageEngine<Locomotive> createEngine(int compactionThreshold) {
+        return createEngine(compactionThreshold, FileCompression.NONE);
+    }
+
+    private JournalStorageEngine<Locomotive> createEngine(int compactionThreshold, FileCompression compression) {
+        return new JournalStorageEngine<>(TEST_FILE, new TypeReference<List<Locomotive>>() {},
+                Locomotive::getId, StorageFormat.PRETTY_JSON, compression, compactionThreshold);
+    }
+
+    private Locomotive createTestLocomotive(Long id, String manufacturer) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setId(id);
+        locomotive.setManufacturer(manufacturer);
+        locomotive.setModelNumber("RTR-87901");
+        locomotive.setScale(Scale.HO);
+        locomotive.setRoadName("Union Pacific");
+        locomotive.setMaintenanceStatus(MaintenanceStatus.OPERATIONAL);
+        return locomotive;
+    }
+
+    private void deleteFileIfExists(String filePath) {
+        File file = new File(filePath);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+}
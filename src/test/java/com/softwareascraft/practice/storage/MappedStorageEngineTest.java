@@ -0,0 +1,207 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.exception.JsonFileException;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedStorageEngineTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final String TEST_FILE = "mapped-test-locomotives.json";
+    private static final String RECORD_FILE = "mapped-test-locomotives.records";
+
+    private MappedStorageEngine<Locomotive> engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = createEngine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteFileIfExists(DATA_DIR + TEST_FILE);
+        deleteFileIfExists(DATA_DIR + RECORD_FILE);
+        deleteFileIfExists(DATA_DIR + RECORD_FILE + ".tmp");
+    }
+
+    @Test
+    void testOpen_ImportsExistingDataFile() {
+        JsonFileManager.writeToFile(TEST_FILE, List.of(createTestLocomotive(1L, "Athearn"),
+                createTestLocomotive(5L, "Kato")));
+
+        assertEquals("Kato", engine.find(5L).orElseThrow().getManufacturer());
+        assertEquals(2, engine.load().size());
+        assertEquals(5L, engine.getMaxId());
+    }
+
+    @Test
+    void testFind_ReadsSingleRecordAfterReopen() {
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn")));
+        write(StorageMutation.put(2L, createTestLocomotive(2L, "Walthers")));
+
+        MappedStorageEngine<Locomotive> reopened = createEngine();
+
+        assertEquals("Walthers", reopened.find(2L).orElseThrow().getManufacturer());
+        assertTrue(reopened.find(3L).isEmpty());
+    }
+
+    @Test
+    void testWrite_SmallerUpdateOverwritesInPlace() {
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Walthers")));
+
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Kato")));
+
+        assertEquals(0, engine.getDeadBytes());
+        assertEquals("Kato", createEngine().find(1L).orElseThrow().getManufacturer());
+    }
+
+    @Test
+    void testWrite_LargerUpdateRelocatesAndLeavesTombstone() {
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Kato")));
+
+        Locomotive larger = createTestLocomotive(1L, "Kato");
+        larger.setDescription("A description that no longer fits in the original slot ".repeat(10));
+        write(StorageMutation.put(1L, larger));
+
+        assertTrue(engine.getDeadBytes() > 0);
+        MappedStorageEngine<Locomotive> reopened = createEngine();
+        assertEquals(larger.getDescription(), reopened.find(1L).orElseThrow().getDescription());
+        assertEquals(1, reopened.load().size());
+    }
+
+    @Test
+    void testWrite_DeleteMarksTombstone() {
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn")));
+        write(StorageMutation.put(2L, createTestLocomotive(2L, "Kato")));
+
+        write(StorageMutation.delete(1L));
+
+        assertFalse(engine.contains(1L));
+        MappedStorageEngine<Locomotive> reopened = createEngine();
+        assertTrue(reopened.find(1L).isEmpty());
+        assertEquals(1, reopened.load().size());
+    }
+
+    @Test
+    void testCompact_DropsDeadSlots() {
+        for (long id = 1; id <= 10; id++) {
+            write(StorageMutation.put(id, createTestLocomotive(id, "Athearn")));
+        }
+        for (long id = 1; id <= 9; id++) {
+            write(StorageMutation.delete(id));
+        }
+
+        engine.compact();
+
+        assertEquals(0, engine.getDeadBytes());
+        MappedStorageEngine<Locomotive> reopened = createEngine();
+        assertEquals(1, reopened.load().size());
+        assertEquals(10L, reopened.find(10L).orElseThrow().getId());
+    }
+
+    @Test
+    void testCompact_KeepsWritesThatGrowTheFile() {
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn")));
+        engine.compact();
+
+        List<StorageMutation<Locomotive>> mutations = new ArrayList<>();
+        for (long id = 2; id <= 200; id++) {
+            Locomotive locomotive = createTestLocomotive(id, "Kato");
+            locomotive.setDescription("x".repeat(8 * 1024));
+            mutations.add(StorageMutation.put(id, locomotive));
+        }
+        engine.write(mutations, List.of(), true);
+
+        MappedStorageEngine<Locomotive> reopened = createEngine();
+        assertEquals(200, reopened.load().size());
+        assertEquals("Kato", reopened.find(200L).orElseThrow().getManufacturer());
+        assertFalse(new File(DATA_DIR + RECORD_FILE + ".tmp").exists());
+    }
+
+    @Test
+    void testCompact_FailedRewriteKeepsCurrentFile() throws IOException {
+        for (long id = 1; id <= 10; id++) {
+            write(StorageMutation.put(id, createTestLocomotive(id, "Athearn")));
+        }
+        write(StorageMutation.delete(1L));
+        Path blocked = Path.of(DATA_DIR + RECORD_FILE + ".tmp");
+        Files.createDirectories(blocked);
+        Files.writeString(blocked.resolve("blocker"), "x");
+
+        try {
+            assertThrows(JsonFileException.class, () -> engine.compact());
+
+            write(StorageMutation.put(11L, createTestLocomotive(11L, "Kato")));
+            assertEquals("Athearn", engine.find(10L).orElseThrow().getManufacturer());
+            MappedStorageEngine<Locomotive> reopened = createEngine();
+            assertEquals(10, reopened.load().size());
+            assertEquals("Kato", reopened.find(11L).orElseThrow().getManufacturer());
+        } finally {
+            Files.delete(blocked.resolve("blocker"));
+            Files.delete(blocked);
+        }
+    }
+
+    @Test
+    void testFind_TornRecordFailsChecksum() throws IOException {
+        write(StorageMutation.put(1L, createTestLocomotive(1L, "Athearn")));
+        write(StorageMutation.put(2L, createTestLocomotive(2L, "Walthers")));
+
+        Path recordFile = Path.of(DATA_DIR + RECORD_FILE);
+        byte[] bytes = Files.readAllBytes(recordFile);
+        byte[] manufacturer = "Athearn".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i <= bytes.length - manufacturer.length; i++) {
+            if (Arrays.equals(bytes, i, i + manufacturer.length, manufacturer, 0, manufacturer.length)) {
+                bytes[i] = 'B';
+                break;
+            }
+        }
+        Files.write(recordFile, bytes);
+
+        MappedStorageEngine<Locomotive> reopened = createEngine();
+        assertThrows(JsonFileException.class, () -> reopened.find(1L));
+        assertEquals("Walthers", reopened.find(2L).orElseThrow().getManufacturer());
+    }
+
+    private void write(StorageMutation<Locomotive> mutation) {
+        engine.write(List.of(mutation), List.of(), false);
+    }
+
+    private MappedStorageEngine<Locomotive> createEngine() {
+        return new MappedStorageEngine<>(TEST_FILE, new TypeReference<List<Locomotive>>() {},
+                Locomotive::getId, StorageFormat.PRETTY_JSON);
+    }
+
+    private Locomotive createTestLocomotive(Long id, String manufacturer) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setId(id);
+        locomotive.setManufacturer(manufacturer);
+        locomotive.setModelNumber("RTR-87901");
+        locomotive.setScale(Scale.HO);
+        locomotive.setRoadName("Union Pacific");
+        return locomotive;
+    }
+
+    private void deleteFileIfExists(String filePath) {
+        File file = new File(filePath);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+}
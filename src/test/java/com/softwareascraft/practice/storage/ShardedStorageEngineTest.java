@@ -0,0 +1,129 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.util.FileCompression;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedStorageEngineTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final String TEST_FILE = "shard-test-locomotives.json";
+    private static final TypeReference<List<Locomotive>> LIST_TYPE = new TypeReference<>() {};
+
+    @AfterEach
+    void tearDown() {
+        deleteFileIfExists(DATA_DIR + TEST_FILE);
+        for (String shard : JsonFileManager.listFiles("shard-test-locomotives.shard-*")) {
+            deleteFileIfExists(DATA_DIR + shard);
+        }
+    }
+
+    @Test
+    void testLoad_MigratesUnshardedFile() {
+        JsonFileManager.writeToFile(TEST_FILE, createLocomotives(6));
+
+        List<Locomotive> loaded = createEngine(3, ShardKey.ID_RANGE, 2).load();
+
+        assertEquals(6, loaded.size());
+        assertFalse(new File(DATA_DIR + TEST_FILE).exists());
+        assertEquals(2, readShard(0).size());
+        assertEquals(List.of(3L, 4L), readShard(1).stream().map(Locomotive::getId).toList());
+        assertEquals(6, createEngine(3, ShardKey.ID_RANGE, 2).load().size());
+    }
+
+    @Test
+    void testWrite_RewritesOnlyOwningShard() {
+        JsonFileManager.writeToFile(TEST_FILE, createLocomotives(4));
+        ShardedStorageEngine<Locomotive> engine = createEngine(2, ShardKey.ID_RANGE, 2);
+        engine.load();
+        deleteFileIfExists(DATA_DIR + "shard-test-locomotives.shard-1.json");
+
+        Locomotive updated = createTestLocomotive(1L, Scale.HO);
+        updated.setManufacturer("Kato");
+        engine.write(List.of(StorageMutation.put(1L, updated)), List.of(), false);
+
+        assertEquals("Kato", readShard(0).get(0).getManufacturer());
+        assertFalse(new File(DATA_DIR + "shard-test-locomotives.shard-1.json").exists());
+    }
+
+    @Test
+    void testWrite_ScaleChangeMovesEntityBetweenShards() {
+        ShardedStorageEngine<Locomotive> engine = createEngine(Scale.values().length, ShardKey.SCALE, 1000);
+        engine.load();
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, Scale.HO))), List.of(), false);
+
+        engine.write(List.of(StorageMutation.put(1L, createTestLocomotive(1L, Scale.N))), List.of(), false);
+
+        assertTrue(readShard(Scale.HO.ordinal()).isEmpty());
+        assertEquals(1, readShard(Scale.N.ordinal()).size());
+    }
+
+    @Test
+    void testLoad_ReshardsWhenCountChanges() {
+        JsonFileManager.writeToFile(TEST_FILE, createLocomotives(9));
+        createEngine(3, ShardKey.ID_RANGE, 1).load();
+
+        List<Locomotive> loaded = createEngine(2, ShardKey.ID_RANGE, 1).load();
+
+        assertEquals(9, loaded.size());
+        assertFalse(new File(DATA_DIR + "shard-test-locomotives.shard-2.json").exists());
+        assertEquals(5, readShard(0).size());
+        assertEquals(4, readShard(1).size());
+    }
+
+    @Test
+    void testScan_MergesShardsInIdOrder() {
+        JsonFileManager.writeToFile(TEST_FILE, createLocomotives(6));
+        ShardedStorageEngine<Locomotive> engine = createEngine(3, ShardKey.ID_RANGE, 1);
+        engine.load();
+
+        List<Locomotive> matches = engine.scan(l -> l.getId() > 2, 2);
+
+        assertEquals(List.of(3L, 4L), matches.stream().map(Locomotive::getId).toList());
+    }
+
+    private List<Locomotive> readShard(int shard) {
+        return new DataFile<>("shard-test-locomotives.shard-" + shard + ".json", LIST_TYPE, StorageFormat.PRETTY_JSON)
+                .load();
+    }
+
+    private ShardedStorageEngine<Locomotive> createEngine(int shards, ShardKey key, long rangeSize) {
+        return new ShardedStorageEngine<>(TEST_FILE, LIST_TYPE, Locomotive::getId, StorageFormat.PRETTY_JSON,
+                FileCompression.NONE, shards, key, rangeSize);
+    }
+
+    private List<Locomotive> createLocomotives(int count) {
+        List<Locomotive> locomotives = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            locomotives.add(createTestLocomotive(id, Scale.HO));
+        }
+        return locomotives;
+    }
+
+    private Locomotive createTestLocomotive(Long id, Scale scale) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setId(id);
+        locomotive.setManufacturer("Athearn");
+        locomotive.setModelNumber("RTR-87901");
+        locomotive.setScale(scale);
+        locomotive.setRoadName("Union Pacific");
+        return locomotive;
+    }
+
+    private void deleteFileIfExists(String filePath) {
+        File file = new File(filePath);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.softwareascraft.practice.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.softwareascraft.practice.enums.Scale;
+import com.softwareascraft.practice.model.Locomotive;
+import com.softwareascraft.practice.util.FileCompression;
+import com.softwareascraft.practice.util.JsonFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStorageEngineTest {
+
+    private static final String DATA_DIR = "data/";
+    private static final String TEST_FILE = "snapshot-test-locomotives.json";
+
+    private SnapshotStorageEngine<Locomotive> engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SnapshotStorageEngine<>(TEST_FILE, new TypeReference<List<Locomotive>>() {},
+                StorageFormat.PRETTY_JSON, FileCompression.NONE);
+        JsonFileManager.writeToFile(TEST_FILE, List.of(
+                createTestLocomotive(1L, "Athearn", Scale.HO),
+                createTestLocomotive(2L, "Kato", Scale.N),
+                createTestLocomotive(3L, "Athearn", Scale.N)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        File file = new File(DATA_DIR + TEST_FILE);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    @Test
+    void testScan_ReturnsOnlyMatchesInFileOrder() {
+        List<Locomotive> athearn = engine.scan(l -> "Athearn".equals(l.getManufacturer()), Integer.MAX_VALUE);
+
+        assertEquals(2, athearn.size());
+        assertEquals(1L, athearn.get(0).getId());
+        assertEquals(3L, athearn.get(1).getId());
+    }
+
+    @Test
+    void testScan_StopsAtLimit() {
+        List<Locomotive> firstN = engine.scan(l -> l.getScale() == Scale.N, 1);
+
+        assertEquals(1, firstN.size());
+        assertEquals(2L, firstN.get(0).getId());
+    }
+
+    @Test
+    void testScan_StopsReadingAfterLimit() throws IOException {
+        try (FileWriter writer = new FileWriter(DATA_DIR + TEST_FILE)) {
+            writer.write("[{\"id\":1,\"manufacturer\":\"Athearn\"}, {\"id\":");
+        }
+
+        List<Locomotive> first = engine.scan(l -> true, 1);
+
+        assertEquals(1, first.size());
+        assertEquals("Athearn", first.get(0).getManufacturer());
+    }
+
+    @Test
+    void testScan_EmptyFile() {
+        JsonFileManager.writeToFile(TEST_FILE, List.of());
+
+        assertTrue(engine.scan(l -> true, Integer.MAX_VALUE).isEmpty());
+    }
+
+    private Locomotive createTestLocomotive(Long id, String manufacturer, Scale scale) {
+        Locomotive locomotive = new Locomotive();
+        locomotive.setId(id);
+        locomotive.setManufacturer(manufacturer);
+        locomotive.setModelNumber("RTR-87901");
+        locomotive.setScale(scale);
+        locomotive.setRoadName("Union Pacific");
+        return locomotive;
+    }
+}
@@ -0,0 +1,138 @@
+package com.softwareascraft.practice.storage;
+
+import com.softwareascraft.practice.exception.JsonFileException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindFlusherTest {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private WriteBehindFlusher<String> flusher;
+
+    @AfterEach
+    void tearDown() {
+        if (flusher != null) {
+            flusher.close();
+        }
+    }
+
+    @Test
+    void testSubmit_ReturnsBeforeWriting() {
+        RecordingEngine engine = new RecordingEngine();
+        flusher = createFlusher(engine, 60_000, 100);
+
+        submit(StorageMutation.put(1L, "one"));
+
+        assertEquals(0, engine.writes.get());
+        assertEquals(1, flusher.getPendingChanges());
+    }
+
+    @Test
+    void testFlush_CoalescesRepeatedChangesToSameEntity() {
+        RecordingEngine engine = new RecordingEngine();
+        flusher = createFlusher(engine, 60_000, 100);
+
+        submit(StorageMutation.put(1L, "first"));
+        submit(StorageMutation.put(2L, "other"));
+        submit(StorageMutation.put(1L, "second"));
+        flusher.flush();
+
+        assertEquals(1, engine.writes.get());
+        assertEquals(2, engine.mutations.size());
+        assertEquals("other", engine.mutations.get(0).getEntity());
+        assertEquals("second", engine.mutations.get(1).getEntity());
+        assertEquals(0, flusher.getPendingChanges());
+    }
+
+    @Test
+    void testSubmit_FlushesEarlyAtMaxPendingChanges() throws InterruptedException {
+        RecordingEngine engine = new RecordingEngine();
+        flusher = createFlusher(engine, 60_000, 3);
+
+        for (long id = 1; id <= 3; id++) {
+            submit(StorageMutation.put(id, "item-" + id));
+        }
+        waitForWrites(engine, 1);
+
+        assertEquals(3, engine.mutations.size());
+        assertEquals(0, flusher.getPendingChanges());
+    }
+
+    @Test
+    void testFlush_FailureKeepsChangesDirty() {
+        RecordingEngine engine = new RecordingEngine();
+        engine.failing = true;
+        flusher = createFlusher(engine, 60_000, 100);
+        submit(StorageMutation.put(1L, "one"));
+
+        assertThrows(JsonFileException.class, () -> flusher.flush());
+        assertEquals(1, flusher.getPendingChanges());
+
+        engine.failing = false;
+        flusher.flush();
+        assertEquals(1, engine.mutations.size());
+    }
+
+    @Test
+    void testClose_DrainsPendingChanges() {
+        RecordingEngine engine = new RecordingEngine();
+        flusher = createFlusher(engine, 60_000, 100);
+        submit(StorageMutation.put(1L, "one"));
+        submit(StorageMutation.delete(2L));
+
+        flusher.close();
+
+        assertEquals(2, engine.mutations.size());
+        assertEquals(0, flusher.getPendingChanges());
+    }
+
+    private void submit(StorageMutation<String> mutation) {
+        lock.writeLock().lock();
+        try {
+            flusher.submit(mutation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void waitForWrites(RecordingEngine engine, int writes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (engine.writes.get() < writes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private WriteBehindFlusher<String> createFlusher(RecordingEngine engine, long intervalMillis, int maxPending) {
+        return new WriteBehindFlusher<>("test", engine, Collections::emptyList, lock,
+                FsyncPolicy.BATCH, intervalMillis, maxPending);
+    }
+
+    private static class RecordingEngine implements StorageEngine<String> {
+        private final List<StorageMutation<String>> mutations = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger writes = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public List<String> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void write(List<StorageMutation<String>> batch, Collection<String> current, boolean sync) {
+            if (failing) {
+                throw new JsonFileException("Disk full");
+            }
+            mutations.addAll(batch);
+            writes.incrementAndGet();
+        }
+    }
+}